@@ -0,0 +1,108 @@
+package benchmark;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import manager.FileBackedTaskManager;
+import manager.ConcurrentTaskManager;
+import manager.InMemoryTaskManager;
+import manager.Managers;
+import manager.SnapshotTaskManager;
+import manager.TaskManager;
+import metrics.InstrumentedHistoryManager;
+import metrics.InstrumentedTaskManager;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Генератор тестовой доски для бенчмарков.
+ * Каждый элемент занимает первые 30 минут своего часового слота, вторая половина слота свободна.
+ * Кандидаты на вставку с вероятностью overlapDensity попадают на занятую половину слота,
+ * иначе — ровно в свободную, поэтому после вставки их можно удалить и вернуть доску в исходное состояние.
+ */
+final class BoardFixture {
+    static final LocalDateTime ORIGIN = LocalDateTime.of(2025, 1, 1, 0, 0);
+    static final Duration ITEM_DURATION = Duration.ofMinutes(30);
+    static final int CANDIDATES = 1024;
+
+    TaskManager manager;
+    final int[] taskIds;
+    final int[] epicIds;
+    final int slots;
+
+    private BoardFixture(TaskManager manager, int[] taskIds, int[] epicIds, int slots) {
+        this.manager = manager;
+        this.taskIds = taskIds;
+        this.epicIds = epicIds;
+        this.slots = slots;
+    }
+
+    static LocalDateTime slotStart(int slot) {
+        return ORIGIN.plusHours(slot);
+    }
+
+    // Половина элементов — задачи, остальные — подзадачи эпиков по epicFanOut в каждом
+    static BoardFixture fill(TaskManager manager, int size, int epicFanOut) {
+        int taskCount = size / 2;
+        int epicCount = Math.max(1, (size - taskCount) / Math.max(1, epicFanOut));
+        int[] taskIds = new int[taskCount];
+        int[] epicIds = new int[epicCount];
+        int slot = 0;
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task("Task " + i, "Description " + i, TaskStatus.NEW, ITEM_DURATION, slotStart(slot++));
+            manager.addTask(task);
+            taskIds[i] = task.getId();
+        }
+        for (int e = 0; e < epicCount; e++) {
+            Epic epic = new Epic("Epic " + e, "Epic description " + e);
+            manager.addEpic(epic);
+            epicIds[e] = epic.getId();
+            for (int s = 0; s < epicFanOut; s++) {
+                TaskStatus status = s % 3 == 0 ? TaskStatus.DONE : TaskStatus.NEW;
+                manager.addSubtask(new SubTask("SubTask " + e + "-" + s, "Description", status, epic.getId(),
+                        ITEM_DURATION, slotStart(slot++)));
+            }
+        }
+        return new BoardFixture(manager, taskIds, epicIds, slot);
+    }
+
+    // Менеджер нужного типа с заполненной доской. Для файловых режимов доска пишется журналом
+    // без чекпоинтов, сворачивается в снимок и загружается, чтобы не перезаписывать файл на каждую вставку
+    static BoardFixture create(ManagerType type, File file, int size, int epicFanOut) {
+        if (type == ManagerType.IN_MEMORY) {
+            return fill(new InMemoryTaskManager(), size, epicFanOut);
+        }
+        if (type == ManagerType.INSTRUMENTED) {
+            var history = new InstrumentedHistoryManager(Managers.getDefaultHistory());
+            return fill(new InstrumentedTaskManager(new InMemoryTaskManager(history)), size, epicFanOut);
+        }
+        if (type == ManagerType.SNAPSHOT) {
+            return fill(new SnapshotTaskManager(new ConcurrentTaskManager()), size, epicFanOut);
+        }
+        BoardFixture board = writeBoard(file, size, epicFanOut);
+        board.manager = FileBackedTaskManager.loadFromFile(file, type == ManagerType.FILE_JOURNAL ? 1000 : 0);
+        return board;
+    }
+
+    static BoardFixture writeBoard(File file, int size, int epicFanOut) {
+        FileBackedTaskManager filler = new FileBackedTaskManager(file, Integer.MAX_VALUE);
+        BoardFixture board = fill(filler, size, epicFanOut);
+        filler.checkpoint();
+        return board;
+    }
+
+    // Начала кандидатов: с вероятностью overlapDensity — внутри занятой части слота
+    LocalDateTime[] candidateStarts(double overlapDensity, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime[] starts = new LocalDateTime[CANDIDATES];
+        for (int i = 0; i < starts.length; i++) {
+            LocalDateTime slotStart = slotStart(random.nextInt(slots));
+            starts[i] = random.nextDouble() < overlapDensity ? slotStart.plusMinutes(10) : slotStart.plusMinutes(30);
+        }
+        return starts;
+    }
+}
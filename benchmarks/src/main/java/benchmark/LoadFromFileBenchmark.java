@@ -0,0 +1,54 @@
+package benchmark;
+
+import manager.FileBackedTaskManager;
+import manager.SnapshotConverter;
+import manager.SnapshotFiles;
+import manager.SnapshotFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Холодный старт FileBackedTaskManager.loadFromFile на снимках разного размера и формата.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadFromFileBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"10"})
+    private int epicFanOut;
+
+    @Param({"CSV", "BINARY", "MAPPED"})
+    private SnapshotFormat format;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("kanban-load", ".csv").toFile();
+        BoardFixture.writeBoard(file, size, epicFanOut);
+        if (format != SnapshotFormat.CSV) {
+            SnapshotConverter.convert(file.toPath(), file.toPath(), format);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        file.delete();
+        Files.deleteIfExists(SnapshotFiles.previousGeneration(file.toPath()));
+    }
+
+    @Benchmark
+    public FileBackedTaskManager loadFromFile() {
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+}
@@ -0,0 +1,10 @@
+package benchmark;
+
+// Реализации TaskManager, которые сравниваются в бенчмарках
+public enum ManagerType {
+    IN_MEMORY, // InMemoryTaskManager
+    INSTRUMENTED, // InMemoryTaskManager с историей, обёрнутые декораторами метрик: цена измерений
+    SNAPSHOT, // ConcurrentTaskManager в режиме чтения коллекций из неизменяемых снимков
+    FILE_BACKED, // FileBackedTaskManager с перезаписью файла на каждую мутацию
+    FILE_JOURNAL // FileBackedTaskManager с журналом и чекпоинтом каждые 1000 записей
+}
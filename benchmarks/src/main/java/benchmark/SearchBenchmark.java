@@ -0,0 +1,77 @@
+package benchmark;
+
+import data.Task;
+import data.TaskStatus;
+import manager.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка полнотекстового поиска на индексе из size задач: редкое слово, частый префикс
+ * и запрос из нескольких слов. Частоты слов словаря распределены по Ципфу, как в живых текстах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    private static final String[] STEMS = {"задач", "отчёт", "миграц", "релиз", "ошибк", "сервер", "клиент",
+            "баз", "тест", "сборк", "deploy", "review", "backend", "frontend", "release", "report"};
+    private static final int VOCABULARY = 5000;
+    private static final int WORDS_PER_TASK = 12;
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    @Param({"20"})
+    private int limit;
+
+    private SearchIndex index;
+    private String rareTerm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = STEMS[i % STEMS.length] + i;
+        }
+        rareTerm = vocabulary[VOCABULARY - 1];
+        index = new SearchIndex();
+        for (int id = 1; id <= size; id++) {
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_TASK; w++) {
+                description.append(vocabulary[zipf(random)]).append(' ');
+            }
+            Task task = new Task(vocabulary[zipf(random)] + " " + vocabulary[zipf(random)],
+                    description.toString(), TaskStatus.NEW);
+            task.setId(id);
+            index.put(task);
+        }
+    }
+
+    // Номер слова с вероятностью ~1/(rank+1)
+    private static int zipf(Random random) {
+        return (int) Math.min(VOCABULARY - 1, Math.exp(random.nextDouble() * Math.log(VOCABULARY)) - 1);
+    }
+
+    @Benchmark
+    public List<Task> rareTerm() {
+        return index.search(rareTerm, limit);
+    }
+
+    @Benchmark
+    public List<Task> frequentPrefix() {
+        return index.search("задач", limit);
+    }
+
+    @Benchmark
+    public List<Task> multiWord() {
+        return index.search("задач0 отчёт1 миграц", limit);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Регрессия хеширования задач: поиск подзадачи в HashSet и HashMap должен стоить O(1)
+ * независимо от размера, а правка статуса или времени не должна терять задачу в индексе.
+ * Пока SubTask.hashCode зависел от неинициализированного поля, время операции росло линейно с size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubTaskHashingBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private Set<SubTask> subTaskSet;
+    private Map<Task, Integer> subTaskCache;
+    private SubTask[] probes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        subTaskSet = new HashSet<>();
+        subTaskCache = new HashMap<>();
+        SubTask[] all = new SubTask[size];
+        for (int i = 0; i < size; i++) {
+            SubTask subTask = new SubTask(i + 1, "SubTask " + i, "Description", TaskStatus.NEW, i / 10,
+                    BoardFixture.ITEM_DURATION, BoardFixture.slotStart(i));
+            all[i] = subTask;
+            subTaskSet.add(subTask);
+            subTaskCache.put(subTask, i);
+        }
+        probes = new SubTask[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = all[(int) ((long) i * size / PROBES)];
+        }
+    }
+
+    private SubTask nextProbe() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return probes[cursor];
+    }
+
+    @Benchmark
+    public boolean setContains() {
+        return subTaskSet.contains(nextProbe());
+    }
+
+    @Benchmark
+    public Integer cacheLookup() {
+        return subTaskCache.get(nextProbe());
+    }
+
+    // Правка полей задачи прямо в индексе: после неё задача должна находиться по прежнему хешу
+    @Benchmark
+    public boolean editAndLookup() {
+        SubTask subTask = nextProbe();
+        subTask.setStatus(subTask.getStatus() == TaskStatus.NEW ? TaskStatus.DONE : TaskStatus.NEW);
+        return subTaskSet.contains(subTask);
+    }
+}
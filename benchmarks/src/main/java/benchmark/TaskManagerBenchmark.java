@@ -0,0 +1,134 @@
+package benchmark;
+
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import manager.TaskManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути TaskManager: вставка, обновление и удаление задач и подзадач,
+ * getPrioritizedTasks, getHistory, страница задач по курсору и поиск свободного времени на досках разного размера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskManagerBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"IN_MEMORY", "INSTRUMENTED", "SNAPSHOT", "FILE_JOURNAL", "FILE_BACKED"})
+    private ManagerType managerType;
+
+    @Param({"0.1"})
+    private double overlapDensity;
+
+    // 10000 — эпик с большим числом подзадач: стоимость операций над подзадачей не должна расти с ним
+    @Param({"10", "10000"})
+    private int epicFanOut;
+
+    @Param({"1000"})
+    private int historySize;
+
+    private TaskManager manager;
+    private BoardFixture board;
+    private LocalDateTime[] candidates;
+    private File file;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("kanban-bench", ".csv").toFile();
+        board = BoardFixture.create(managerType, file, size, epicFanOut);
+        manager = board.manager;
+        candidates = board.candidateStarts(overlapDensity, 42);
+        for (int i = 0; i < Math.min(historySize, board.taskIds.length); i++) {
+            manager.getTaskById(board.taskIds[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".log").delete();
+    }
+
+    private LocalDateTime nextCandidate() {
+        cursor = (cursor + 1) & (BoardFixture.CANDIDATES - 1);
+        return candidates[cursor];
+    }
+
+    @Benchmark
+    public boolean addAndDeleteTask() {
+        Task task = new Task("Bench task", "Description", TaskStatus.NEW, BoardFixture.ITEM_DURATION, nextCandidate());
+        try {
+            manager.addTask(task);
+        } catch (IllegalArgumentException e) {
+            return false; // пересечение — стоимость отказа тоже измеряется
+        }
+        manager.deleteTaskById(task.getId());
+        return true;
+    }
+
+    @Benchmark
+    public boolean addAndDeleteSubtask() {
+        int epicId = board.epicIds[cursor % board.epicIds.length];
+        SubTask subTask = new SubTask("Bench subtask", "Description", TaskStatus.IN_PROGRESS, epicId,
+                BoardFixture.ITEM_DURATION, nextCandidate());
+        try {
+            manager.addSubtask(subTask);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        manager.deleteSubTaskById(subTask.getId());
+        return true;
+    }
+
+    @Benchmark
+    public void updateTask() {
+        int id = board.taskIds[cursor++ % board.taskIds.length];
+        Task current = manager.getTasks().get(id);
+        TaskStatus status = current.getStatus() == TaskStatus.NEW ? TaskStatus.IN_PROGRESS : TaskStatus.NEW;
+        manager.updateTask(current, new Task(current.getTitle(), current.getDescription(), status,
+                current.getDuration(), current.getStartTime()));
+    }
+
+    @Benchmark
+    public List<Task> getPrioritizedTasks() {
+        return manager.getPrioritizedTasks();
+    }
+
+    @Benchmark
+    public void getHistory(Blackhole blackhole) {
+        blackhole.consume(manager.getHistory());
+    }
+
+    // Страница из середины доски: стоимость не должна зависеть от size
+    @Benchmark
+    public List<Task> getTasksPage() {
+        return manager.getTasksPage(board.taskIds[cursor++ % board.taskIds.length], 100);
+    }
+
+    @Benchmark
+    public Optional<LocalDateTime> findFreeSlot() {
+        return manager.findFreeSlot(BoardFixture.ITEM_DURATION, nextCandidate(), null);
+    }
+
+    // Худший случай: промежутков длиннее ITEM_DURATION на доске нет, обходятся все интервалы
+    @Benchmark
+    public Optional<LocalDateTime> findFreeSlotAfterBoard() {
+        return manager.findFreeSlot(BoardFixture.ITEM_DURATION.multipliedBy(2), BoardFixture.ORIGIN, null);
+    }
+}
@@ -1,23 +1,36 @@
 package data;
 
+import logging.Logger;
+import util.PersistentSortedSet;
+
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
 
 public class Epic extends Task {
-    private List<Integer> subTaskIds;
+    private static final Logger LOG = Logger.getLogger(Epic.class);
+    private static final PersistentSortedSet<Integer> NO_SUBTASKS =
+            PersistentSortedSet.empty(Comparator.naturalOrder());
+
+    // ID подзадач по возрастанию в неизменяемом множестве: добавление и удаление за O(log m),
+    // копия эпика делит множество с оригиналом, а читатель видит целую версию без блокировок
+    private volatile PersistentSortedSet<Integer> subTaskIds = NO_SUBTASKS;
     protected LocalDateTime endTime;
 
     public Epic(String title, String description) {
         super(title, description, TaskStatus.NEW, null, null); // duration и startTime пока null
-        this.subTaskIds = new ArrayList<>();
     }
 
     public Epic(int id, String title, String description, TaskStatus status) {
         super(title, description, status, id, null, null); // duration и startTime пока null
-        this.subTaskIds = new ArrayList<>();
+    }
+
+    // Копия со всеми полями за O(1): множество подзадач неизменяемо и используется совместно
+    public Epic(Epic other) {
+        super(other.title, other.description, other.status, other.id, other.duration, other.startTime);
+        this.endTime = other.endTime;
+        this.subTaskIds = other.subTaskIdSet();
     }
 
     @Override
@@ -25,11 +38,15 @@ public class Epic extends Task {
         return TypeTask.EPIC;
     }
 
+    // Неизменяемый список по возрастанию ID; собирается один раз на версию множества
     public List<Integer> getSubTaskIds() {
-        if (subTaskIds == null) {
-            subTaskIds = new ArrayList<>();
-        }
-        return subTaskIds;
+        return subTaskIdSet().toList();
+    }
+
+    // Поле может оказаться null у эпика, собранного Gson без конструктора
+    private PersistentSortedSet<Integer> subTaskIdSet() {
+        PersistentSortedSet<Integer> ids = subTaskIds;
+        return ids != null ? ids : NO_SUBTASKS;
     }
 
     public void setTitle(String title) {
@@ -43,15 +60,15 @@ public class Epic extends Task {
         if (subTaskId == getId()) {
             throw new IllegalArgumentException("Epic не может добавить себя в качестве подзадачи");
         }
-        getSubTaskIds().add(subTaskId);
+        subTaskIds = subTaskIdSet().with(subTaskId);
     }
 
     public void removeSubTaskId(int subTaskId) {
-        subTaskIds.remove(Integer.valueOf(subTaskId));
+        subTaskIds = subTaskIdSet().without(subTaskId);
     }
 
     public void clearSubTasks() {
-        subTaskIds.clear();
+        subTaskIds = NO_SUBTASKS;
     }
 
     @Override
@@ -62,12 +79,12 @@ public class Epic extends Task {
 
     @Override
     public void setStartTime(LocalDateTime startTime) {
-        System.out.println("Установка startTime для эпика " + title + ": " + startTime);
+        LOG.debug("Установка startTime для эпика {}: {}", title, startTime);
         super.setStartTime(startTime);
     }
 
     public void setEndTime(LocalDateTime endTime) {
-        System.out.println("Установка endTime для эпика " + title + ": " + endTime);
+        LOG.debug("Установка endTime для эпика {}: {}", title, endTime);
         this.endTime = endTime;
     }
 
@@ -75,17 +92,4 @@ public class Epic extends Task {
     public LocalDateTime getEndTime() {
         return endTime;
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Epic epic = (Epic) o;
-        return id == epic.id;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(id);
-    }
 }
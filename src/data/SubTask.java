@@ -2,11 +2,9 @@ package data;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Objects;
 
 public class SubTask extends Task {
     private int epicId;
-    protected int subTaskId;
 
     public SubTask(String title, String description, TaskStatus status, int epicId,
                    Duration duration, LocalDateTime startTime) {
@@ -25,6 +23,11 @@ public class SubTask extends Task {
         this.epicId = epicId;
     }
 
+    public SubTask(SubTask other) {
+        super(other);
+        this.epicId = other.epicId;
+    }
+
     public void setEpicId(int epicId) {
         this.epicId = epicId;
     }
@@ -37,17 +40,4 @@ public class SubTask extends Task {
     public TypeTask getType() {
         return TypeTask.SUBTASK; // Для SubTask
     }
-
-    @Override
-    public boolean equals(Object object) {
-        if (this == object) return true; // Проверка на ссылочную равность
-        if (object == null || getClass() != object.getClass()) return false; // Проверка на тип
-        SubTask subTask = (SubTask) object;
-        return id == subTask.id && epicId == subTask.epicId;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(subTaskId);
-    }
 }
@@ -1,10 +1,13 @@
 package data;
 
+import logging.Logger;
+
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Objects;
 
 public class Task {
+    private static final Logger LOG = Logger.getLogger(Task.class);
+
     protected String title;
     protected String description;
     protected int id;
@@ -50,6 +53,11 @@ public class Task {
     public Task() {
     }
 
+    // Копия со всеми полями, чтобы отдавать состояние задачи за пределы менеджера
+    public Task(Task other) {
+        this(other.title, other.description, other.status, other.id, other.duration, other.startTime);
+    }
+
     public int getId() {
         return id;
     }
@@ -67,9 +75,10 @@ public class Task {
     }
 
     public void setId(int id) {
-        System.out.println("Setting ID to: " + id + " in " + this.getClass().getSimpleName());
         this.id = id;
-        System.out.println("ID after set: " + this.id);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Установлен ID {} для {}", id, getClass().getSimpleName());
+        }
     }
 
     public void setTitle(String title) {
@@ -170,18 +179,20 @@ public class Task {
         return this.status.compareTo(other.status);
     }
 
+    // Идентичность задачи — её класс и ID. Изменяемые поля (статус, время, описание) в равенство
+    // и хеш не входят, поэтому задача не меняет корзину в HashSet/HashMap при редактировании.
+    // Одна схема для Task, Epic и SubTask, наследники её не переопределяют
     @Override
-    public boolean equals(Object object) {
+    public final boolean equals(Object object) {
         if (this == object) return true;
         if (object == null || getClass() != object.getClass()) return false;
         Task task = (Task) object;
-        return id == task.id && Objects.equals(title, task.title) && Objects.equals(description, task.description)
-                && status == task.status && Objects.equals(duration, task.duration) && Objects.equals(startTime, task.startTime);
+        return id == task.id;
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(title, description, status, id, duration, startTime);
+    public final int hashCode() {
+        return Integer.hashCode(id);
     }
 
     @Override
@@ -3,16 +3,36 @@ package httpservice;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import data.Task;
+import data.TaskStatus;
 
 import java.io.*;
+import java.lang.reflect.Type;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-public abstract class BaseHttpHandler {
+public abstract class BaseHttpHandler implements HttpHandler {
+    private static final TaskTypeAdapter TASK_ADAPTER = new TaskTypeAdapter();
+    protected static final Type TASK_COLLECTION_TYPE = new TypeToken<Collection<Task>>() { }.getType();
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000; // страница ограничена, чтобы память на запрос не росла с доской
     protected final Gson gson;
+    private boolean streamingResponses; // коллекции пишутся потоком, см. sendTasks
 
     public BaseHttpHandler() {
         GsonBuilder gsonBuilder = new GsonBuilder();
@@ -34,6 +54,61 @@ public abstract class BaseHttpHandler {
         }
     }
 
+    void setStreamingResponses(boolean streamingResponses) {
+        this.streamingResponses = streamingResponses;
+    }
+
+    // Коллекция задач. В потоковом режиме компактный JSON пишется прямо в тело ответа
+    // с chunked-кодированием, без промежуточных String и byte[]; иначе — обычный ответ через sendText
+    protected void sendTasks(HttpExchange exchange, Collection<? extends Task> tasks) throws IOException {
+        if (!streamingResponses) {
+            // Тип задаётся явно: представления коллекций менеджера могут быть анонимными классами
+            sendText(exchange, gson.toJson(tasks, TASK_COLLECTION_TYPE), 200);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, 0); // 0 — длина заранее неизвестна
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), STREAM_BUFFER_SIZE))) {
+            writer.beginArray();
+            for (Task task : tasks) {
+                TASK_ADAPTER.write(writer, task);
+            }
+            writer.endArray();
+        }
+    }
+
+    // Страница менеджера: до limit элементов с ID больше afterId по возрастанию ID
+    @FunctionalInterface
+    protected interface PageSource {
+        List<? extends Task> page(int afterId, int limit);
+    }
+
+    // Запрос страницы с курсором (?limit=&after=id); без этих параметров коллекция отдаётся целиком
+    protected boolean isPageRequest(Map<String, String> params) {
+        return params.containsKey("limit") || params.containsKey("after");
+    }
+
+    // Ответ {"items": [...], "next": id}; на последней странице next нет. Берётся на элемент больше limit,
+    // чтобы узнать о продолжении без лишнего запроса пустой страницы
+    protected void sendPage(HttpExchange exchange, Map<String, String> params, PageSource source) throws IOException {
+        int limit = Math.min(intParam(params, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        if (limit == 0) {
+            throw new IllegalArgumentException("Параметр limit должен быть положительным");
+        }
+        List<? extends Task> items = source.page(intParam(params, "after", 0), limit + 1);
+        JsonObject page = new JsonObject();
+        boolean hasMore = items.size() > limit;
+        if (hasMore) {
+            items = items.subList(0, limit);
+        }
+        page.add("items", gson.toJsonTree(items, TASK_COLLECTION_TYPE));
+        if (hasMore) {
+            page.add("next", new JsonPrimitive(items.get(limit - 1).getId()));
+        }
+        sendText(exchange, gson.toJson(page), 200);
+    }
+
     protected void sendNotFound(HttpExchange exchange, String message) throws IOException {
         JsonObject json = new JsonObject();
         json.addProperty("error", message);
@@ -46,12 +121,82 @@ public abstract class BaseHttpHandler {
         sendText(exchange, gson.toJson(json), 400);
     }
 
+    protected void sendBadRequest(HttpExchange exchange, String message) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("error", message);
+        sendText(exchange, gson.toJson(json), 400);
+    }
+
     protected void sendInternalError(HttpExchange exchange, String message) throws IOException {
         JsonObject json = new JsonObject();
         json.addProperty("error", message);
         sendText(exchange, gson.toJson(json), 500);
     }
 
+    // Параметры строки запроса: ?offset=10&limit=5 -> {offset=10, limit=5}
+    protected Map<String, String> queryParams(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Неотрицательное целое из параметра запроса или defaultValue, если параметра нет
+    protected int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Параметр " + name + " не может быть отрицательным: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Параметр " + name + " должен быть целым числом: " + value);
+        }
+    }
+
+    // Дата из параметра запроса в формате JSON-ответов (dd-MM-yyyy HH:mm:ss) или ISO-8601; null, если параметра нет
+    protected LocalDateTime dateTimeParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value, LocalDateTimeTypeAdapter.FORMATTER);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException iso) {
+                throw new IllegalArgumentException("Параметр " + name + " должен быть датой dd-MM-yyyy HH:mm:ss: " + value);
+            }
+        }
+    }
+
+    // Статус из параметра запроса или null, если параметра нет
+    protected TaskStatus statusParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return TaskStatus.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Параметр " + name + " должен быть одним из "
+                    + Arrays.toString(TaskStatus.values()) + ": " + value);
+        }
+    }
+
     protected String readRequestBody(HttpExchange exchange) throws IOException {
         if (exchange.getRequestBody() == null) {
             return "";
@@ -0,0 +1,112 @@
+package httpservice;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import data.TypeTask;
+import manager.BatchOperation;
+import manager.TaskManager;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * POST /batch — пакет операций, применяемый целиком или не применяемый вовсе.
+ * Тело — массив объектов {"op": "create|update|delete", "type": "TASK|EPIC|SUBTASK", "id": ...,
+ * "task": {...}, "epicRef": k}, где epicRef — номер операции создания эпика в этом же пакете.
+ * Ответ 201 {"ids": [...]} с ID по каждой операции; некорректное тело — 400,
+ * пакет, не прошедший проверку (пересечения, несуществующие ID), — 400 с полем message.
+ */
+public class BatchHandler extends BaseHttpHandler implements HttpHandler {
+    private final TaskManager manager;
+
+    public BatchHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] pathParts = exchange.getRequestURI().getPath().split("/");
+
+        try {
+            if (!method.equals("POST") || pathParts.length != 2) {
+                sendNotFound(exchange, "Not Found");
+                return;
+            }
+            List<BatchOperation> operations;
+            try {
+                operations = parseOperations(readRequestBody(exchange));
+            } catch (JsonParseException | DateTimeException | IllegalArgumentException | IllegalStateException
+                     | UnsupportedOperationException e) {
+                sendBadRequest(exchange, "Invalid batch: " + e.getMessage());
+                return;
+            }
+            List<Integer> ids = manager.applyBatch(operations);
+            JsonObject response = new JsonObject();
+            JsonArray idArray = new JsonArray(ids.size());
+            ids.forEach(idArray::add);
+            response.add("ids", idArray);
+            sendText(exchange, gson.toJson(response), 201);
+        } catch (IllegalArgumentException e) {
+            sendHasInteractions(exchange, e.getMessage());
+        } catch (manager.ManagerSaveException e) {
+            sendInternalError(exchange, "Failed to save tasks: " + e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, "Internal Server Error: " + e.getMessage());
+        }
+    }
+
+    private List<BatchOperation> parseOperations(String body) {
+        JsonArray array = JsonParser.parseString(body).getAsJsonArray();
+        List<BatchOperation> operations = new ArrayList<>(array.size());
+        for (JsonElement element : array) {
+            operations.add(parseOperation(element.getAsJsonObject()));
+        }
+        return operations;
+    }
+
+    private BatchOperation parseOperation(JsonObject json) {
+        if (!json.has("op")) {
+            throw new IllegalArgumentException("Missing 'op' field");
+        }
+        String op = json.get("op").getAsString();
+        if (op.equals("delete")) {
+            if (!json.has("type") || !json.has("id")) {
+                throw new IllegalArgumentException("Delete requires 'type' and 'id'");
+            }
+            return BatchOperation.delete(TypeTask.valueOf(json.get("type").getAsString()), json.get("id").getAsInt());
+        }
+        if (!json.has("task")) {
+            throw new IllegalArgumentException("Operation '" + op + "' requires 'task'");
+        }
+        Task task = gson.fromJson(json.get("task"), Task.class);
+        if (task instanceof Epic) {
+            task.setStatus(TaskStatus.NEW); // статус эпика вычисляется по подзадачам
+        } else if (task.getStatus() == null) {
+            throw new IllegalArgumentException("Task status cannot be null or invalid");
+        }
+        return switch (op) {
+            case "create" -> json.has("epicRef") && task instanceof SubTask subTask
+                    ? BatchOperation.createSubtask(subTask, json.get("epicRef").getAsInt())
+                    : BatchOperation.create(task);
+            case "update" -> {
+                if (!json.has("id")) {
+                    throw new IllegalArgumentException("Update requires 'id'");
+                }
+                yield BatchOperation.update(json.get("id").getAsInt(), task);
+            }
+            default -> throw new IllegalArgumentException("Unknown op: " + op);
+        };
+    }
+}
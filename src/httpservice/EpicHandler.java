@@ -9,6 +9,7 @@ import data.TaskStatus;
 import manager.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
 
 public class EpicHandler extends BaseHttpHandler implements HttpHandler {
@@ -26,8 +27,17 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
 
         try {
             if (method.equals("GET")) {
-                if (pathParts.length == 2) { // GET /epics
-                    sendText(exchange, gson.toJson(manager.getEpics().values()), 200);
+                if (pathParts.length == 2) { // GET /epics, /epics?status=, /epics?limit=&after=
+                    Map<String, String> params = queryParams(exchange);
+                    TaskStatus status = statusParam(params, "status");
+                    if (isPageRequest(params)) {
+                        if (status != null) {
+                            throw new IllegalArgumentException("Параметр status не сочетается с постраничной выдачей");
+                        }
+                        sendPage(exchange, params, manager::getEpicsPage);
+                    } else {
+                        sendTasks(exchange, status == null ? manager.getEpics().values() : manager.getEpicsByStatus(status));
+                    }
                 } else if (pathParts.length == 3) { // GET /epics/{id}
                     int id = Integer.parseInt(pathParts[2]);
                     Optional<Epic> epic = manager.getEpicById(id);
@@ -36,11 +46,12 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
                     } else {
                         sendNotFound(exchange, "Epic with ID " + id + " not found");
                     }
-                } else if (pathParts.length == 4 && pathParts[3].equals("subtasks")) { // GET /epics/{id}/subtasks
+                } else if (pathParts.length == 4 && pathParts[3].equals("subtasks")) {
+                    // GET /epics/{id}/subtasks — по времени начала, см. TaskManager.getSubtaskByEpic
                     int id = Integer.parseInt(pathParts[2]);
                     Optional<Epic> epic = manager.getEpicById(id);
                     if (epic.isPresent()) {
-                        sendText(exchange, gson.toJson(manager.getSubtaskByEpic(epic.get())), 200);
+                        sendTasks(exchange, manager.getSubtaskByEpic(epic.get()));
                     } else {
                         sendNotFound(exchange, "Epic with ID " + id + " not found");
                     }
@@ -0,0 +1,146 @@
+package httpservice;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.TaskEvent;
+import manager.TaskEventBus;
+import manager.TaskEventListener;
+import manager.TaskManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /events — поток изменений задач в формате Server-Sent Events. Каждое событие несёт
+ * id (номер в TaskEventBus), event (вид изменения) и data (JSON с типом, id и задачей).
+ * Клиент продолжает с места обрыва через заголовок Last-Event-ID или ?after=N;
+ * если нужные события уже вытеснены из буфера шины, приходит событие reset — доску нужно перечитать.
+ * Соединение обслуживает отдельный виртуальный поток, поэтому поток-диспетчер и пул сервера не заняты.
+ * Подписчик, не успевающий за событиями, отключается и переподключается с последнего полученного id.
+ */
+public class EventsHandler extends BaseHttpHandler implements HttpHandler {
+    static final int QUEUE_CAPACITY = 1024;
+    static final long HEARTBEAT_MILLIS = 15_000;
+
+    private final TaskManager manager;
+
+    // Клиенты продолжают поток по номеру события, поэтому с регистрацией обработчика шина начинает хранить события
+    public EventsHandler(TaskManager manager) {
+        this.manager = manager;
+        manager.getEventBus().retainRecent();
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] pathParts = exchange.getRequestURI().getPath().split("/");
+
+        try {
+            if (!method.equals("GET") || pathParts.length != 2) {
+                sendNotFound(exchange, "Not Found");
+                return;
+            }
+            long after = resumePoint(exchange);
+            Subscription subscription = new Subscription();
+            TaskEventBus bus = manager.getEventBus();
+            List<TaskEvent> backlog = after < 0 ? List.of() : bus.subscribe(subscription, after);
+            if (after < 0) {
+                bus.addListener(subscription);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            if (backlog == null) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(("event: reset\ndata: {\"lastSequence\": " + bus.getLastSequence() + "}\n\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+                return;
+            }
+            Thread.ofVirtual().name("kanban-events").start(() -> stream(exchange, bus, subscription, backlog));
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, "Internal Server Error: " + e.getMessage());
+        }
+    }
+
+    // Номер, после которого клиенту нужны события; -1 — только новые события
+    private long resumePoint(HttpExchange exchange) {
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        Map<String, String> params = queryParams(exchange);
+        String value = lastEventId != null ? lastEventId : params.get("after");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            long after = Long.parseLong(value.trim());
+            if (after < 0) {
+                throw new IllegalArgumentException("Номер события не может быть отрицательным: " + value);
+            }
+            return after;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный номер события: " + value);
+        }
+    }
+
+    private void stream(HttpExchange exchange, TaskEventBus bus, Subscription subscription, List<TaskEvent> backlog) {
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (TaskEvent event : backlog) {
+                out.write(format(event));
+            }
+            out.flush();
+            while (!subscription.overflowed) {
+                TaskEvent event = subscription.queue.poll(HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    out.write(": ping\n\n".getBytes(StandardCharsets.UTF_8)); // обрыв соединения обнаружится на записи
+                } else {
+                    out.write(format(event));
+                    // Всё, что уже накопилось, уходит одной порцией
+                    while ((event = subscription.queue.poll()) != null) {
+                        out.write(format(event));
+                    }
+                }
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // клиент отключился или сервер остановлен
+        } finally {
+            bus.removeListener(subscription);
+            exchange.close();
+        }
+    }
+
+    private byte[] format(TaskEvent event) {
+        JsonObject data = new JsonObject();
+        data.addProperty("sequence", event.getSequence());
+        data.addProperty("type", event.getType().name());
+        data.addProperty("id", event.getId());
+        if (event.getTask() != null) {
+            data.add("task", gson.toJsonTree(event.getTask()));
+        }
+        // В SSE перевод строки завершает поле data, поэтому JSON пишется в одну строку
+        return ("id: " + event.getSequence() + "\nevent: " + event.getKind().name().toLowerCase()
+                + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Subscription implements TaskEventListener {
+        private final BlockingQueue<TaskEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private volatile boolean overflowed;
+
+        @Override
+        public void onEvent(TaskEvent event) {
+            if (!queue.offer(event)) {
+                overflowed = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package httpservice;
+
+public enum ExecutorMode {
+    SINGLE_THREAD, // все запросы обрабатывает поток-диспетчер HttpServer
+    PLATFORM_POOL, // ограниченный пул платформенных потоков
+    VIRTUAL_THREADS // отдельный виртуальный поток на каждый запрос
+}
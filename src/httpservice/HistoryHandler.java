@@ -2,9 +2,12 @@ package httpservice;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import data.Task;
 import manager.TaskManager;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
     private final TaskManager manager;
@@ -18,11 +21,23 @@ public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
         String method = exchange.getRequestMethod();
 
         try {
-            if (method.equals("GET")) { // GET /history
-                sendText(exchange, gson.toJson(manager.getHistory()), 200);
+            if (method.equals("GET")) { // GET /history, /history?last=N, /history?offset=&limit=
+                Map<String, String> params = queryParams(exchange);
+                List<Task> history;
+                if (params.containsKey("last")) {
+                    history = manager.getRecentHistory(intParam(params, "last", 0));
+                } else if (params.containsKey("offset") || params.containsKey("limit")) {
+                    history = manager.getHistory(intParam(params, "offset", 0),
+                            intParam(params, "limit", Integer.MAX_VALUE));
+                } else {
+                    history = manager.getHistory();
+                }
+                sendTasks(exchange, history);
             } else {
                 sendNotFound(exchange, "Not Found");
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
         } catch (manager.ManagerSaveException e) {
             sendInternalError(exchange, "Failed to save tasks: " + e.getMessage());
         } catch (Exception e) {
@@ -0,0 +1,102 @@
+package httpservice;
+
+/**
+ * Настройки HttpTaskServer: порт, backlog сокета, режим executor, лимиты очереди запросов,
+ * потоковая выдача коллекций и чтение коллекций из неизменяемых снимков (SnapshotTaskManager).
+ * Значения по умолчанию повторяют прежнее поведение — порт 8080, обработка в одном потоке
+ * и форматированный JSON. Флаги включаются методами with*, которые возвращают новые настройки.
+ */
+public class HttpServerConfig {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_MAX_PENDING_REQUESTS = 1024;
+
+    private final int port;
+    private final int backlog;
+    private final ExecutorMode executorMode;
+    private final int poolSize;
+    private final int maxPendingRequests;
+    private final boolean streamingResponses;
+    private final boolean snapshotReads;
+
+    public HttpServerConfig(int port, int backlog, ExecutorMode executorMode, int poolSize, int maxPendingRequests) {
+        this(port, backlog, executorMode, poolSize, maxPendingRequests, false, false);
+    }
+
+    private HttpServerConfig(int port, int backlog, ExecutorMode executorMode, int poolSize, int maxPendingRequests,
+                             boolean streamingResponses, boolean snapshotReads) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Некорректный порт: " + port);
+        }
+        if (executorMode == null) {
+            throw new IllegalArgumentException("Режим executor не может быть null");
+        }
+        if (poolSize <= 0 || maxPendingRequests <= 0) {
+            throw new IllegalArgumentException("Размер пула и лимит очереди должны быть положительными");
+        }
+        this.port = port;
+        this.backlog = backlog;
+        this.executorMode = executorMode;
+        this.poolSize = poolSize;
+        this.maxPendingRequests = maxPendingRequests;
+        this.streamingResponses = streamingResponses;
+        this.snapshotReads = snapshotReads;
+    }
+
+    // Копия настроек, в которой коллекции отдаются потоком без сборки ответа в памяти
+    public HttpServerConfig withStreamingResponses(boolean enabled) {
+        return new HttpServerConfig(port, backlog, executorMode, poolSize, maxPendingRequests, enabled, snapshotReads);
+    }
+
+    // Копия настроек, в которой коллекции читаются из неизменяемого снимка менеджера
+    public HttpServerConfig withSnapshotReads(boolean enabled) {
+        return new HttpServerConfig(port, backlog, executorMode, poolSize, maxPendingRequests, streamingResponses,
+                enabled);
+    }
+
+    public static HttpServerConfig defaults() {
+        return new HttpServerConfig(DEFAULT_PORT, 0, ExecutorMode.SINGLE_THREAD,
+                Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_PENDING_REQUESTS);
+    }
+
+    // Настройки из системных свойств kanban.port, kanban.backlog, kanban.executor, kanban.poolSize,
+    // kanban.maxPending, kanban.streaming и kanban.snapshotReads
+    public static HttpServerConfig fromSystemProperties() {
+        HttpServerConfig defaults = defaults();
+        return new HttpServerConfig(
+                Integer.getInteger("kanban.port", defaults.port),
+                Integer.getInteger("kanban.backlog", defaults.backlog),
+                ExecutorMode.valueOf(System.getProperty("kanban.executor", defaults.executorMode.name())),
+                Integer.getInteger("kanban.poolSize", defaults.poolSize),
+                Integer.getInteger("kanban.maxPending", defaults.maxPendingRequests))
+                .withStreamingResponses(Boolean.getBoolean("kanban.streaming"))
+                .withSnapshotReads(Boolean.getBoolean("kanban.snapshotReads"));
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getMaxPendingRequests() {
+        return maxPendingRequests;
+    }
+
+    public boolean isStreamingResponses() {
+        return streamingResponses;
+    }
+
+    public boolean isSnapshotReads() {
+        return snapshotReads;
+    }
+}
@@ -2,18 +2,34 @@ package httpservice;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import logging.LogConfig;
+import logging.Logger;
+import manager.ConcurrentTaskManager;
 import manager.InMemoryTaskManager;
+import manager.Managers;
+import manager.SnapshotTaskManager;
 import manager.TaskManager;
+import metrics.InstrumentedHistoryManager;
+import metrics.InstrumentedTaskManager;
+import metrics.MetricsRegistry;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class HttpTaskServer {
+    private static final Logger LOG = Logger.getLogger(HttpTaskServer.class);
     private final HttpServer server;
     private final TaskManager taskManager;
+    private final HttpServerConfig config;
+    private final ExecutorService executorService; // null в режиме SINGLE_THREAD
+    private final RequestLimiter requestLimiter;
+    private final MetricsRegistry metrics;
     private static final Gson gson = createGson();
 
     public HttpTaskServer() throws IOException {
@@ -21,24 +37,81 @@ public class HttpTaskServer {
     }
 
     public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, HttpServerConfig.defaults());
+    }
+
+    public HttpTaskServer(TaskManager taskManager, HttpServerConfig config) throws IOException {
+        this(taskManager, config, MetricsRegistry.getDefault());
+    }
+
+    public HttpTaskServer(TaskManager taskManager, HttpServerConfig config, MetricsRegistry metrics)
+            throws IOException {
         this.taskManager = taskManager;
-        this.server = HttpServer.create(new InetSocketAddress(8080), 0);
-        server.createContext("/tasks", new TaskHandler(taskManager));
-        server.createContext("/subtasks", new SubtaskHandler(taskManager));
-        server.createContext("/epics", new EpicHandler(taskManager));
-        server.createContext("/history", new HistoryHandler(taskManager));
-        server.createContext("/prioritized", new PrioritizedHandler(taskManager));
-        server.setExecutor(null); // Используем дефолтный executor
+        this.config = config;
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(config.getPort()), config.getBacklog());
+        this.executorService = switch (config.getExecutorMode()) {
+            case SINGLE_THREAD -> null;
+            case PLATFORM_POOL -> Executors.newFixedThreadPool(config.getPoolSize());
+            case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+        this.requestLimiter = executorService == null ? null
+                : new RequestLimiter(executorService, config.getMaxPendingRequests());
+        createContext("/tasks", new TaskHandler(taskManager));
+        createContext("/subtasks", new SubtaskHandler(taskManager));
+        createContext("/epics", new EpicHandler(taskManager));
+        createContext("/history", new HistoryHandler(taskManager));
+        createContext("/prioritized", new PrioritizedHandler(taskManager));
+        createContext("/batch", new BatchHandler(taskManager));
+        createContext("/events", new EventsHandler(taskManager));
+        createContext("/search", new SearchHandler(taskManager));
+        createContext("/schedule", new ScheduleHandler(taskManager));
+        createContext("/metrics", new MetricsHandler(metrics));
+        registerStoreGauges();
+        server.setExecutor(requestLimiter); // null — запросы обрабатывает поток-диспетчер
+    }
+
+    private void createContext(String path, BaseHttpHandler handler) {
+        handler.setStreamingResponses(config.isStreamingResponses());
+        HttpHandler instrumented = new InstrumentedHandler(path, handler, metrics);
+        var context = server.createContext(path, instrumented);
+        if (requestLimiter != null) {
+            context.getFilters().add(requestLimiter.overloadFilter());
+        }
+    }
+
+    // Размеры хранилищ читаются при каждом GET /metrics; сервер, созданный позже, перерегистрирует датчики
+    private void registerStoreGauges() {
+        String name = "kanban_store_size";
+        String help = "Число задач в хранилищах менеджера";
+        metrics.gauge(name, help, () -> taskManager.getTasks().size(), "store", "tasks");
+        metrics.gauge(name, help, () -> taskManager.getEpics().size(), "store", "epics");
+        metrics.gauge(name, help, () -> taskManager.getSubtasks().size(), "store", "subtasks");
+        metrics.gauge(name, help, taskManager::historySize, "store", "history");
+        metrics.gauge(name, help, taskManager::prioritizedSize, "store", "prioritized");
     }
 
     public void start() {
         server.start();
-        System.out.println("HTTP-сервер запущен на порту 8080");
+        LOG.info("HTTP-сервер запущен на порту {}, executor: {}{}", config.getPort(), config.getExecutorMode(),
+                config.isStreamingResponses() ? ", потоковые ответы" : "");
     }
 
     public void stop() {
         server.stop(0);
-        System.out.println("HTTP-сервер остановлен");
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+        LOG.info("HTTP-сервер остановлен");
+        LogConfig.flush();
+    }
+
+    public HttpServerConfig getConfig() {
+        return config;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
     }
 
     public TaskManager getTaskManager() {
@@ -58,7 +131,16 @@ public class HttpTaskServer {
     }
 
     public static void main(String[] args) throws IOException {
-        HttpTaskServer httpTaskServer = new HttpTaskServer();
+        HttpServerConfig config = HttpServerConfig.fromSystemProperties();
+        // Многопоточным режимам нужен потокобезопасный менеджер; менеджер и история пишут метрики
+        var history = new InstrumentedHistoryManager(Managers.getDefaultHistory());
+        TaskManager manager = config.getExecutorMode() == ExecutorMode.SINGLE_THREAD
+                ? new InMemoryTaskManager(history) : new ConcurrentTaskManager(history);
+        if (config.isSnapshotReads()) {
+            manager = new SnapshotTaskManager(manager); // коллекции читаются из снимков без блокировок
+        }
+        manager = new InstrumentedTaskManager(manager);
+        HttpTaskServer httpTaskServer = new HttpTaskServer(manager, config);
         httpTaskServer.start();
     }
 }
\ No newline at end of file
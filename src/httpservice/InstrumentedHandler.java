@@ -0,0 +1,75 @@
+package httpservice;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Обёртка обработчика контекста: задержка запроса в kanban_http_request_duration_seconds{route,method}
+ * и число ответов в kanban_http_requests_total{route,method,status}. Серии известных методов создаются
+ * заранее, счётчики кодов ответа — при первом появлении кода и дальше берутся из общего массива
+ * по индексу method * (MAX_STATUS + 1) + status.
+ * Нестандартные методы сводятся в method="OTHER", чтобы клиент не мог раздуть число серий.
+ */
+class InstrumentedHandler implements HttpHandler {
+    static final String REQUEST_DURATION = "kanban_http_request_duration_seconds";
+    static final String REQUESTS_TOTAL = "kanban_http_requests_total";
+    private static final String[] METHODS = {"GET", "POST", "DELETE", "OTHER"};
+    private static final int MAX_STATUS = 600;
+
+    private final HttpHandler delegate;
+    private final MetricsRegistry registry;
+    private final String route;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[METHODS.length];
+    private final AtomicReferenceArray<LongAdder> responses =
+            new AtomicReferenceArray<>(METHODS.length * (MAX_STATUS + 1));
+
+    InstrumentedHandler(String route, HttpHandler delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.route = route;
+        for (int i = 0; i < METHODS.length; i++) {
+            latencies[i] = registry.histogram(REQUEST_DURATION, "Задержка обработки HTTP-запросов",
+                    "route", route, "method", METHODS[i]);
+        }
+    }
+
+    private static int methodIndex(String method) {
+        return switch (method) {
+            case "GET" -> 0;
+            case "POST" -> 1;
+            case "DELETE" -> 2;
+            default -> 3;
+        };
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        int method = methodIndex(exchange.getRequestMethod());
+        long start = System.nanoTime();
+        try {
+            delegate.handle(exchange);
+        } finally {
+            latencies[method].recordSince(start);
+            // -1 — обработчик упал, не отправив заголовки; такой запрос учитывается под status="0"
+            int status = Math.max(0, Math.min(exchange.getResponseCode(), MAX_STATUS));
+            responseCounter(method, status).increment();
+        }
+    }
+
+    private LongAdder responseCounter(int method, int status) {
+        int index = method * (MAX_STATUS + 1) + status;
+        LongAdder counter = responses.get(index);
+        if (counter == null) {
+            counter = registry.counter(REQUESTS_TOTAL, "Число обработанных HTTP-запросов",
+                    "route", route, "method", METHODS[method], "status", Integer.toString(status));
+            responses.set(index, counter); // гонка безопасна: реестр вернёт тот же счётчик
+        }
+        return counter;
+    }
+}
@@ -5,6 +5,7 @@ import com.sun.net.httpserver.HttpHandler;
 import manager.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
     private final TaskManager manager;
@@ -18,11 +19,19 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
         String method = exchange.getRequestMethod();
 
         try {
-            if (method.equals("GET")) { // GET /prioritized
-                sendText(exchange, gson.toJson(manager.getPrioritizedTasks()), 200);
+            if (method.equals("GET")) { // GET /prioritized, /prioritized?from=&to=&limit=
+                Map<String, String> params = queryParams(exchange);
+                if (params.isEmpty()) {
+                    sendTasks(exchange, manager.getPrioritizedTasks());
+                } else {
+                    sendTasks(exchange, manager.getPrioritizedTasks(dateTimeParam(params, "from"),
+                            dateTimeParam(params, "to"), intParam(params, "limit", Integer.MAX_VALUE)));
+                }
             } else {
                 sendNotFound(exchange, "Not Found");
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
         } catch (manager.ManagerSaveException e) {
             sendInternalError(exchange, "Failed to save tasks: " + e.getMessage());
         } catch (Exception e) {
@@ -0,0 +1,91 @@
+package httpservice;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executor-обёртка, ограничивающая число запросов в работе и в очереди.
+ * Если лимит исчерпан, запрос не попадает в очередь: он выполняется прямо в потоке-диспетчере
+ * с пометкой "отклонён", и фильтр overloadFilter() сразу отвечает 503 без вызова обработчика.
+ */
+public class RequestLimiter implements Executor {
+    private static final ThreadLocal<Boolean> REJECTED = ThreadLocal.withInitial(() -> false);
+
+    private final Executor delegate;
+    private final Semaphore permits;
+    private final int maxPendingRequests;
+
+    public RequestLimiter(Executor delegate, int maxPendingRequests) {
+        this.delegate = delegate;
+        this.maxPendingRequests = maxPendingRequests;
+        this.permits = new Semaphore(maxPendingRequests);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            runRejected(command);
+            return;
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            runRejected(command);
+        }
+    }
+
+    private void runRejected(Runnable command) {
+        REJECTED.set(true);
+        try {
+            command.run();
+        } finally {
+            REJECTED.remove();
+        }
+    }
+
+    static boolean isRejectedRequest() {
+        return REJECTED.get();
+    }
+
+    public int getPendingRequests() {
+        return maxPendingRequests - permits.availablePermits();
+    }
+
+    public Filter overloadFilter() {
+        return new Filter() {
+            @Override
+            public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+                if (!isRejectedRequest()) {
+                    chain.doFilter(exchange);
+                    return;
+                }
+                byte[] response = "{\"error\": \"Server is overloaded\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(503, response.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(response);
+                }
+            }
+
+            @Override
+            public String description() {
+                return "Отклоняет запросы сверх лимита очереди с кодом 503";
+            }
+        };
+    }
+}
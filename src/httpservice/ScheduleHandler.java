@@ -0,0 +1,110 @@
+package httpservice;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.SchedulePolicy;
+import manager.ScheduleResult;
+import manager.TaskManager;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * GET /schedule?duration=60&from=...&to=... — самое раннее свободное время длительностью duration минут,
+ * ответ 200 {"startTime": "..."} или 404, если в окне места нет; без to окно не ограничено справа.
+ * POST /schedule — раскладка незапланированных задач: тело {"ids": [...], "from": "...", "to": "...",
+ * "policy": "IN_ORDER|LONGEST_FIRST"}, ответ 200 {"scheduled": [задачи с назначенным временем],
+ * "unscheduled": [ID задач, для которых места не нашлось]}. Даты — в формате dd-MM-yyyy HH:mm:ss.
+ */
+public class ScheduleHandler extends BaseHttpHandler implements HttpHandler {
+    private final TaskManager manager;
+
+    public ScheduleHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] pathParts = exchange.getRequestURI().getPath().split("/");
+
+        try {
+            if (pathParts.length != 2) {
+                sendNotFound(exchange, "Not Found");
+            } else if (method.equals("GET")) {
+                findFreeSlot(exchange);
+            } else if (method.equals("POST")) {
+                schedule(exchange);
+            } else {
+                sendNotFound(exchange, "Not Found");
+            }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (manager.ManagerSaveException e) {
+            sendInternalError(exchange, "Failed to save tasks: " + e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, "Internal Server Error: " + e.getMessage());
+        }
+    }
+
+    private void findFreeSlot(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        int minutes = intParam(params, "duration", -1);
+        LocalDateTime from = dateTimeParam(params, "from");
+        if (minutes < 0 || from == null) {
+            sendBadRequest(exchange, "Параметры duration и from обязательны");
+            return;
+        }
+        Optional<LocalDateTime> slot = manager.findFreeSlot(Duration.ofMinutes(minutes), from,
+                dateTimeParam(params, "to"));
+        if (slot.isEmpty()) {
+            sendNotFound(exchange, "No free slot in the window");
+            return;
+        }
+        JsonObject response = new JsonObject();
+        response.add("startTime", gson.toJsonTree(slot.get(), LocalDateTime.class));
+        sendText(exchange, gson.toJson(response), 200);
+    }
+
+    private void schedule(HttpExchange exchange) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        LocalDateTime from;
+        LocalDateTime to;
+        SchedulePolicy policy;
+        try {
+            JsonObject json = JsonParser.parseString(readRequestBody(exchange)).getAsJsonObject();
+            if (!json.has("ids") || !json.has("from") || !json.has("to")) {
+                throw new IllegalArgumentException("Fields 'ids', 'from' and 'to' are required");
+            }
+            for (JsonElement id : json.getAsJsonArray("ids")) {
+                ids.add(id.getAsInt());
+            }
+            from = gson.fromJson(json.get("from"), LocalDateTime.class);
+            to = gson.fromJson(json.get("to"), LocalDateTime.class);
+            policy = json.has("policy") ? SchedulePolicy.valueOf(json.get("policy").getAsString())
+                    : SchedulePolicy.IN_ORDER;
+        } catch (JsonParseException | DateTimeException | IllegalArgumentException | IllegalStateException
+                 | UnsupportedOperationException e) {
+            sendBadRequest(exchange, "Invalid schedule request: " + e.getMessage());
+            return;
+        }
+        ScheduleResult result = manager.schedule(ids, from, to, policy);
+        JsonObject response = new JsonObject();
+        response.add("scheduled", gson.toJsonTree(result.getScheduled(), TASK_COLLECTION_TYPE));
+        JsonArray unscheduled = new JsonArray(result.getUnscheduled().size());
+        result.getUnscheduled().forEach(unscheduled::add);
+        response.add("unscheduled", unscheduled);
+        sendText(exchange, gson.toJson(response), 200);
+    }
+}
@@ -0,0 +1,41 @@
+package httpservice;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.TaskManager;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class SearchHandler extends BaseHttpHandler implements HttpHandler {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final TaskManager manager;
+
+    public SearchHandler(TaskManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+
+        try {
+            if (method.equals("GET")) { // GET /search?q=&limit=
+                Map<String, String> params = queryParams(exchange);
+                String query = params.get("q");
+                if (query == null || query.isBlank()) {
+                    sendBadRequest(exchange, "Параметр q обязателен");
+                    return;
+                }
+                sendTasks(exchange, manager.search(query, intParam(params, "limit", DEFAULT_LIMIT)));
+            } else {
+                sendNotFound(exchange, "Not Found");
+            }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, "Internal Server Error: " + e.getMessage());
+        }
+    }
+}
@@ -6,12 +6,15 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import data.SubTask;
 import data.TaskStatus;
+import logging.Logger;
 import manager.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
 
 public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Logger LOG = Logger.getLogger(SubtaskHandler.class);
     private final TaskManager manager;
 
     public SubtaskHandler(TaskManager manager) {
@@ -26,8 +29,17 @@ public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
 
         try {
             if (method.equals("GET")) {
-                if (pathParts.length == 2) { // GET /subtasks
-                    sendText(exchange, gson.toJson(manager.getSubtasks().values()), 200);
+                if (pathParts.length == 2) { // GET /subtasks, /subtasks?status=, /subtasks?limit=&after=
+                    Map<String, String> params = queryParams(exchange);
+                    TaskStatus status = statusParam(params, "status");
+                    if (isPageRequest(params)) {
+                        if (status != null) {
+                            throw new IllegalArgumentException("Параметр status не сочетается с постраничной выдачей");
+                        }
+                        sendPage(exchange, params, manager::getSubtasksPage);
+                    } else {
+                        sendTasks(exchange, status == null ? manager.getSubtasks().values() : manager.getSubtasksByStatus(status));
+                    }
                 } else if (pathParts.length == 3) { // GET /subtasks/{id}
                     try {
                         int id = Integer.parseInt(pathParts[2]);
@@ -53,9 +65,9 @@ public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
                 SubTask subtask = gson.fromJson(body, SubTask.class);
                 if (pathParts.length == 2) { // POST /subtasks (addSubtask)
                     subtask.setStatus(TaskStatus.NEW);
-                    System.out.println("Subtask epicId: " + subtask.getEpicId());
+                    LOG.debug("Subtask epicId: {}", subtask.getEpicId());
                     manager.addSubtask(subtask);
-                    System.out.println("Subtask created with id: " + subtask.getId());
+                    LOG.debug("Subtask created with id: {}", subtask.getId());
                     sendText(exchange, "{\"message\": \"Subtask created\", \"id\": " + subtask.getId() + "}", 201);
                 } else if (pathParts.length == 3) { // POST /subtasks/{id} (updateSubTask)
                     int id = Integer.parseInt(pathParts[2]);
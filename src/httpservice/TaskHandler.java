@@ -6,12 +6,16 @@ import com.google.gson.JsonParser;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import data.Task;
+import data.TaskStatus;
+import logging.Logger;
 import manager.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
 
 public class TaskHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Logger LOG = Logger.getLogger(TaskHandler.class);
     private final TaskManager manager;
 
     public TaskHandler(TaskManager manager) {
@@ -26,8 +30,17 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
 
         try {
             if (method.equals("GET")) {
-                if (pathParts.length == 2) { // GET /tasks
-                    sendText(exchange, gson.toJson(manager.getTasks().values()), 200);
+                if (pathParts.length == 2) { // GET /tasks, /tasks?status=, /tasks?limit=&after=
+                    Map<String, String> params = queryParams(exchange);
+                    TaskStatus status = statusParam(params, "status");
+                    if (isPageRequest(params)) {
+                        if (status != null) {
+                            throw new IllegalArgumentException("Параметр status не сочетается с постраничной выдачей");
+                        }
+                        sendPage(exchange, params, manager::getTasksPage);
+                    } else {
+                        sendTasks(exchange, status == null ? manager.getTasks().values() : manager.getTasksByStatus(status));
+                    }
                 } else if (pathParts.length == 3) { // GET /tasks/{id}
                     int id = Integer.parseInt(pathParts[2]);
                     Optional<Task> task = manager.getTaskById(id);
@@ -41,7 +54,7 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
                 }
             } else if (method.equals("POST")) {
                 String body = readRequestBody(exchange);
-                System.out.println("Received JSON: " + body);
+                LOG.debug("Received JSON: {}", body);
                 JsonObject jsonObject = JsonParser.parseString(body).getAsJsonObject();
                 if (!jsonObject.has("type") || !jsonObject.get("type").getAsString().equals("TASK")) {
                     sendHasInteractions(exchange, "Expected type TASK for /tasks endpoint");
@@ -51,9 +64,9 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
                 Task task;
                 try {
                     task = gson.fromJson(body, Task.class);
-                    System.out.println("Parsed task: " + task);
+                    LOG.debug("Parsed task: {}", task);
                 } catch (JsonParseException e) {
-                    System.out.println("JsonParseException: " + e.getMessage());
+                    LOG.debug("JsonParseException: {}", e.getMessage());
                     throw new IllegalArgumentException("Invalid JSON format: " + e.getMessage());
                 }
 
@@ -0,0 +1,153 @@
+package httpservice;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import data.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сериализация Task, Epic и SubTask без промежуточного дерева JsonObject.
+ * Поля пишутся прямо в JsonWriter, поле type — вместе с остальными; при чтении поля
+ * собираются в локальные переменные, а объект нужного класса создаётся в конце.
+ * Пустые (null) поля не выводятся, как и при сериализации Gson по умолчанию.
+ */
+public class TaskTypeAdapter extends TypeAdapter<Task> {
+    private final LocalDateTimeTypeAdapter dateTimeAdapter = new LocalDateTimeTypeAdapter();
+    private final DurationTypeAdapter durationAdapter = new DurationTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Task task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(task.getId());
+        out.name("type").value(task.getType().name());
+        writeString(out, "title", task.getTitle());
+        writeString(out, "description", task.getDescription());
+        if (task.getStatus() != null) {
+            out.name("status").value(task.getStatus().name());
+        }
+        if (task.getDuration() != null) {
+            out.name("duration");
+            durationAdapter.write(out, task.getDuration());
+        }
+        if (task.getStartTime() != null) {
+            out.name("startTime");
+            dateTimeAdapter.write(out, task.getStartTime());
+        }
+        if (task instanceof SubTask subTask) {
+            out.name("epicId").value(subTask.getEpicId());
+        } else if (task instanceof Epic epic) {
+            out.name("subTaskIds").beginArray();
+            for (int subTaskId : epic.getSubTaskIds()) {
+                out.value(subTaskId);
+            }
+            out.endArray();
+            if (epic.getEndTime() != null) {
+                out.name("endTime");
+                dateTimeAdapter.write(out, epic.getEndTime());
+            }
+        }
+        out.endObject();
+    }
+
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    @Override
+    public Task read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IOException("Expected a JSON object");
+        }
+
+        String type = null;
+        int id = 0;
+        int epicId = 0;
+        String title = null;
+        String description = null;
+        TaskStatus status = null;
+        Duration duration = null;
+        LocalDateTime startTime = null;
+        LocalDateTime endTime = null;
+        List<Integer> subTaskIds = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "type" -> type = in.nextString();
+                case "id" -> id = in.nextInt();
+                case "title" -> title = in.nextString();
+                case "description" -> description = in.nextString();
+                case "status" -> status = parseStatus(in.nextString());
+                case "duration" -> duration = durationAdapter.read(in);
+                case "startTime" -> startTime = dateTimeAdapter.read(in);
+                case "endTime" -> endTime = dateTimeAdapter.read(in);
+                case "epicId" -> epicId = in.nextInt();
+                case "subTaskIds" -> {
+                    subTaskIds = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        subTaskIds.add(in.nextInt());
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null) {
+            throw new IOException("Missing 'type' field in JSON");
+        }
+        return switch (type) {
+            case "TASK" -> new Task(title, description, status, id, duration, startTime);
+            case "SUBTASK" -> new SubTask(id, title, description, status, epicId, duration, startTime);
+            case "EPIC" -> {
+                Epic epic = new Epic(id, title, description, status);
+                if (subTaskIds != null) {
+                    subTaskIds.forEach(epic::addSubtaskId);
+                }
+                if (startTime != null) {
+                    epic.setStartTime(startTime);
+                }
+                if (endTime != null) {
+                    epic.setEndTime(endTime);
+                }
+                epic.setDuration(duration);
+                yield epic;
+            }
+            default -> throw new IOException("Unknown type: " + type);
+        };
+    }
+
+    // Как и стандартный адаптер перечислений Gson, неизвестный статус превращается в null
+    private static TaskStatus parseStatus(String value) {
+        for (TaskStatus status : TaskStatus.values()) {
+            if (status.name().equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package logging;
+
+// Приёмник записей журнала. append может буферизовать запись, flush дописывает буфер до конца
+public interface Appender {
+    void append(LogRecord record);
+
+    default void flush() {
+    }
+
+    default void close() {
+        flush();
+    }
+}
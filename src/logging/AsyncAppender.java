@@ -0,0 +1,108 @@
+package logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Асинхронный приёмник: записывающий поток только кладёт запись в ограниченную очередь,
+ * а фоновый поток забирает записи пачками до BATCH_SIZE, передаёт их приёмнику и сбрасывает
+ * его буфер один раз на пачку. При переполнении очереди запись отбрасывается и учитывается
+ * в getDroppedCount — журнал никогда не задерживает операцию с задачами.
+ */
+public class AsyncAppender implements Appender {
+    public static final int DEFAULT_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+
+    private final Appender delegate;
+    private final BlockingQueue<LogRecord> queue;
+    private final Thread worker;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object progress = new Object(); // ожидание записи пачки в flush
+    private long written; // под progress
+    private volatile boolean closed;
+
+    public AsyncAppender(Appender delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public AsyncAppender(Appender delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость очереди журнала должна быть положительной: " + capacity);
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::drain, "log-appender");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void append(LogRecord record) {
+        if (closed || !queue.offer(record)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        enqueued.incrementAndGet();
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                if (queue.isEmpty()) {
+                    break; // close(): очередь разобрана
+                }
+                continue;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            for (LogRecord record : batch) {
+                delegate.append(record);
+            }
+            delegate.flush();
+            synchronized (progress) {
+                written += batch.size();
+                progress.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    // Ждёт, пока записи, принятые до вызова, будут переданы приёмнику и сброшены
+    @Override
+    public void flush() {
+        long target = enqueued.get();
+        synchronized (progress) {
+            while (written < target && worker.isAlive()) {
+                try {
+                    progress.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
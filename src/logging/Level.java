@@ -0,0 +1,9 @@
+package logging;
+
+public enum Level {
+    DEBUG, // подробности отдельных операций: ID, пересечения, пересчёт эпиков, тела запросов
+    INFO, // жизненный цикл: запуск и остановка сервера
+    WARN,
+    ERROR,
+    OFF // ничего не пишется
+}
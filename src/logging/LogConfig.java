@@ -0,0 +1,49 @@
+package logging;
+
+/**
+ * Общие для всех логгеров уровень и приёмник. По умолчанию уровень INFO — отладочные записи
+ * с путей изменения задач не пишутся вовсе, — а приёмник асинхронно пишет в System.out.
+ * Системные свойства: kanban.log.level (DEBUG, INFO, WARN, ERROR, OFF) и kanban.log.async=false
+ * для синхронной записи.
+ */
+public final class LogConfig {
+    private static volatile Level level = Level.valueOf(System.getProperty("kanban.log.level", Level.INFO.name()));
+    private static volatile Appender appender = defaultAppender();
+
+    private LogConfig() {
+    }
+
+    private static Appender defaultAppender() {
+        boolean async = Boolean.parseBoolean(System.getProperty("kanban.log.async", "true"));
+        return async ? new AsyncAppender(new StreamAppender(System.out, false)) : new StreamAppender(System.out, true);
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level level) {
+        if (level == null) {
+            throw new IllegalArgumentException("Уровень журнала не может быть null");
+        }
+        LogConfig.level = level;
+    }
+
+    public static Appender getAppender() {
+        return appender;
+    }
+
+    // Заменяет приёмник и возвращает прежний; закрывать прежний — забота вызывающего
+    public static Appender setAppender(Appender appender) {
+        if (appender == null) {
+            throw new IllegalArgumentException("Приёмник журнала не может быть null");
+        }
+        Appender previous = LogConfig.appender;
+        LogConfig.appender = appender;
+        return previous;
+    }
+
+    public static void flush() {
+        appender.flush();
+    }
+}
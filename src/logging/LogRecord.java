@@ -0,0 +1,45 @@
+package logging;
+
+// Одна запись журнала; сообщение уже отформатировано в потоке, который его записал
+public final class LogRecord {
+    private final long timestamp;
+    private final Level level;
+    private final String loggerName;
+    private final String threadName;
+    private final String message;
+    private final Throwable thrown;
+
+    public LogRecord(long timestamp, Level level, String loggerName, String threadName, String message,
+                     Throwable thrown) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = threadName;
+        this.message = message;
+        this.thrown = thrown;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Throwable getThrown() {
+        return thrown;
+    }
+}
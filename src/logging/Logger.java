@@ -0,0 +1,103 @@
+package logging;
+
+/**
+ * Именованный логгер. Проверка уровня — одно чтение volatile-поля: на выключенном уровне
+ * сообщение не форматируется и запись не создаётся. Сообщение задаётся шаблоном, где {} заменяются
+ * аргументами по порядку, поэтому на месте вызова нет склейки строк. Перегрузки с одним и двумя
+ * аргументами обходятся без массива; примитивные аргументы на горячих путях стоит прикрывать
+ * isDebugEnabled(), чтобы не упаковывать их впустую.
+ */
+public final class Logger {
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level != Level.OFF && level.compareTo(LogConfig.getLevel()) >= 0;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void debug(String message) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, message, null);
+        }
+    }
+
+    public void debug(String format, Object arg) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, format(format, arg), null);
+        }
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, format(format, arg1, arg2), null);
+        }
+    }
+
+    public void debug(String format, Object... args) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, format(format, args), null);
+        }
+    }
+
+    public void info(String message) {
+        if (isEnabled(Level.INFO)) {
+            write(Level.INFO, message, null);
+        }
+    }
+
+    public void info(String format, Object... args) {
+        if (isEnabled(Level.INFO)) {
+            write(Level.INFO, format(format, args), null);
+        }
+    }
+
+    public void warn(String message, Throwable thrown) {
+        if (isEnabled(Level.WARN)) {
+            write(Level.WARN, message, thrown);
+        }
+    }
+
+    public void error(String message, Throwable thrown) {
+        if (isEnabled(Level.ERROR)) {
+            write(Level.ERROR, message, thrown);
+        }
+    }
+
+    private void write(Level level, String message, Throwable thrown) {
+        LogConfig.getAppender().append(new LogRecord(System.currentTimeMillis(), level, name,
+                Thread.currentThread().getName(), message, thrown));
+    }
+
+    // Подставляет аргументы вместо {} по порядку; лишние {} остаются как есть
+    static String format(String format, Object... args) {
+        if (format == null || args == null || args.length == 0) {
+            return format;
+        }
+        StringBuilder result = new StringBuilder(format.length() + 16 * args.length);
+        int from = 0;
+        for (Object arg : args) {
+            int placeholder = format.indexOf("{}", from);
+            if (placeholder < 0) {
+                break;
+            }
+            result.append(format, from, placeholder).append(arg);
+            from = placeholder + 2;
+        }
+        return result.append(format, from, format.length()).toString();
+    }
+}
@@ -0,0 +1,63 @@
+package logging;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Пишет записи строками «время уровень [поток] логгер - сообщение» в поток вывода через буфер.
+ * С autoFlush буфер сбрасывается после каждой записи — так приёмник можно использовать напрямую;
+ * под AsyncAppender autoFlush выключен, и буфер сбрасывается один раз на пачку записей.
+ */
+public class StreamAppender implements Appender {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private final boolean autoFlush;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public StreamAppender(OutputStream out, boolean autoFlush) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.autoFlush = autoFlush;
+    }
+
+    @Override
+    public synchronized void append(LogRecord record) {
+        try {
+            writer.write(format(record));
+            if (autoFlush) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // Журнал не должен ронять операцию, ради которой писался
+        }
+    }
+
+    String format(LogRecord record) {
+        StringBuilder line = new StringBuilder(64 + record.getMessage().length())
+                .append(TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getTimestamp()), zone)))
+                .append(' ').append(record.getLevel())
+                .append(" [").append(record.getThreadName()).append("] ")
+                .append(record.getLoggerName()).append(" - ").append(record.getMessage())
+                .append(System.lineSeparator());
+        if (record.getThrown() != null) {
+            StringWriter trace = new StringWriter();
+            record.getThrown().printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            // см. append
+        }
+    }
+}
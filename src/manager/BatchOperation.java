@@ -0,0 +1,92 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TypeTask;
+
+/**
+ * Одна операция пакета для TaskManager.applyBatch: создание, обновление или удаление задачи,
+ * эпика или подзадачи. Подзадача может ссылаться на эпик, создаваемый в том же пакете,
+ * через номер операции его создания (epicRef) — ID эпика до применения пакета ещё неизвестен.
+ * Для обновления эпика из переданного Epic берутся только название и описание.
+ */
+public final class BatchOperation {
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    public static final int NO_REF = -1;
+
+    private final Action action;
+    private final TypeTask type;
+    private final int id;
+    private final Task task;
+    private final int epicRef;
+
+    private BatchOperation(Action action, TypeTask type, int id, Task task, int epicRef) {
+        if (type == null) {
+            throw new IllegalArgumentException("Тип задачи в операции не может быть null");
+        }
+        if (action != Action.DELETE && task == null) {
+            throw new IllegalArgumentException("Операция " + action + " требует задачу");
+        }
+        if (task != null && task.getType() != type) {
+            throw new IllegalArgumentException("Тип задачи " + task.getType() + " не совпадает с типом операции " + type);
+        }
+        this.action = action;
+        this.type = type;
+        this.id = id;
+        this.task = task;
+        this.epicRef = epicRef;
+    }
+
+    public static BatchOperation create(Task task) {
+        return new BatchOperation(Action.CREATE, task == null ? null : task.getType(), 0, task, NO_REF);
+    }
+
+    // Подзадача эпика, созданного операцией пакета с номером epicOperationIndex
+    public static BatchOperation createSubtask(SubTask subTask, int epicOperationIndex) {
+        if (epicOperationIndex < 0) {
+            throw new IllegalArgumentException("Номер операции эпика не может быть отрицательным: " + epicOperationIndex);
+        }
+        return new BatchOperation(Action.CREATE, TypeTask.SUBTASK, 0, subTask, epicOperationIndex);
+    }
+
+    public static BatchOperation update(int id, Task task) {
+        return new BatchOperation(Action.UPDATE, task == null ? null : task.getType(), id, task, NO_REF);
+    }
+
+    public static BatchOperation updateEpic(int id, String title, String description) {
+        return update(id, new Epic(title, description));
+    }
+
+    public static BatchOperation delete(TypeTask type, int id) {
+        return new BatchOperation(Action.DELETE, type, id, null, NO_REF);
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public TypeTask getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public int getEpicRef() {
+        return epicRef;
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + type + (action == Action.CREATE ? "" : " " + id);
+    }
+}
@@ -0,0 +1,183 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TypeTask;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Проверка пакета операций до его применения, общая для InMemoryTaskManager и ConcurrentTaskManager.
+ * Проверяется итоговое состояние: задачи, удалённые или заменённые в пакете, своих интервалов
+ * уже не занимают. Новые интервалы пакета сортируются по началу и проверяются друг с другом
+ * одним проходом (sort and sweep) за O(k log k), а с уже сохранёнными задачами — через
+ * TimeIntervalIndex за O(log n) на интервал. При ошибке бросается IllegalArgumentException,
+ * состояние менеджера не меняется. Задачи из операций тоже не меняются: ID, которые они получат,
+ * хранятся в собственной таблице проверки, а назначает их менеджер при применении.
+ */
+final class BatchValidator {
+    private static final Comparator<Task> BY_START = Comparator.comparing(Task::getStartTime);
+
+    private BatchValidator() {
+    }
+
+    static void validate(TaskManager manager, TimeIntervalIndex index, List<BatchOperation> operations) {
+        if (operations == null) {
+            throw new IllegalArgumentException("Пакет операций не может быть null");
+        }
+        Map<Integer, Task> tasks = manager.getTasks();
+        Map<Integer, Epic> epics = manager.getEpics();
+        Map<Integer, SubTask> subtasks = manager.getSubtasks();
+
+        Set<Integer> deleted = new HashSet<>();
+        Set<Integer> released = new HashSet<>(); // ID, чьи прежние интервалы освобождаются
+        List<Task> created = new ArrayList<>();
+        Map<Integer, Task> updated = new HashMap<>();
+        Map<Integer, Integer> movedTo = new HashMap<>(); // подзадача → эпик после обновления в пакете
+        Map<Task, Integer> plannedIds = new IdentityHashMap<>(); // задача пакета → ID после применения
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            if (operation == null) {
+                throw new IllegalArgumentException("Операция " + i + ": не может быть null");
+            }
+            int id = operation.getId();
+            switch (operation.getAction()) {
+                case CREATE -> {
+                    Task task = operation.getTask();
+                    if (operation.getType() == TypeTask.SUBTASK) {
+                        checkEpicReference(operations, i, (SubTask) task, operation.getEpicRef(), epics, deleted);
+                    }
+                    if (operation.getType() != TypeTask.EPIC) {
+                        plannedIds.put(task, 0); // ID назначит менеджер; 0 не совпадает ни с одним сохранённым
+                        created.add(task);
+                    }
+                }
+                case UPDATE -> {
+                    requireExisting(i, operation, tasks, epics, subtasks, deleted);
+                    if (operation.getType() == TypeTask.SUBTASK) {
+                        int epicId = ((SubTask) operation.getTask()).getEpicId();
+                        if (!epics.containsKey(epicId) || deleted.contains(epicId)) {
+                            throw new IllegalArgumentException("Операция " + i + ": эпик " + epicId + " не найден");
+                        }
+                    }
+                    if (operation.getType() != TypeTask.EPIC) {
+                        plannedIds.put(operation.getTask(), id);
+                        released.add(id);
+                        updated.put(id, operation.getTask());
+                    }
+                    if (operation.getTask() instanceof SubTask subTask) {
+                        movedTo.put(id, subTask.getEpicId());
+                    }
+                }
+                case DELETE -> {
+                    requireExisting(i, operation, tasks, epics, subtasks, deleted);
+                    release(id, deleted, released, updated);
+                    if (operation.getType() == TypeTask.EPIC) {
+                        // Подзадачи эпика с учётом переносов между эпиками, сделанных раньше в пакете
+                        for (int subTaskId : epics.get(id).getSubTaskIds()) {
+                            if (movedTo.getOrDefault(subTaskId, id) == id) {
+                                release(subTaskId, deleted, released, updated);
+                            }
+                        }
+                        for (Map.Entry<Integer, Integer> moved : movedTo.entrySet()) {
+                            if (moved.getValue() == id) {
+                                release(moved.getKey(), deleted, released, updated);
+                            }
+                        }
+                        // Подзадачи, добавленные в этот эпик раньше в пакете, удалятся вместе с ним
+                        created.removeIf(task -> task instanceof SubTask subTask && subTask.getEpicId() == id
+                                && !createdByReference(operations, subTask));
+                    }
+                }
+            }
+        }
+
+        List<Task> scheduled = new ArrayList<>(created.size() + updated.size());
+        for (Task task : created) {
+            if (TimeIntervalIndex.isIndexable(task)) {
+                scheduled.add(task);
+            }
+        }
+        for (Task task : updated.values()) {
+            if (TimeIntervalIndex.isIndexable(task)) {
+                scheduled.add(task);
+            }
+        }
+        checkBatchIntervals(scheduled);
+        for (Task task : scheduled) {
+            for (Task conflict : index.findIntersections(task, plannedIds.get(task))) {
+                if (!released.contains(conflict.getId())) {
+                    throw new IllegalArgumentException("Задача пакета «" + task.getTitle()
+                            + "» пересекается по времени выполнения с задачей " + conflict.getId());
+                }
+            }
+        }
+    }
+
+    private static boolean createdByReference(List<BatchOperation> operations, SubTask subTask) {
+        for (BatchOperation operation : operations) {
+            if (operation.getTask() == subTask) {
+                return operation.getEpicRef() != BatchOperation.NO_REF;
+            }
+        }
+        return false;
+    }
+
+    private static void checkEpicReference(List<BatchOperation> operations, int index, SubTask subTask, int epicRef,
+                                           Map<Integer, Epic> epics, Set<Integer> deleted) {
+        if (epicRef != BatchOperation.NO_REF) {
+            if (epicRef >= index || operations.get(epicRef).getAction() != BatchOperation.Action.CREATE
+                    || operations.get(epicRef).getType() != TypeTask.EPIC) {
+                throw new IllegalArgumentException("Операция " + index + ": операция " + epicRef
+                        + " не создаёт эпик раньше подзадачи");
+            }
+            return;
+        }
+        int epicId = subTask.getEpicId();
+        if (!epics.containsKey(epicId) || deleted.contains(epicId)) {
+            throw new IllegalArgumentException("Операция " + index + ": эпик " + epicId + " не найден");
+        }
+    }
+
+    private static void requireExisting(int index, BatchOperation operation, Map<Integer, Task> tasks,
+                                        Map<Integer, Epic> epics, Map<Integer, SubTask> subtasks,
+                                        Set<Integer> deleted) {
+        int id = operation.getId();
+        boolean exists = switch (operation.getType()) {
+            case TASK -> tasks.containsKey(id);
+            case EPIC -> epics.containsKey(id);
+            case SUBTASK -> subtasks.containsKey(id);
+        };
+        if (!exists || deleted.contains(id)) {
+            throw new IllegalArgumentException("Операция " + index + ": " + operation.getType() + " с ID " + id
+                    + " не найдена");
+        }
+    }
+
+    private static void release(int id, Set<Integer> deleted, Set<Integer> released, Map<Integer, Task> updated) {
+        deleted.add(id);
+        released.add(id);
+        updated.remove(id);
+    }
+
+    // Интервалы пакета по возрастанию начала: достаточно сравнить каждый с интервалом,
+    // который из предыдущих заканчивается позже всех
+    private static void checkBatchIntervals(List<Task> scheduled) {
+        scheduled.sort(BY_START);
+        Task reach = null;
+        LocalDateTime reachEnd = null;
+        for (Task task : scheduled) {
+            if (reach != null && TimeIntervalIndex.intersects(reach, task)) {
+                throw new IllegalArgumentException("Задачи пакета «" + reach.getTitle() + "» и «" + task.getTitle()
+                        + "» пересекаются по времени выполнения");
+            }
+            if (reachEnd == null || task.getEndTime().isAfter(reachEnd)) {
+                reach = task;
+                reachEnd = task.getEndTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TypeTask;
+import util.PersistentIntMap;
+import util.PersistentSortedSet;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемая версия доски: задачи, эпики и подзадачи по ID, приоритетный список и подзадачи
+ * каждого эпика по времени начала. Все коллекции персистентные, поэтому следующая версия,
+ * полученная применением события, делит с предыдущей почти всю память, а читатели старой версии
+ * не замечают изменений. Задачи хранятся копиями: события уже несут копии, а при захвате
+ * текущего содержимого менеджера копии снимаются здесь — менеджер пересчитывает эпики на месте.
+ * Версия соответствует состоянию после события с номером getSequence().
+ */
+public final class BoardSnapshot {
+    private final long sequence;
+    private final PersistentIntMap<Task> tasks;
+    private final PersistentIntMap<Epic> epics;
+    private final PersistentIntMap<SubTask> subtasks;
+    private final PersistentSortedSet<Task> prioritized;
+    private final PersistentIntMap<PersistentSortedSet<SubTask>> subtasksByEpic;
+
+    private BoardSnapshot(long sequence, PersistentIntMap<Task> tasks, PersistentIntMap<Epic> epics,
+                          PersistentIntMap<SubTask> subtasks, PersistentSortedSet<Task> prioritized,
+                          PersistentIntMap<PersistentSortedSet<SubTask>> subtasksByEpic) {
+        this.sequence = sequence;
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
+        this.prioritized = prioritized;
+        this.subtasksByEpic = subtasksByEpic;
+    }
+
+    static BoardSnapshot empty() {
+        return new BoardSnapshot(0, PersistentIntMap.empty(), PersistentIntMap.empty(), PersistentIntMap.empty(),
+                PersistentSortedSet.empty(InMemoryTaskManager.PRIORITY_ORDER), PersistentIntMap.empty());
+    }
+
+    // Версия с текущим содержимым менеджера, например восстановленного из файла без событий
+    static BoardSnapshot capture(TaskManager manager, long sequence) {
+        BoardSnapshot snapshot = empty();
+        for (Task task : manager.getTasks().values()) {
+            snapshot = snapshot.put(new Task(task));
+        }
+        for (Epic epic : manager.getEpics().values()) {
+            snapshot = snapshot.put(new Epic(epic));
+        }
+        for (SubTask subTask : manager.getSubtasks().values()) {
+            snapshot = snapshot.put(new SubTask(subTask));
+        }
+        return snapshot.at(sequence);
+    }
+
+    // Применение идемпотентно: повтор уже учтённого изменения версию не меняет
+    BoardSnapshot apply(TaskEvent event) {
+        BoardSnapshot next = switch (event.getKind()) {
+            case CREATED -> put(event.getTask());
+            case UPDATED, EPIC_RECALCULATED -> event.getType() == TypeTask.EPIC && !epics.containsKey(event.getId())
+                    ? this : put(event.getTask()); // эпик уже удалён, пересчёт запоздал
+            case DELETED -> remove(event.getType(), event.getId());
+            case CLEARED -> clear(event.getType());
+        };
+        return next.at(event.getSequence());
+    }
+
+    private BoardSnapshot at(long newSequence) {
+        return new BoardSnapshot(newSequence, tasks, epics, subtasks, prioritized, subtasksByEpic);
+    }
+
+    private BoardSnapshot put(Task task) {
+        int id = task.getId();
+        return switch (task.getType()) {
+            case TASK -> new BoardSnapshot(sequence, tasks.with(id, task), epics, subtasks,
+                    reprioritize(prioritized, tasks.get(id), task), subtasksByEpic);
+            case EPIC -> new BoardSnapshot(sequence, tasks, epics.with(id, (Epic) task), subtasks,
+                    reprioritize(prioritized, epics.get(id), task), subtasksByEpic);
+            case SUBTASK -> {
+                SubTask subTask = (SubTask) task;
+                SubTask previous = subtasks.get(id);
+                PersistentIntMap<PersistentSortedSet<SubTask>> byEpic = subtasksByEpic;
+                if (previous != null) {
+                    byEpic = withoutSubtask(byEpic, previous);
+                }
+                PersistentSortedSet<SubTask> epicSubtasks = byEpic.get(subTask.getEpicId());
+                if (epicSubtasks == null) {
+                    epicSubtasks = PersistentSortedSet.empty(EpicAggregate.START_ORDER);
+                }
+                byEpic = byEpic.with(subTask.getEpicId(), epicSubtasks.with(subTask));
+                yield new BoardSnapshot(sequence, tasks, epics, subtasks.with(id, subTask),
+                        reprioritize(prioritized, previous, subTask), byEpic);
+            }
+        };
+    }
+
+    private BoardSnapshot remove(TypeTask type, int id) {
+        return switch (type) {
+            case TASK -> {
+                Task previous = tasks.get(id);
+                yield previous == null ? this : new BoardSnapshot(sequence, tasks.without(id), epics, subtasks,
+                        reprioritize(prioritized, previous, null), subtasksByEpic);
+            }
+            case SUBTASK -> {
+                SubTask previous = subtasks.get(id);
+                yield previous == null ? this : new BoardSnapshot(sequence, tasks, epics, subtasks.without(id),
+                        reprioritize(prioritized, previous, null), withoutSubtask(subtasksByEpic, previous));
+            }
+            case EPIC -> {
+                Epic previous = epics.get(id);
+                if (previous == null) {
+                    yield this;
+                }
+                // Подзадачи удаляются своими событиями раньше эпика; оставшиеся убираем вместе с ним
+                PersistentIntMap<SubTask> remaining = subtasks;
+                PersistentSortedSet<Task> order = reprioritize(prioritized, previous, null);
+                PersistentSortedSet<SubTask> epicSubtasks = subtasksByEpic.get(id);
+                if (epicSubtasks != null) {
+                    for (SubTask subTask : epicSubtasks.toList()) {
+                        remaining = remaining.without(subTask.getId());
+                        order = reprioritize(order, subTask, null);
+                    }
+                }
+                yield new BoardSnapshot(sequence, tasks, epics.without(id), remaining, order,
+                        subtasksByEpic.without(id));
+            }
+        };
+    }
+
+    private BoardSnapshot clear(TypeTask type) {
+        PersistentSortedSet<Task> order = prioritized;
+        if (type == TypeTask.TASK) {
+            for (Task task : tasks.values()) {
+                order = reprioritize(order, task, null);
+            }
+            return new BoardSnapshot(sequence, PersistentIntMap.empty(), epics, subtasks, order, subtasksByEpic);
+        }
+        for (SubTask subTask : subtasks.values()) {
+            order = reprioritize(order, subTask, null);
+        }
+        if (type == TypeTask.SUBTASK) {
+            return new BoardSnapshot(sequence, tasks, epics, PersistentIntMap.empty(), order, PersistentIntMap.empty());
+        }
+        for (Epic epic : epics.values()) {
+            order = reprioritize(order, epic, null);
+        }
+        return new BoardSnapshot(sequence, tasks, PersistentIntMap.empty(), PersistentIntMap.empty(), order,
+                PersistentIntMap.empty());
+    }
+
+    // В приоритетном списке только задачи с началом, как в менеджерах
+    private static PersistentSortedSet<Task> reprioritize(PersistentSortedSet<Task> order, Task previous, Task next) {
+        if (previous != null && previous.getStartTime() != null) {
+            order = order.without(previous);
+        }
+        if (next != null && next.getStartTime() != null) {
+            order = order.with(next);
+        }
+        return order;
+    }
+
+    private static PersistentIntMap<PersistentSortedSet<SubTask>> withoutSubtask(
+            PersistentIntMap<PersistentSortedSet<SubTask>> byEpic, SubTask subTask) {
+        PersistentSortedSet<SubTask> epicSubtasks = byEpic.get(subTask.getEpicId());
+        if (epicSubtasks == null) {
+            return byEpic;
+        }
+        epicSubtasks = epicSubtasks.without(subTask);
+        return epicSubtasks.isEmpty() ? byEpic.without(subTask.getEpicId())
+                : byEpic.with(subTask.getEpicId(), epicSubtasks);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Map<Integer, Task> getTasks() {
+        return tasks;
+    }
+
+    public Map<Integer, Epic> getEpics() {
+        return epics;
+    }
+
+    public Map<Integer, SubTask> getSubtasks() {
+        return subtasks;
+    }
+
+    // Неизменяемый список; собирается один раз на версию и дальше отдаётся без копирования
+    public List<Task> getPrioritizedTasks() {
+        return prioritized.toList();
+    }
+
+    public int getPrioritizedSize() {
+        return prioritized.size();
+    }
+
+    // Окно приоритетного списка с той же семантикой, что у TaskManager.getPrioritizedTasks(from, to, limit)
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Начало окна позже его конца: " + from + " > " + to);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit не может быть отрицательным: " + limit);
+        }
+        Task upper = to != null ? InMemoryTaskManager.windowBound(to) : null;
+        List<Task> result = new ArrayList<>(Math.min(limit, 64));
+        prioritized.forEachFrom(from != null ? InMemoryTaskManager.windowBound(from) : null, task -> {
+            if (result.size() == limit || task.getStartTime() == null
+                    || (upper != null && InMemoryTaskManager.PRIORITY_ORDER.compare(task, upper) >= 0)) {
+                return false;
+            }
+            result.add(task);
+            return true;
+        });
+        return result;
+    }
+
+    // Подзадачи эпика по времени начала
+    public List<SubTask> getSubtasksByEpic(int epicId) {
+        PersistentSortedSet<SubTask> epicSubtasks = subtasksByEpic.get(epicId);
+        return epicSubtasks == null ? List.of() : epicSubtasks.toList();
+    }
+}
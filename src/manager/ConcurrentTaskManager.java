@@ -0,0 +1,903 @@
+package manager;
+
+import data.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Потокобезопасная реализация TaskManager для многопоточного HttpTaskServer.
+ * Чтение идёт из ConcurrentHashMap и ConcurrentSkipListSet без блокировок.
+ * Запись в подзадачи эпика защищена полосатой блокировкой по id эпика, поэтому разные эпики
+ * обновляются параллельно. Эпик изменяется на месте, поэтому наружу отдаются его копии,
+ * снятые под той же блокировкой. Проверка пересечений по времени — глобальный инвариант,
+ * её охраняет отдельная scheduleLock. Порядок захвата: сначала блокировка эпика, затем scheduleLock.
+ */
+public class ConcurrentTaskManager implements TaskManager {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<Integer, Task> tasks = new ConcurrentHashMap<>();
+    private final Map<Integer, Epic> epics = new ConcurrentHashMap<>();
+    private final Map<Integer, SubTask> subtasks = new ConcurrentHashMap<>();
+    // Накопительные показатели эпиков, изменяются под блокировкой эпика. Подзадачи эпика
+    // по времени начала читаются из агрегата без блокировки, см. EpicAggregate.getSubtasksByStart
+    private final Map<Integer, EpicAggregate> epicAggregates = new ConcurrentHashMap<>();
+    // Вторичные индексы по статусу; записи по одному id упорядочены теми же блокировками, что и хранилище
+    private final StatusIndex<Task> taskStatuses = new StatusIndex<>(true);
+    private final StatusIndex<Epic> epicStatuses = new StatusIndex<>(true);
+    private final StatusIndex<SubTask> subtaskStatuses = new StatusIndex<>(true);
+    private final IdOrderIndex<Task> taskOrder = new IdOrderIndex<>(true);
+    private final IdOrderIndex<Epic> epicOrder = new IdOrderIndex<>(true);
+    private final IdOrderIndex<SubTask> subtaskOrder = new IdOrderIndex<>(true);
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final AtomicInteger counterId = new AtomicInteger(1);
+
+    private final NavigableSet<Task> prioritizedTasks = new ConcurrentSkipListSet<>(InMemoryTaskManager.PRIORITY_ORDER);
+    // size() у ConcurrentSkipListSet обходит весь список, поэтому размер считается отдельно:
+    // только по успешным add и remove, так что гонки между блокировками его не сбивают
+    private final AtomicInteger prioritizedCount = new AtomicInteger();
+    private final TimeIntervalIndex intervalIndex = new TimeIntervalIndex();
+    private final ReentrantLock scheduleLock = new ReentrantLock();
+    private final ReentrantLock[] epicLocks = new ReentrantLock[LOCK_STRIPES];
+
+    private final HistoryManager historyManager;
+    // События публикуются под теми же блокировками, что и изменение, поэтому для одной задачи
+    // порядок событий совпадает с порядком изменений
+    private final TaskEventBus eventBus = new TaskEventBus();
+    private final Map<Integer, Epic> epicsView = new EpicsView();
+
+    public ConcurrentTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    // Обращения к истории менеджер сам синхронизирует на её объекте
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+        for (int i = 0; i < epicLocks.length; i++) {
+            epicLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime from, LocalDateTime to) {
+        scheduleLock.lock();
+        try {
+            return intervalIndex.findFreeSlot(from, to, duration);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Раскладка и применение идут под теми же блокировками, что и applyBatch, — между ними расписание не меняется
+    @Override
+    public ScheduleResult schedule(List<Integer> ids, LocalDateTime from, LocalDateTime to, SchedulePolicy policy) {
+        lockAllEpics();
+        try {
+            scheduleLock.lock();
+            try {
+                TaskScheduler.Plan plan = TaskScheduler.plan(this, intervalIndex, ids, from, to, policy);
+                applyBatch(plan.operations());
+                return plan.result();
+            } finally {
+                scheduleLock.unlock();
+            }
+        } finally {
+            unlockAllEpics();
+        }
+    }
+
+    @Override
+    public TaskEventBus getEventBus() {
+        return eventBus;
+    }
+
+    private int generateId() {
+        return counterId.getAndIncrement();
+    }
+
+    private int stripeOf(int epicId) {
+        return Math.floorMod(epicId, epicLocks.length);
+    }
+
+    private ReentrantLock lockFor(int epicId) {
+        return epicLocks[stripeOf(epicId)];
+    }
+
+    private void lockAllEpics() {
+        for (ReentrantLock lock : epicLocks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAllEpics() {
+        for (int i = epicLocks.length - 1; i >= 0; i--) {
+            epicLocks[i].unlock();
+        }
+    }
+
+    @Override
+    public void addTask(Task task) {
+        if (task.getType() != TypeTask.TASK) {
+            return;
+        }
+        int id = generateId();
+        task.setId(id);
+        if (!TimeIntervalIndex.isIndexable(task)) {
+            tasks.put(id, task);
+            taskStatuses.put(task);
+            taskOrder.put(task);
+            searchIndex.put(task);
+            if (task.getStartTime() != null) {
+                prioritize(task);
+            }
+            eventBus.publish(TaskEvent.Kind.CREATED, task);
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            if (intervalIndex.findIntersection(task).isPresent()) {
+                throw new IllegalArgumentException("Задача пересекается с другой по времени выполнения");
+            }
+            intervalIndex.add(task);
+            tasks.put(id, task);
+            taskStatuses.put(task);
+            taskOrder.put(task);
+            searchIndex.put(task);
+            prioritize(task);
+            eventBus.publish(TaskEvent.Kind.CREATED, task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void addEpic(Epic epic) {
+        if (epic.getType() != TypeTask.EPIC) {
+            return;
+        }
+        int id = generateId();
+        epic.setId(id);
+        epicAggregates.put(id, new EpicAggregate());
+        epics.put(id, epic);
+        epicStatuses.put(epic);
+        epicOrder.put(epic);
+        searchIndex.put(epic);
+        eventBus.publish(TaskEvent.Kind.CREATED, epic);
+    }
+
+    @Override
+    public void addSubtask(SubTask subtask) {
+        if (subtask.getType() != TypeTask.SUBTASK) {
+            return;
+        }
+        int epicId = subtask.getEpicId();
+        if (!epics.containsKey(epicId)) {
+            throw new IllegalArgumentException("Epic with ID " + epicId + " not found");
+        }
+        ReentrantLock epicLock = lockFor(epicId);
+        epicLock.lock();
+        try {
+            Epic epic = epics.get(epicId);
+            if (epic == null) { // эпик удалён параллельно
+                throw new IllegalArgumentException("Epic with ID " + epicId + " not found");
+            }
+            int id = generateId();
+            subtask.setId(id);
+            schedule(subtask, null, "Подзадача пересекается с другой задачей по времени выполнения");
+            subtasks.put(id, subtask);
+            subtaskStatuses.put(subtask);
+            subtaskOrder.put(subtask);
+            searchIndex.put(subtask);
+            epic.addSubtaskId(id);
+            epicAggregates.get(epicId).add(subtask);
+            eventBus.publish(TaskEvent.Kind.CREATED, subtask);
+            recalculateEpic(epic);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    // Атомарно проверяет пересечения и заменяет интервал previous на task в индексе и prioritizedTasks
+    private void schedule(Task task, Task previous, String conflictMessage) {
+        scheduleLock.lock();
+        try {
+            if (intervalIndex.findIntersection(task).isPresent()) {
+                throw new IllegalArgumentException(conflictMessage);
+            }
+            place(task, previous);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Вызывается под scheduleLock, пересечения уже проверены
+    private void place(Task task, Task previous) {
+        if (previous != null) {
+            intervalIndex.remove(previous);
+            deprioritize(previous);
+        }
+        intervalIndex.add(task);
+        if (task.getStartTime() != null) {
+            prioritize(task);
+        }
+    }
+
+    private void unschedule(Task task) {
+        if (task == null) {
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            intervalIndex.remove(task);
+            deprioritize(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Вызывается под блокировкой эпика
+    private void recalculateEpic(Epic epic) {
+        applyAggregate(epic);
+        eventBus.publish(TaskEvent.Kind.EPIC_RECALCULATED, epic);
+    }
+
+    private void applyAggregate(Epic epic) {
+        EpicAggregate aggregate = epicAggregates.computeIfAbsent(epic.getId(), id -> new EpicAggregate());
+        epic.setStatus(aggregate.getStatus());
+        if (epics.get(epic.getId()) == epic) {
+            epicStatuses.put(epic);
+        }
+        deprioritize(epic);
+        aggregate.applyTimeFields(epic);
+        if (epic.getStartTime() != null) {
+            prioritize(epic);
+        }
+    }
+
+    @Override
+    public void updateEpicStatus(Epic epic) {
+        ReentrantLock epicLock = lockFor(epic.getId());
+        epicLock.lock();
+        try {
+            recalculateEpic(stored(epic));
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    // Читатели получают копии эпиков, поэтому изменять нужно экземпляр из хранилища
+    private Epic stored(Epic epic) {
+        Epic stored = epics.get(epic.getId());
+        return stored != null ? stored : epic;
+    }
+
+    // Эпик изменяется на месте под своей блокировкой; копия, снятая под ней, согласована
+    private Epic copyOf(Epic epic) {
+        ReentrantLock epicLock = lockFor(epic.getId());
+        epicLock.lock();
+        try {
+            return new Epic(epic);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    private List<Epic> copyEpics(List<Epic> list) {
+        List<Epic> result = new ArrayList<>(list);
+        result.replaceAll(this::copyOf);
+        return result;
+    }
+
+    private List<Task> copyEpicsIn(Collection<Task> list) {
+        List<Task> result = new ArrayList<>(list);
+        result.replaceAll(task -> task instanceof Epic epic ? copyOf(epic) : task);
+        return result;
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return copyEpicsIn(prioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return copyEpicsIn(InMemoryTaskManager.window(prioritizedTasks, from, to, limit));
+    }
+
+    @Override
+    public int prioritizedSize() {
+        return prioritizedCount.get();
+    }
+
+    private void prioritize(Task task) {
+        if (prioritizedTasks.add(task)) {
+            prioritizedCount.incrementAndGet();
+        }
+    }
+
+    private void deprioritize(Task task) {
+        if (task != null && prioritizedTasks.remove(task)) {
+            prioritizedCount.decrementAndGet();
+        }
+    }
+
+    private void deprioritizeIf(Predicate<Task> filter) {
+        for (Task task : prioritizedTasks) {
+            if (filter.test(task)) {
+                deprioritize(task);
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Task> getTasks() {
+        return Collections.unmodifiableMap(tasks);
+    }
+
+    @Override
+    public Map<Integer, Epic> getEpics() {
+        return epicsView;
+    }
+
+    // Представление хранилища эпиков только для чтения: каждое обращение к значению отдаёт копию
+    private final class EpicsView extends AbstractMap<Integer, Epic> {
+        @Override
+        public int size() {
+            return epics.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return epics.containsKey(key);
+        }
+
+        @Override
+        public Epic get(Object key) {
+            Epic epic = epics.get(key);
+            return epic == null ? null : copyOf(epic);
+        }
+
+        @Override
+        public Set<Entry<Integer, Epic>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return epics.size();
+                }
+
+                @Override
+                public Iterator<Entry<Integer, Epic>> iterator() {
+                    Iterator<Entry<Integer, Epic>> it = epics.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Integer, Epic> next() {
+                            Entry<Integer, Epic> entry = it.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), copyOf(entry.getValue()));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    @Override
+    public Map<Integer, SubTask> getSubtasks() {
+        return Collections.unmodifiableMap(subtasks);
+    }
+
+    @Override
+    public void clearTask() {
+        scheduleLock.lock();
+        try {
+            tasks.clear();
+            taskStatuses.clear();
+            taskOrder.clear();
+            searchIndex.removeIf(t -> t.getType() == TypeTask.TASK);
+            intervalIndex.removeIf(t -> t.getType() == TypeTask.TASK);
+            deprioritizeIf(t -> t.getType() == TypeTask.TASK);
+            eventBus.publish(TaskEvent.Kind.CLEARED, TypeTask.TASK, 0, null);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void clearSubtask() {
+        lockAllEpics();
+        try {
+            scheduleLock.lock();
+            try {
+                subtasks.clear();
+                subtaskStatuses.clear();
+                subtaskOrder.clear();
+                searchIndex.removeIf(t -> t.getType() == TypeTask.SUBTASK);
+                intervalIndex.removeIf(t -> t.getType() == TypeTask.SUBTASK);
+                deprioritizeIf(t -> t.getType() == TypeTask.SUBTASK);
+            } finally {
+                scheduleLock.unlock();
+            }
+            eventBus.publish(TaskEvent.Kind.CLEARED, TypeTask.SUBTASK, 0, null);
+            for (Epic epic : epics.values()) {
+                epicAggregates.get(epic.getId()).clear();
+                epic.clearSubTasks();
+                recalculateEpic(epic);
+            }
+        } finally {
+            unlockAllEpics();
+        }
+    }
+
+    @Override
+    public void deleteEpic() {
+        lockAllEpics();
+        try {
+            for (int subTaskId : subtasks.keySet()) {
+                removeFromHistory(subTaskId);
+            }
+            scheduleLock.lock();
+            try {
+                subtasks.clear();
+                subtaskStatuses.clear();
+                subtaskOrder.clear();
+                intervalIndex.removeIf(t -> t.getType() == TypeTask.SUBTASK);
+                deprioritizeIf(t -> t.getType() != TypeTask.TASK);
+            } finally {
+                scheduleLock.unlock();
+            }
+            epics.clear();
+            epicStatuses.clear();
+            epicOrder.clear();
+            searchIndex.removeIf(t -> t.getType() != TypeTask.TASK);
+            epicAggregates.clear();
+            eventBus.publish(TaskEvent.Kind.CLEARED, TypeTask.EPIC, 0, null);
+        } finally {
+            unlockAllEpics();
+        }
+    }
+
+    @Override
+    public Optional<Task> getTaskById(int id) {
+        Task task = tasks.get(id);
+        if (task != null) {
+            addToHistory(task);
+        }
+        return Optional.ofNullable(task);
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(int id) {
+        Epic epic = epics.get(id);
+        if (epic == null) {
+            return Optional.empty();
+        }
+        Epic copy = copyOf(epic);
+        addToHistory(copy);
+        return Optional.of(copy);
+    }
+
+    @Override
+    public Optional<SubTask> getSubTaskById(int id) {
+        SubTask subTask = subtasks.get(id);
+        if (subTask != null) {
+            addToHistory(subTask);
+        }
+        return Optional.ofNullable(subTask);
+    }
+
+    // InMemoryHistoryManager не потокобезопасен, поэтому история обслуживается под его монитором
+    private void addToHistory(Task task) {
+        synchronized (historyManager) {
+            historyManager.add(task);
+        }
+    }
+
+    private void removeFromHistory(int id) {
+        synchronized (historyManager) {
+            historyManager.remove(id);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        synchronized (historyManager) {
+            return historyManager.getHistory();
+        }
+    }
+
+    @Override
+    public int historySize() {
+        synchronized (historyManager) {
+            return historyManager.size();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        synchronized (historyManager) {
+            return historyManager.getHistory(offset, limit);
+        }
+    }
+
+    @Override
+    public List<Task> getRecentHistory(int count) {
+        synchronized (historyManager) {
+            return historyManager.getRecentHistory(count);
+        }
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        Task task;
+        scheduleLock.lock();
+        try {
+            task = tasks.remove(id);
+            if (task != null) {
+                taskStatuses.remove(id);
+                taskOrder.remove(id);
+                searchIndex.remove(id);
+                intervalIndex.remove(task);
+                deprioritize(task);
+                eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.TASK, id, null);
+            }
+        } finally {
+            scheduleLock.unlock();
+        }
+        if (task != null) {
+            removeFromHistory(id);
+        }
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        ReentrantLock epicLock = lockFor(id);
+        epicLock.lock();
+        try {
+            Epic epic = epics.remove(id);
+            if (epic == null) {
+                return;
+            }
+            epicStatuses.remove(id);
+            epicOrder.remove(id);
+            searchIndex.remove(id);
+            EpicAggregate aggregate = epicAggregates.remove(id);
+            for (SubTask subTask : aggregate == null ? Set.<SubTask>of() : aggregate.getSubtasksByStart()) {
+                int subTaskId = subTask.getId();
+                unschedule(subtasks.remove(subTaskId));
+                subtaskStatuses.remove(subTaskId);
+                subtaskOrder.remove(subTaskId);
+                searchIndex.remove(subTaskId);
+                removeFromHistory(subTaskId);
+                eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.SUBTASK, subTaskId, null);
+            }
+            deprioritize(epic);
+            removeFromHistory(id);
+            eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.EPIC, id, null);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteSubTaskById(int id) {
+        SubTask subtask = subtasks.get(id);
+        if (subtask == null) {
+            return;
+        }
+        int epicId = subtask.getEpicId();
+        ReentrantLock epicLock = lockFor(epicId);
+        epicLock.lock();
+        try {
+            if (!subtasks.remove(id, subtask)) {
+                return; // подзадачу уже удалили или заменили параллельно
+            }
+            unschedule(subtask);
+            eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.SUBTASK, id, null);
+            subtaskStatuses.remove(id);
+            subtaskOrder.remove(id);
+            searchIndex.remove(id);
+            Epic epic = epics.get(epicId);
+            if (epic != null) {
+                epicAggregates.get(epicId).remove(subtask);
+                epic.removeSubTaskId(id);
+                recalculateEpic(epic);
+            }
+            removeFromHistory(id);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public List<SubTask> getSubtaskByEpic(Epic epic) {
+        if (epic == null) {
+            return List.of();
+        }
+        EpicAggregate aggregate = epicAggregates.get(epic.getId());
+        return aggregate == null ? List.of() : List.copyOf(aggregate.getSubtasksByStart());
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return taskStatuses.get(status);
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return copyEpics(epicStatuses.get(status));
+    }
+
+    @Override
+    public List<SubTask> getSubtasksByStatus(TaskStatus status) {
+        return subtaskStatuses.get(status);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return taskOrder.page(afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        return copyEpics(epicOrder.page(afterId, limit));
+    }
+
+    @Override
+    public List<SubTask> getSubtasksPage(int afterId, int limit) {
+        return subtaskOrder.page(afterId, limit);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return copyEpicsIn(searchIndex.search(query, limit));
+    }
+
+    @Override
+    public void updateTask(Task task, Task newTask) {
+        newTask.setId(task.getId());
+        scheduleLock.lock();
+        try {
+            Task previous = tasks.get(task.getId());
+            if (previous == null) {
+                return; // задачу удалили параллельно: обновление считается выполненным до удаления
+            }
+            if (intervalIndex.findIntersection(newTask).isPresent()) {
+                throw new IllegalArgumentException("Обновлённая задача пересекается с другой по времени выполнения");
+            }
+            tasks.put(task.getId(), newTask);
+            taskStatuses.put(newTask);
+            taskOrder.put(newTask);
+            searchIndex.put(newTask);
+            intervalIndex.remove(previous);
+            deprioritize(previous);
+            intervalIndex.add(newTask);
+            if (newTask.getStartTime() != null) {
+                prioritize(newTask);
+            }
+            eventBus.publish(TaskEvent.Kind.UPDATED, newTask);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void updateEpic(Epic epic, String newTitle, String newDescription) {
+        ReentrantLock epicLock = lockFor(epic.getId());
+        epicLock.lock();
+        try {
+            Epic stored = stored(epic);
+            stored.setTitle(newTitle);
+            stored.setDescription(newDescription);
+            searchIndex.put(stored);
+            applyAggregate(stored);
+            eventBus.publish(TaskEvent.Kind.UPDATED, stored);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public void updateSubTask(SubTask subTask, SubTask newSubTask) {
+        if (subTask == null || newSubTask == null) {
+            throw new IllegalArgumentException("SubTask или newSubTask не может быть null");
+        }
+        int id = subTask.getId();
+        newSubTask.setId(id);
+        int epicId = newSubTask.getEpicId();
+        while (true) {
+            SubTask current = subtasks.get(id);
+            if (current == null) {
+                return; // подзадачу удалили параллельно, как и в updateTask
+            }
+            int previousEpicId = current.getEpicId();
+            // При переносе между эпиками берём обе блокировки в порядке номеров полос
+            ReentrantLock first = epicLocks[Math.min(stripeOf(previousEpicId), stripeOf(epicId))];
+            ReentrantLock second = epicLocks[Math.max(stripeOf(previousEpicId), stripeOf(epicId))];
+            first.lock();
+            second.lock();
+            try {
+                if (subtasks.get(id) == current) {
+                    replaceSubTask(current, newSubTask);
+                    return;
+                }
+            } finally {
+                second.unlock();
+                first.unlock();
+            }
+        }
+    }
+
+    // Вызывается под блокировками прежнего и нового эпика
+    private void replaceSubTask(SubTask previous, SubTask newSubTask) {
+        int id = newSubTask.getId();
+        int epicId = newSubTask.getEpicId();
+        schedule(newSubTask, previous,
+                "Обновлённая подзадача пересекается с другой по времени выполнения");
+        subtasks.put(id, newSubTask);
+        subtaskStatuses.put(newSubTask);
+        subtaskOrder.put(newSubTask);
+        searchIndex.put(newSubTask);
+        eventBus.publish(TaskEvent.Kind.UPDATED, newSubTask);
+        Epic previousEpic = epics.get(previous.getEpicId());
+        if (previousEpic != null) {
+            epicAggregates.get(previousEpic.getId()).remove(previous);
+        }
+        Epic epic = epics.get(epicId);
+        if (epic != null) {
+            epicAggregates.get(epicId).add(newSubTask);
+        }
+        if (previousEpic != null && previousEpic != epic) {
+            previousEpic.removeSubTaskId(id);
+            recalculateEpic(previousEpic);
+        }
+        if (epic != null) {
+            if (epic != previousEpic) {
+                epic.addSubtaskId(id);
+            }
+            recalculateEpic(epic);
+        }
+    }
+
+    // Пакет держит все блокировки эпиков и scheduleLock: проверка и применение выглядят для
+    // других потоков одной операцией, а каждый затронутый эпик пересчитывается один раз
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) {
+        lockAllEpics();
+        try {
+            scheduleLock.lock();
+            try {
+                BatchValidator.validate(this, intervalIndex, operations);
+                List<Integer> ids = new ArrayList<>(operations.size());
+                Set<Integer> affected = new LinkedHashSet<>();
+                for (BatchOperation operation : operations) {
+                    ids.add(applyOperation(operation, ids, affected));
+                }
+                for (int epicId : affected) {
+                    Epic epic = epics.get(epicId);
+                    if (epic != null) {
+                        recalculateEpic(epic);
+                    }
+                }
+                return ids;
+            } finally {
+                scheduleLock.unlock();
+            }
+        } finally {
+            unlockAllEpics();
+        }
+    }
+
+    // Вызывается из applyBatch под всеми блокировками; возвращает ID задачи операции
+    private int applyOperation(BatchOperation operation, List<Integer> ids, Set<Integer> affected) {
+        Task task = operation.getTask();
+        int id = operation.getId();
+        switch (operation.getAction()) {
+            case CREATE -> {
+                if (task instanceof Epic epic) {
+                    addEpic(epic);
+                    return epic.getId();
+                }
+                if (task instanceof SubTask subTask && operation.getEpicRef() != BatchOperation.NO_REF) {
+                    subTask.setEpicId(ids.get(operation.getEpicRef()));
+                }
+                id = generateId();
+                task.setId(id);
+                place(task, null);
+                if (task instanceof SubTask subTask) {
+                    int epicId = subTask.getEpicId();
+                    subtasks.put(id, subTask);
+                    subtaskStatuses.put(subTask);
+                    subtaskOrder.put(subTask);
+                    searchIndex.put(subTask);
+                    epics.get(epicId).addSubtaskId(id);
+                    epicAggregates.get(epicId).add(subTask);
+                    affected.add(epicId);
+                } else {
+                    tasks.put(id, task);
+                    taskStatuses.put(task);
+                    taskOrder.put(task);
+                    searchIndex.put(task);
+                }
+                eventBus.publish(TaskEvent.Kind.CREATED, task);
+            }
+            case UPDATE -> {
+                if (operation.getType() != TypeTask.EPIC) {
+                    task.setId(id);
+                }
+                switch (operation.getType()) {
+                    case TASK -> {
+                        place(task, tasks.put(id, task));
+                        taskStatuses.put(task);
+                        taskOrder.put(task);
+                        searchIndex.put(task);
+                    }
+                    case EPIC -> {
+                        Epic epic = epics.get(id);
+                        epic.setTitle(task.getTitle());
+                        epic.setDescription(task.getDescription());
+                        searchIndex.put(epic);
+                        affected.add(id);
+                    }
+                    case SUBTASK -> {
+                        SubTask newSubTask = (SubTask) task;
+                        SubTask previous = subtasks.put(id, newSubTask);
+                        subtaskStatuses.put(newSubTask);
+                        subtaskOrder.put(newSubTask);
+                        searchIndex.put(newSubTask);
+                        place(newSubTask, previous);
+                        int previousEpicId = previous.getEpicId();
+                        int epicId = newSubTask.getEpicId();
+                        epicAggregates.get(previousEpicId).remove(previous);
+                        epicAggregates.get(epicId).add(newSubTask);
+                        if (previousEpicId != epicId) {
+                            epics.get(previousEpicId).removeSubTaskId(id);
+                            epics.get(epicId).addSubtaskId(id);
+                            affected.add(previousEpicId);
+                        }
+                        affected.add(epicId);
+                    }
+                }
+                eventBus.publish(TaskEvent.Kind.UPDATED, operation.getType() == TypeTask.EPIC ? epics.get(id) : task);
+            }
+            case DELETE -> {
+                switch (operation.getType()) {
+                    case TASK -> deleteTaskById(id);
+                    case EPIC -> deleteEpicById(id);
+                    case SUBTASK -> {
+                        SubTask subTask = subtasks.remove(id);
+                        subtaskStatuses.remove(id);
+                        subtaskOrder.remove(id);
+                        searchIndex.remove(id);
+                        unschedule(subTask);
+                        int epicId = subTask.getEpicId();
+                        epicAggregates.get(epicId).remove(subTask);
+                        epics.get(epicId).removeSubTaskId(id);
+                        removeFromHistory(id);
+                        eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.SUBTASK, id, null);
+                        affected.add(epicId);
+                    }
+                }
+            }
+        }
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "manager.ConcurrentTaskManager{" + '\'' +
+                "Tasks=" + tasks + '\'' +
+                "Epics=" + epics + '\'' +
+                "SubTask=" + subtasks +
+                '}' + "\n";
+    }
+}
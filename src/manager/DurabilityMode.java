@@ -0,0 +1,7 @@
+package manager;
+
+public enum DurabilityMode {
+    SYNC, // каждая мутация записывается на диск в потоке вызывающего
+    GROUP_COMMIT, // мутации копятся в пачку, вызывающий ждёт записи своей пачки
+    ASYNC // мутации копятся в пачку, вызывающий не ждёт; барьер — flush()
+}
@@ -0,0 +1,123 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Накопительные показатели подзадач эпика: счётчики статусов, суммарная длительность,
+ * минимальное начало и максимальное окончание. Начала и окончания хранятся как мультимножества
+ * в TreeMap, поэтому добавление и удаление одной подзадачи стоят O(log m), а не полный пересчёт.
+ * Здесь же ведётся индекс подзадач эпика по времени начала; он в ConcurrentSkipListSet,
+ * чтобы ConcurrentTaskManager мог читать его без блокировки эпика.
+ */
+public class EpicAggregate {
+    // Порядок подзадач эпика: по началу, без начала — в конце, при равенстве — по ID
+    static final Comparator<SubTask> START_ORDER = Comparator.comparing(SubTask::getStartTime,
+            Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(SubTask::getId);
+
+    private final int[] statusCounts = new int[TaskStatus.values().length];
+    private int size;
+    private int scheduledCount;
+    private Duration totalDuration = Duration.ZERO;
+    private final NavigableMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Integer> ends = new TreeMap<>();
+    private final NavigableSet<SubTask> subtasksByStart = new ConcurrentSkipListSet<>(START_ORDER);
+
+    public void add(SubTask subTask) {
+        change(subTask, 1);
+    }
+
+    public void remove(SubTask subTask) {
+        change(subTask, -1);
+    }
+
+    public void clear() {
+        Arrays.fill(statusCounts, 0);
+        size = 0;
+        scheduledCount = 0;
+        totalDuration = Duration.ZERO;
+        starts.clear();
+        ends.clear();
+        subtasksByStart.clear();
+    }
+
+    private void change(SubTask subTask, int delta) {
+        if (subTask == null) {
+            return;
+        }
+        size += delta;
+        if (delta > 0) {
+            subtasksByStart.add(subTask);
+        } else {
+            subtasksByStart.remove(subTask);
+        }
+        if (subTask.getStatus() != null) {
+            statusCounts[subTask.getStatus().ordinal()] += delta;
+        }
+        // Во время эпика учитываются только подзадачи с заданным startTime
+        if (subTask.getStartTime() == null) {
+            return;
+        }
+        scheduledCount += delta;
+        countIn(starts, subTask.getStartTime(), delta);
+        if (subTask.getEndTime() != null) {
+            countIn(ends, subTask.getEndTime(), delta);
+        }
+        if (subTask.getDuration() != null) {
+            Duration duration = subTask.getDuration();
+            totalDuration = delta > 0 ? totalDuration.plus(duration) : totalDuration.minus(duration);
+        }
+    }
+
+    private static void countIn(NavigableMap<LocalDateTime, Integer> counts, LocalDateTime key, int delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Подзадачи эпика по времени начала, без времени — в конце; живое представление только для чтения
+    public NavigableSet<SubTask> getSubtasksByStart() {
+        return Collections.unmodifiableNavigableSet(subtasksByStart);
+    }
+
+    public int count(TaskStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    public TaskStatus getStatus() {
+        if (size == 0 || statusCounts[TaskStatus.NEW.ordinal()] == size) {
+            return TaskStatus.NEW;
+        }
+        if (statusCounts[TaskStatus.DONE.ordinal()] == size) {
+            return TaskStatus.DONE;
+        }
+        return TaskStatus.IN_PROGRESS;
+    }
+
+    public LocalDateTime getStartTime() {
+        return starts.isEmpty() ? null : starts.firstKey();
+    }
+
+    public LocalDateTime getEndTime() {
+        return ends.isEmpty() ? null : ends.lastKey();
+    }
+
+    public Duration getDuration() {
+        return scheduledCount == 0 ? null : totalDuration;
+    }
+
+    // Переносит время из агрегата в эпик
+    public void applyTimeFields(Epic epic) {
+        epic.setStartTime(getStartTime());
+        epic.setEndTime(getEndTime());
+        epic.setDuration(getDuration());
+    }
+}
@@ -1,46 +1,414 @@
 package manager;
 
 import data.*;
+import logging.Logger;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
 
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-
-public class FileBackedTaskManager extends InMemoryTaskManager implements TaskManager {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+import java.util.function.Supplier;
+
+public class FileBackedTaskManager extends InMemoryTaskManager implements TaskManager, AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(FileBackedTaskManager.class);
+    // Задержки записи снимка, дозаписи журнала и загрузки; общие для всех экземпляров
+    private static final LatencyHistogram SAVE_LATENCY = persistenceHistogram("save");
+    private static final LatencyHistogram JOURNAL_LATENCY = persistenceHistogram("journal");
+    private static final LatencyHistogram LOAD_LATENCY = persistenceHistogram("load");
+    private static final DateTimeFormatter FORMATTER = TaskCsvReader.FORMATTER;
+    private static final String HEADER = "id,type,title,status,description,duration,startTime,epic";
+    private static final String BATCH_PREFIX = "BATCH,";
     private final File file;
+    private final TaskJournal journal;
+    private final int checkpointInterval; // 0 — каждая мутация перезаписывает файл целиком
+    private final PersistenceConfig persistenceConfig;
+    // Фоновый поток запускается при первой мутации, а не в конструкторе, чтобы ссылка на
+    // недостроенный менеджер не попала в другой поток; в режиме SYNC всегда null
+    private volatile GroupCommitWriter writer;
+    private boolean closed; // под stateLock: после close() фоновая запись не запускается заново
+    private final MappedTaskStore store; // только в формате MAPPED: мутации пишутся в файл на месте
+    private final Object stateLock = new Object(); // мутации и снятие снимка для фоновой записи
+    private final Object ioLock = new Object(); // файловые операции фоновой записи и чекпоинта
+    private List<String> pendingRecords = new ArrayList<>(); // записи журнала, ждущие фоновой записи
+    private int mutationDepth; // вложенные мутации (updateEpicStatus внутри addSubtask) не сохраняются отдельно
 
     public FileBackedTaskManager(File file) {
+        this(file, 0);
+    }
+
+    // checkpointInterval > 0 включает журнал: мутации дописываются в <file>.log,
+    // а каждые checkpointInterval записей журнал сворачивается в снимок
+    public FileBackedTaskManager(File file, int checkpointInterval) {
+        this(file, checkpointInterval, PersistenceConfig.defaults());
+    }
+
+    // В режимах GROUP_COMMIT и ASYNC запись на диск выполняет фоновый поток,
+    // объединяя серию мутаций в один сброс; его нужно остановить через close()
+    public FileBackedTaskManager(File file, int checkpointInterval, PersistenceConfig persistenceConfig) {
         this.file = file;
+        this.checkpointInterval = checkpointInterval;
+        this.journal = new TaskJournal(TaskJournal.journalFileFor(file));
+        this.persistenceConfig = persistenceConfig;
+        this.store = persistenceConfig.getSnapshotFormat() == SnapshotFormat.MAPPED ? openStore(file) : null;
     }
 
-    protected void save() {
-        try (Writer writer = new FileWriter(file)) {
-            writer.write("id,type,title,status,description,duration,startTime,epic\\n");
+    // Вызывается под stateLock
+    private GroupCommitWriter startedWriter() {
+        if (writer == null) {
+            if (closed) {
+                throw new IllegalStateException("Запись изменений уже остановлена");
+            }
+            writer = new GroupCommitWriter("kanban-persistence", this::writePending,
+                    persistenceConfig.getFlushInterval(), persistenceConfig.getBatchSize());
+        }
+        return writer;
+    }
+
+    private static MappedTaskStore openStore(File file) {
+        try {
+            return MappedTaskStore.open(file.toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при открытии хранилища задач: " + file.getPath(), e);
+        }
+    }
+
+    // Хранилищу MAPPED журнал не нужен: каждая мутация и так переписывает одну запись
+    public boolean isJournaled() {
+        return checkpointInterval > 0 && store == null;
+    }
+
+    public DurabilityMode getDurabilityMode() {
+        return persistenceConfig.getDurabilityMode();
+    }
+
+    // Барьер надёжности: после возврата все ранее выполненные мутации записаны на диск.
+    // В режиме SYNC запись уже произошла, поэтому метод ничего не делает
+    public void flush() {
+        GroupCommitWriter started = writer;
+        if (started != null) {
+            started.flush();
+        }
+    }
+
+    // Сбрасывает накопленные изменения и останавливает фоновую запись
+    @Override
+    public void close() {
+        GroupCommitWriter started;
+        synchronized (stateLock) {
+            closed = true;
+            started = writer;
+        }
+        if (started != null) {
+            started.close();
+        }
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при закрытии хранилища задач: " + file.getPath(), e);
+            }
+        }
+    }
+
+    // Сворачивает журнал в снимок: сначала пишем снимок, затем очищаем журнал.
+    // Повторное применение журнала к новому снимку не меняет состояние, так что сбой между шагами безопасен
+    public void checkpoint() {
+        if (getDurabilityMode() == DurabilityMode.SYNC) {
+            synchronized (stateLock) {
+                save();
+                journal.truncate();
+            }
+            return;
+        }
+        flush();
+        synchronized (ioLock) {
+            checkpointInBackground();
+        }
+    }
+
+    // В формате MAPPED текст задачи ограничен размером записи; проверяем до изменения в памяти,
+    // иначе отклонённая хранилищем задача осталась бы в памяти и пропала при следующей загрузке
+    private void checkFits(String title, String description) {
+        if (store != null) {
+            store.checkFits(title, description);
+        }
+    }
+
+    // Выполняет мутацию и сохраняет её результат. Запись журнала вычисляется после мутации;
+    // null означает, что в журнал писать нечего (производное состояние вроде статуса эпика)
+    private void mutate(Runnable mutation, Supplier<String> record) {
+        GroupCommitWriter started;
+        long ticket;
+        synchronized (stateLock) {
+            mutationDepth++;
+            try {
+                mutation.run();
+            } finally {
+                mutationDepth--;
+            }
+            if (mutationDepth > 0) {
+                return;
+            }
+            boolean needsRecord = isJournaled() || store != null;
+            String journalRecord = needsRecord ? record.get() : null;
+            if (needsRecord && journalRecord == null) {
+                return;
+            }
+            if (store != null) {
+                applyToStore(journalRecord);
+            }
+            if (getDurabilityMode() == DurabilityMode.SYNC) {
+                persistNow(journalRecord);
+                return;
+            }
+            if (isJournaled()) {
+                pendingRecords.add(journalRecord);
+            }
+            started = startedWriter();
+            ticket = started.submit();
+        }
+        if (getDurabilityMode() == DurabilityMode.GROUP_COMMIT) {
+            started.await(ticket);
+        }
+    }
+
+    private void persistNow(String record) {
+        if (store != null) {
+            store.force();
+            return;
+        }
+        if (!isJournaled()) {
+            save();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            journal.append(record);
+        } finally {
+            JOURNAL_LATENCY.recordSince(start);
+        }
+        if (journal.size() >= checkpointInterval) {
+            save();
+            journal.truncate();
+        }
+    }
+
+    // Вызывается фоновым потоком: дописывает накопленные записи журнала одной пачкой
+    // или перезаписывает снимок, снятый под stateLock, уже без блокировки мутаций
+    private void writePending() {
+        synchronized (ioLock) {
+            if (store != null) {
+                store.force(); // записи уже в отображённых страницах, осталось сбросить их на диск
+                return;
+            }
+            if (!isJournaled()) {
+                writeSnapshot(renderSnapshot());
+                return;
+            }
+            List<String> records;
+            synchronized (stateLock) {
+                records = pendingRecords;
+                pendingRecords = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            try {
+                journal.appendAll(records);
+            } catch (ManagerSaveException e) {
+                synchronized (stateLock) {
+                    pendingRecords.addAll(0, records); // повторим при следующем сбросе
+                }
+                throw e;
+            } finally {
+                JOURNAL_LATENCY.recordSince(start);
+            }
+            if (journal.size() >= checkpointInterval) {
+                checkpointInBackground();
+            }
+        }
+    }
+
+    // Записи, ещё не попавшие в журнал, уже отражены в снимке; их последующая запись
+    // и повторное применение при загрузке состояние не меняют
+    private void checkpointInBackground() {
+        if (store != null) {
+            store.force();
+            return;
+        }
+        writeSnapshot(renderSnapshot());
+        journal.truncate();
+    }
+
+    // Переносит мутацию в хранилище MAPPED по её записи журнала
+    private void applyToStore(String record) {
+        if (record.startsWith(BATCH_PREFIX)) {
+            String[] lines = record.split("\n");
+            for (int i = 1; i < lines.length; i++) {
+                applyToStore(lines[i]);
+            }
+            return;
+        }
+        String[] parts = record.split(",", 3);
+        switch (parts[0]) {
+            case "PUT" -> {
+                int id = Integer.parseInt(parts[1]);
+                Task task = switch (TypeTask.valueOf(parts[2].substring(0, parts[2].indexOf(',')))) {
+                    case TASK -> tasks.get(id);
+                    case EPIC -> epics.get(id);
+                    case SUBTASK -> subtasks.get(id);
+                };
+                store.put(task);
+            }
+            case "DEL" -> {
+                int id = Integer.parseInt(parts[2]);
+                store.remove(id);
+                if (TypeTask.valueOf(parts[1]) == TypeTask.EPIC) {
+                    store.removeSubtasksOf(id);
+                }
+            }
+            case "CLEAR" -> store.clear(TypeTask.valueOf(parts[1]));
+            default -> throw new IllegalArgumentException("Неизвестная запись журнала: " + record);
+        }
+    }
+
+    private String putRecord(Task task) {
+        return isStored(task) ? "PUT," + toString(task) : null;
+    }
+
+    private static String deleteRecord(TypeTask type, int id) {
+        return "DEL," + type + "," + id;
+    }
 
-            for (Task task : getTasks().values()) {
-                writer.write(toString(task) + "\n");
+    private static String clearRecord(TypeTask type) {
+        return "CLEAR," + type;
+    }
+
+    // Пакет журналируется одной записью: заголовок BATCH,n и n обычных записей по строкам.
+    // Задачи, удалённые позже в том же пакете, не пишутся
+    private String batchRecord(List<BatchOperation> operations, List<Integer> ids) {
+        List<String> records = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            int id = ids.get(i);
+            if (operation.getAction() == BatchOperation.Action.DELETE) {
+                records.add(deleteRecord(operation.getType(), id));
+                continue;
+            }
+            Task stored = switch (operation.getType()) {
+                case TASK -> tasks.get(id);
+                case EPIC -> epics.get(id);
+                case SUBTASK -> subtasks.get(id);
+            };
+            if (stored != null) {
+                records.add("PUT," + toString(stored));
             }
+        }
+        return records.isEmpty() ? null : BATCH_PREFIX + records.size() + "\n" + String.join("\n", records);
+    }
 
-            for (Epic epic : getEpics().values()) {
-                writer.write(toString(epic) + "\n");
+    private boolean isStored(Task task) {
+        Task stored = switch (task.getType()) {
+            case TASK -> getTasks().get(task.getId());
+            case EPIC -> getEpics().get(task.getId());
+            case SUBTASK -> getSubtasks().get(task.getId());
+        };
+        return stored == task;
+    }
+
+    // Снимок пишется во временный файл и атомарно подменяет прежний, см. SnapshotFiles.
+    // В формате MAPPED состояние уже лежит в файле, остаётся сбросить страницы на диск
+    protected void save() {
+        long start = System.nanoTime();
+        try {
+            if (store != null) {
+                store.force();
+                return;
             }
+            SnapshotFiles.write(file.toPath(), this::writeSnapshotTo);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при сохранении задач в файл: " + file.getPath(), e);
+        } finally {
+            SAVE_LATENCY.recordSince(start);
+        }
+    }
 
-            for (SubTask subTask : getSubtasks().values()) {
-                writer.write(toString(subTask) + "\n");
+    private byte[] renderSnapshot() {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        synchronized (stateLock) {
+            try {
+                writeSnapshotTo(snapshot);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // ByteArrayOutputStream не бросает IOException
             }
+        }
+        return snapshot.toByteArray();
+    }
+
+    private void writeSnapshot(byte[] snapshot) {
+        long start = System.nanoTime();
+        try {
+            SnapshotFiles.write(file.toPath(), out -> out.write(snapshot));
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка при сохранении задач в файл: " + file.getPath(), e);
+        } finally {
+            SAVE_LATENCY.recordSince(start);
+        }
+    }
+
+    private static LatencyHistogram persistenceHistogram(String operation) {
+        return MetricsRegistry.getDefault().histogram("kanban_persistence_duration_seconds",
+                "Задержка записи снимка, дозаписи журнала и загрузки из файла", "operation", operation);
+    }
+
+    private void writeSnapshotTo(OutputStream out) throws IOException {
+        if (persistenceConfig.getSnapshotFormat() == SnapshotFormat.BINARY) {
+            writeBinary(new TaskBinaryWriter(out), getTasks().values(), getEpics().values(), getSubtasks().values());
+        } else {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writeCsv(writer, getTasks().values(), getEpics().values(), getSubtasks().values());
+            writer.flush();
+        }
+    }
+
+    static void writeCsv(Writer writer, Collection<? extends Task> tasks, Collection<? extends Task> epics,
+                         Collection<? extends Task> subtasks) throws IOException {
+        writer.write(HEADER + "\n");
+
+        for (Task task : tasks) {
+            writer.write(toString(task) + "\n");
+        }
+
+        for (Task epic : epics) {
+            writer.write(toString(epic) + "\n");
+        }
+
+        for (Task subTask : subtasks) {
+            writer.write(toString(subTask) + "\n");
+        }
+    }
+
+    static void writeBinary(TaskBinaryWriter writer, Collection<? extends Task> tasks,
+                            Collection<? extends Task> epics, Collection<? extends Task> subtasks) throws IOException {
+        for (Task task : tasks) {
+            writer.write(task);
+        }
+        for (Task epic : epics) {
+            writer.write(epic);
+        }
+        for (Task subTask : subtasks) {
+            writer.write(subTask);
         }
+        writer.finish();
     }
 
-    private String toString(Task task) {
+    private static String toString(Task task) {
         StringBuilder sb = new StringBuilder();
         sb.append(task.getId()).append(",");
         sb.append(task.getType()).append(",");
@@ -55,96 +423,77 @@ public class FileBackedTaskManager extends InMemoryTaskManager implements TaskMa
         return sb.toString();
     }
 
-    private Task fromString(String value) {
-        String[] parts = value.split(",", 8);
-        if (parts.length < 5) {
-            throw new IllegalArgumentException("Неверный формат строки: " + value);
-        }
+    public static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, 0);
+    }
 
-        int id = Integer.parseInt(parts[0]);
-        TypeTask type = TypeTask.valueOf(parts[1]);
-        String title = parts[2];
-        TaskStatus status = TaskStatus.valueOf(parts[3]);
-        String description = parts[4];
-        Duration duration = parts[5].isEmpty() ? null : Duration.ofMinutes(Long.parseLong(parts[5]));
-        LocalDateTime startTime = parts[6].isEmpty() ? null : LocalDateTime.parse(parts[6], FORMATTER);
-        String epicValue = parts.length > 7 ? parts[7].trim() : null;
+    // Загружает снимок и применяет к нему хвост журнала, после чего сворачивает журнал в новый снимок
+    public static FileBackedTaskManager loadFromFile(File file, int checkpointInterval) {
+        return loadFromFile(file, checkpointInterval, PersistenceConfig.defaults());
+    }
 
-        return switch (type) {
-            case TASK -> new Task(title, description, status, id, duration, startTime);
-            case EPIC -> new Epic(id, title, description, status);
-            case SUBTASK -> {
-                if (epicValue == null || epicValue.isEmpty()) {
-                    throw new IllegalArgumentException("Для подзадачи не указан ID эпика: " + value);
-                }
-                int epicId = Integer.parseInt(epicValue);
-                yield new SubTask(id, title, description, status, epicId, duration, startTime);
-            }
-        };
+    // Формат существующего файла определяется по содержимому; хранилище MAPPED открывается как есть
+    public static FileBackedTaskManager loadFromFile(File file, int checkpointInterval,
+                                                     PersistenceConfig persistenceConfig) {
+        long start = System.nanoTime();
+        try {
+            return load(file, checkpointInterval, persistenceConfig);
+        } finally {
+            LOAD_LATENCY.recordSince(start);
+        }
     }
 
-    public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+    private static FileBackedTaskManager load(File file, int checkpointInterval, PersistenceConfig persistenceConfig) {
         try {
-            List<String> lines = Files.readAllLines(file.toPath());
-            if (lines.isEmpty()) {
-                return manager;
+            if (file.exists() && TaskSnapshotReader.detectFormat(file.toPath()) == SnapshotFormat.MAPPED) {
+                return loadFromStore(file, new PersistenceConfig(persistenceConfig.getDurabilityMode(),
+                        persistenceConfig.getFlushInterval(), persistenceConfig.getBatchSize(),
+                        SnapshotFormat.MAPPED));
             }
-
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при загрузке задач из файла: " + file.getPath(), e);
+        }
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, checkpointInterval, persistenceConfig);
+        if (manager.store != null) {
+            return manager.restoreFromStore();
+        }
+        try {
+            // Первый проход: снимок читается потоком, задачи кладутся напрямую в Map с сохранёнными ID
+            // Если основной снимок повреждён, читается предыдущее поколение
             int maxId = 0;
-            // Первый проход: определяем максимальный ID
-            for (int i = 1; i < lines.size(); i++) {
-                String line = lines.get(i).trim();
-                if (!line.isEmpty()) {
-                    String[] parts = line.split(",");
-                    int id = Integer.parseInt(parts[0]);
-                    if (id > maxId) {
-                        maxId = id;
+            Path snapshot = SnapshotFiles.selectReadable(file.toPath());
+            if (snapshot != null) {
+                try (TaskSnapshotReader reader = TaskSnapshotReader.open(snapshot)) {
+                    Task task;
+                    while ((task = reader.next()) != null) {
+                        manager.putRestored(task);
+                        maxId = Math.max(maxId, task.getId());
                     }
                 }
             }
 
-            // Устанавливаем counterId на основе максимального ID
-            setCounterId(maxId);
-            System.out.println("Установлен counterId: " + counterId);
-
-            // Второй проход: добавляем задачи напрямую в Map с сохранёнными ID
-            Map<Integer, Epic> epics = new HashMap<>();
-            for (int i = 1; i < lines.size(); i++) {
-                String line = lines.get(i).trim();
-                if (!line.isEmpty()) {
-                    Task task = manager.fromString(line);
-                    System.out.println("Загружаем задачу: " + task);
-                    TypeTask type = task.getType(); // Получаем тип задачи через getType()
-
-                    switch (type) {
-                        case TASK:
-                            manager.getTasks().put(task.getId(), task);
-                            if (task.getStartTime() != null) {
-                                manager.prioritizedTasks.add(task);
-                            }
-                            break;
-                        case EPIC:
-                            Epic epic = (Epic) task; // Приводим task к Epic
-                            epics.put(epic.getId(), epic); // Добавляем Epic в epics
-                            manager.getEpics().put(epic.getId(), epic); // Добавляем Epic в менеджер
-                            break;
-                        case SUBTASK:
-                            SubTask subTask = (SubTask) task;
-                            manager.getSubtasks().put(subTask.getId(), subTask);
-                            // Обновляем список подзадач в эпике
-                            Epic epicForSubtask = epics.get(subTask.getEpicId());
-                            if (epicForSubtask != null) {
-                                epicForSubtask.addSubtaskId(subTask.getId());
-                                manager.updateEpicStatus(epicForSubtask);
-                                manager.updateEpicTimeFields(epicForSubtask);
-                            }
-                            if (subTask.getStartTime() != null) {
-                                manager.prioritizedTasks.add(subTask);
-                            }
-                            break;
+            // Второй проход: применяем записи журнала поверх снимка
+            // Пакет, записанный не полностью, отбрасывается целиком вместе с хвостом журнала
+            List<String> records = manager.journal.readRecords();
+            for (int i = 0; i < records.size(); i++) {
+                String record = records.get(i);
+                if (record.startsWith(BATCH_PREFIX)) {
+                    int count = Integer.parseInt(record.substring(BATCH_PREFIX.length()));
+                    if (i + count >= records.size()) {
+                        break;
                     }
+                    continue;
                 }
+                maxId = Math.max(maxId, manager.replay(record));
+            }
+
+            // Устанавливаем counterId на основе максимального ID
+            setCounterId(maxId);
+            LOG.debug("Установлен counterId: {}", counterId);
+
+            manager.restoreDerivedStateOrClose();
+            if (!records.isEmpty()) {
+                manager.checkpoint();
             }
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка при загрузке задач из файла: " + file.getPath(), e);
@@ -152,46 +501,176 @@ public class FileBackedTaskManager extends InMemoryTaskManager implements TaskMa
         return manager;
     }
 
+    private static FileBackedTaskManager loadFromStore(File file, PersistenceConfig persistenceConfig) {
+        return new FileBackedTaskManager(file, 0, persistenceConfig).restoreFromStore();
+    }
+
+    // Открытие хранилища читает только заголовок, но индексам менеджера нужны все задачи,
+    // поэтому записи обходятся один раз — без разбора текста, прямым чтением полей
+    private FileBackedTaskManager restoreFromStore() {
+        store.forEach(this::putRestored);
+        setCounterId(Math.max(0, store.getMaxId()));
+        restoreDerivedStateOrClose();
+        return this;
+    }
+
+    // Файл с пересекающимися задачами не загружается, а открытые журнал и хранилище закрываются
+    private void restoreDerivedStateOrClose() {
+        try {
+            restoreDerivedState();
+        } catch (ManagerSaveException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void putRestored(Task task) {
+        switch (task.getType()) {
+            case TASK -> tasks.put(task.getId(), task);
+            case EPIC -> epics.put(task.getId(), (Epic) task);
+            case SUBTASK -> subtasks.put(task.getId(), (SubTask) task);
+        }
+    }
+
+    // Применяет одну запись журнала и возвращает затронутый ID
+    private int replay(String record) {
+        int comma = record.indexOf(',');
+        String operation = comma < 0 ? record : record.substring(0, comma);
+        String payload = comma < 0 ? "" : record.substring(comma + 1);
+        switch (operation) {
+            case "PUT" -> {
+                Task task = TaskCsvReader.parse(payload);
+                putRestored(task);
+                return task.getId();
+            }
+            case "DEL" -> {
+                String[] parts = payload.split(",");
+                int id = Integer.parseInt(parts[1]);
+                switch (TypeTask.valueOf(parts[0])) {
+                    case TASK -> tasks.remove(id);
+                    case EPIC -> {
+                        epics.remove(id);
+                        subtasks.values().removeIf(subTask -> subTask.getEpicId() == id);
+                    }
+                    case SUBTASK -> subtasks.remove(id);
+                }
+                return id;
+            }
+            case "CLEAR" -> {
+                switch (TypeTask.valueOf(payload)) {
+                    case TASK -> tasks.clear();
+                    case EPIC -> {
+                        epics.clear();
+                        subtasks.clear();
+                    }
+                    case SUBTASK -> subtasks.clear();
+                }
+                return 0;
+            }
+            default -> throw new IllegalArgumentException("Неизвестная запись журнала: " + record);
+        }
+    }
+
+    // Связи эпиков, их агрегаты и индексы строятся одним проходом по подзадачам,
+    // статус и время каждого эпика выставляются один раз в конце
+    private void restoreDerivedState() {
+        for (SubTask subTask : subtasks.values()) {
+            subtaskStatuses.put(subTask);
+            subtaskOrder.put(subTask);
+            searchIndex.put(subTask);
+            Epic epic = epics.get(subTask.getEpicId());
+            if (epic != null) {
+                epic.addSubtaskId(subTask.getId());
+                epicAggregates.computeIfAbsent(epic.getId(), id -> new EpicAggregate()).add(subTask);
+            }
+        }
+        for (Task task : tasks.values()) {
+            taskStatuses.put(task);
+            taskOrder.put(task);
+            searchIndex.put(task);
+            addRestoredInterval(task);
+            if (task.getStartTime() != null) {
+                prioritizedTasks.add(task);
+            }
+        }
+        for (SubTask subTask : subtasks.values()) {
+            addRestoredInterval(subTask);
+            if (subTask.getStartTime() != null) {
+                prioritizedTasks.add(subTask);
+            }
+        }
+        for (Epic epic : epics.values()) {
+            EpicAggregate aggregate = epicAggregates.computeIfAbsent(epic.getId(), id -> new EpicAggregate());
+            epic.setStatus(aggregate.getStatus());
+            epicStatuses.put(epic);
+            epicOrder.put(epic);
+            searchIndex.put(epic);
+            aggregate.applyTimeFields(epic);
+            if (epic.getStartTime() != null) {
+                prioritizedTasks.add(epic);
+            }
+        }
+    }
+
+    // Индекс интервалов полагается на то, что сохранённые интервалы не пересекаются. Файл, правленный
+    // вручную или записанный старой версией без проверки, может это нарушить — такой файл отклоняем
+    private void addRestoredInterval(Task task) {
+        Optional<Task> conflict = intervalIndex.findIntersection(task);
+        if (conflict.isPresent()) {
+            throw new ManagerSaveException("Задачи " + conflict.get().getId() + " и " + task.getId()
+                    + " в файле " + file.getPath() + " пересекаются по времени выполнения", null);
+        }
+        intervalIndex.add(task);
+    }
+
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) {
+        List<Integer> ids = new ArrayList<>();
+        for (BatchOperation operation : operations) {
+            if (operation.getTask() != null) {
+                checkFits(operation.getTask().getTitle(), operation.getTask().getDescription());
+            }
+        }
+        mutate(() -> ids.addAll(super.applyBatch(operations)), () -> batchRecord(operations, ids));
+        return ids;
+    }
+
     @Override
     public void addTask(Task task) {
-        super.addTask(task);
-        save();
+        checkFits(task.getTitle(), task.getDescription());
+        mutate(() -> super.addTask(task), () -> putRecord(task));
     }
 
     @Override
     public void addEpic(Epic epic) {
-        super.addEpic(epic);
-        save();
+        checkFits(epic.getTitle(), epic.getDescription());
+        mutate(() -> super.addEpic(epic), () -> putRecord(epic));
     }
 
     @Override
     public void addSubtask(SubTask subtask) {
-        super.addSubtask(subtask);
-        save();
+        checkFits(subtask.getTitle(), subtask.getDescription());
+        mutate(() -> super.addSubtask(subtask), () -> putRecord(subtask));
     }
 
     @Override
     public void updateEpicStatus(Epic epic) {
-        super.updateEpicStatus(epic);
-        save();
+        mutate(() -> super.updateEpicStatus(epic), () -> null); // статус восстанавливается при загрузке
     }
 
     @Override
     public void clearTask() {
-        super.clearTask();
-        save();
+        mutate(super::clearTask, () -> clearRecord(TypeTask.TASK));
     }
 
     @Override
     public void clearSubtask() {
-        super.clearSubtask();
-        save();
+        mutate(super::clearSubtask, () -> clearRecord(TypeTask.SUBTASK));
     }
 
     @Override
     public void deleteEpic() {
-        super.deleteEpic();
-        save();
+        mutate(super::deleteEpic, () -> clearRecord(TypeTask.EPIC));
     }
 
     @Override
@@ -216,20 +695,17 @@ public class FileBackedTaskManager extends InMemoryTaskManager implements TaskMa
 
     @Override
     public void deleteTaskById(int id) {
-        super.deleteTaskById(id);
-        save();
+        mutate(() -> super.deleteTaskById(id), () -> deleteRecord(TypeTask.TASK, id));
     }
 
     @Override
     public void deleteEpicById(int id) {
-        super.deleteEpicById(id);
-        save();
+        mutate(() -> super.deleteEpicById(id), () -> deleteRecord(TypeTask.EPIC, id));
     }
 
     @Override
     public void deleteSubTaskById(int id) {
-        super.deleteSubTaskById(id);
-        save();
+        mutate(() -> super.deleteSubTaskById(id), () -> deleteRecord(TypeTask.SUBTASK, id));
     }
 
     @Override
@@ -239,20 +715,22 @@ public class FileBackedTaskManager extends InMemoryTaskManager implements TaskMa
 
     @Override
     public void updateTask(Task task, Task newTask) {
-        super.updateTask(task, newTask);
-        save();
+        checkFits(newTask.getTitle(), newTask.getDescription());
+        mutate(() -> super.updateTask(task, newTask), () -> putRecord(newTask));
     }
 
     @Override
     public void updateEpic(Epic epic, String newTitle, String newDescription) {
-        super.updateEpic(epic, newTitle, newDescription);
-        save();
+        checkFits(newTitle, newDescription);
+        mutate(() -> super.updateEpic(epic, newTitle, newDescription), () -> putRecord(epic));
     }
 
     @Override
     public void updateSubTask(SubTask subTask, SubTask newSubTask) {
-        super.updateSubTask(subTask, newSubTask);
-        save();
+        if (newSubTask != null) {
+            checkFits(newSubTask.getTitle(), newSubTask.getDescription());
+        }
+        mutate(() -> super.updateSubTask(subTask, newSubTask), () -> putRecord(newSubTask));
     }
 
     public static void main(String[] args) {
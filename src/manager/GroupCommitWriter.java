@@ -0,0 +1,179 @@
+package manager;
+
+import java.time.Duration;
+
+/**
+ * Фоновый поток, который сбрасывает накопленные мутации на диск пачками.
+ * Каждая мутация получает номер через submit(); поток вызывает flushAction, когда
+ * с первой незаписанной мутации прошёл интервал, накопилась пачка или кто-то ждёт в flush().
+ * Один вызов flushAction покрывает все мутации, принятые до его начала.
+ * Ошибка записи не теряется: её получат все, кто ждёт покрытых ею номеров,
+ * а следующий flush() повторит запись. Если поток завершился аварийно (прерывание или Error),
+ * писатель закрывается, а ожидающие и новые вызовы сразу получают исключение.
+ */
+class GroupCommitWriter {
+    private final Runnable flushAction;
+    private final long intervalNanos;
+    private final int batchSize;
+    private final Thread thread;
+
+    private long submitted; // номер последней принятой мутации
+    private long handled; // номер последней мутации, для которой была попытка записи
+    private long durable; // все мутации до этого номера записаны
+    private long firstPendingAt; // System.nanoTime() первой мутации после handled
+    private boolean flushRequested;
+    private boolean closed;
+    private boolean stopped; // поток записи завершился, новых попыток записи не будет
+    private Throwable failure;
+
+    GroupCommitWriter(String name, Runnable flushAction, Duration interval, int batchSize) {
+        this.flushAction = flushAction;
+        this.intervalNanos = interval.toNanos();
+        this.batchSize = batchSize;
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Регистрирует мутацию и возвращает её номер для await
+    synchronized long submit() {
+        if (closed) {
+            throw new IllegalStateException("Запись изменений уже остановлена", failure);
+        }
+        if (submitted == handled) {
+            firstPendingAt = System.nanoTime();
+        }
+        submitted++;
+        // Будим поток на первой мутации пачки, чтобы он начал отсчёт интервала, и на заполненной пачке
+        long pending = submitted - handled;
+        if (pending == 1 || pending >= batchSize) {
+            notifyAll();
+        }
+        return submitted;
+    }
+
+    // Ждёт, пока мутация с данным номером попадёт на диск
+    void await(long ticket) {
+        synchronized (this) {
+            boolean interrupted = false;
+            while (handled < ticket && !stopped) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durable < ticket) {
+                throw new ManagerSaveException(handled < ticket
+                        ? "Поток записи изменений остановлен" : "Изменения не были сохранены", failure);
+            }
+        }
+    }
+
+    // Барьер: возвращается, когда записаны все мутации, принятые до вызова
+    void flush() {
+        long ticket;
+        synchronized (this) {
+            if (durable == submitted) {
+                return;
+            }
+            if (handled == submitted) {
+                // Последняя запись не удалась — заводим повторную попытку
+                submitted++;
+                firstPendingAt = System.nanoTime();
+            }
+            ticket = submitted;
+            flushRequested = true;
+            notifyAll();
+        }
+        await(ticket);
+    }
+
+    // Записывает всё накопленное и останавливает поток
+    void close() {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            writeLoop();
+        } catch (InterruptedException | Error e) {
+            synchronized (this) {
+                failure = e;
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            synchronized (this) {
+                closed = true;
+                stopped = true;
+                notifyAll();
+            }
+        }
+    }
+
+    // Возвращается после close(), когда всё принятое записано; Error из flushAction пробрасывает
+    private void writeLoop() throws InterruptedException {
+        while (true) {
+            long target;
+            synchronized (this) {
+                while (!isFlushDue()) {
+                    if (closed && submitted == handled) {
+                        return;
+                    }
+                    if (submitted == handled) {
+                        wait();
+                    } else {
+                        long remaining = intervalNanos - (System.nanoTime() - firstPendingAt);
+                        wait(Math.max(1, remaining / 1_000_000), (int) (Math.max(0, remaining) % 1_000_000));
+                    }
+                }
+                target = submitted;
+                flushRequested = false;
+            }
+
+            RuntimeException error = null;
+            try {
+                flushAction.run();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+
+            synchronized (this) {
+                handled = target;
+                if (error == null) {
+                    durable = target;
+                    failure = null;
+                } else {
+                    failure = error;
+                }
+                if (submitted > handled) {
+                    firstPendingAt = System.nanoTime();
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private boolean isFlushDue() {
+        long pending = submitted - handled;
+        return pending > 0 && (flushRequested || closed || pending >= batchSize
+                || System.nanoTime() - firstPendingAt >= intervalNanos);
+    }
+}
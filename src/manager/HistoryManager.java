@@ -11,4 +11,22 @@ public interface HistoryManager {
     void remove(int id);
 
     List<Task> getHistory();
+
+    // Число задач в истории; реализациям стоит отвечать за O(1), без копирования списка
+    default int size() {
+        return getHistory().size();
+    }
+
+    // Страница истории: limit просмотров, начиная с offset-го от самого давнего
+    default List<Task> getHistory(int offset, int limit) {
+        List<Task> history = getHistory();
+        int from = Math.min(offset, history.size());
+        return List.copyOf(history.subList(from, Math.min(history.size(), from + limit)));
+    }
+
+    // Последние count просмотров в хронологическом порядке
+    default List<Task> getRecentHistory(int count) {
+        List<Task> history = getHistory();
+        return List.copyOf(history.subList(Math.max(0, history.size() - count), history.size()));
+    }
 }
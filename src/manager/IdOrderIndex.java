@@ -0,0 +1,60 @@
+package manager;
+
+import data.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Задачи одного типа по возрастанию ID для постраничной выдачи с курсором: страница «после ID»
+ * находится за O(log n) и копирует только свои элементы, поэтому время и память на запрос
+ * не зависят от размера доски. ID не меняются и не переиспользуются, так что курсор остаётся
+ * верным при вставках и удалениях между запросами. Потокобезопасный вариант
+ * (для ConcurrentTaskManager) построен на ConcurrentSkipListMap: обход страницы не блокирует
+ * запись и не бросает ConcurrentModificationException.
+ */
+class IdOrderIndex<T extends Task> {
+    private final NavigableMap<Integer, T> byId;
+
+    IdOrderIndex() {
+        this(false);
+    }
+
+    IdOrderIndex(boolean concurrent) {
+        this.byId = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    void put(T task) {
+        byId.put(task.getId(), task);
+    }
+
+    void remove(int id) {
+        byId.remove(id);
+    }
+
+    void clear() {
+        byId.clear();
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    // До limit задач с ID больше afterId по возрастанию ID
+    List<T> page(int afterId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit не может быть отрицательным: " + limit);
+        }
+        List<T> page = new ArrayList<>(Math.min(limit, 1024));
+        for (T task : byId.tailMap(afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(task);
+        }
+        return page;
+    }
+}
@@ -1,84 +1,172 @@
 package manager;
 
 import data.Task;
+import util.IntIntHashMap;
 
 import java.util.*;
 
+/**
+ * История просмотров с ограниченной ёмкостью и вытеснением самых давних просмотров (LRU).
+ * Двусвязный список хранится в массивах: tasks[slot], next[slot], prev[slot], а ID задачи
+ * отображается в номер ячейки через IntIntHashMap. Добавление, удаление и вытеснение — O(1),
+ * объём памяти ограничен ёмкостью и не растёт со временем.
+ */
 public class InMemoryHistoryManager implements HistoryManager {
+    public static final int DEFAULT_CAPACITY = 10_000;
+    private static final int NIL = -1;
+    private static final int INITIAL_SLOTS = 16;
+
+    private final int capacity;
+    private final IntIntHashMap slotById;
+    private Task[] tasks;
+    private int[] next;
+    private int[] prev;
+    private int first = NIL; // самый давний просмотр
+    private int last = NIL; // самый свежий просмотр
+    private int freeSlot = NIL; // голова списка свободных ячеек, связанных через next
+    private int usedSlots; // ячейки, выданные хотя бы раз
+    private int size;
+
+    public InMemoryHistoryManager() {
+        this(DEFAULT_CAPACITY);
+    }
 
-    private final Map<Integer, Node> nodeMap = new HashMap<>();
-    private Node first; // первый элемент списка
-    private Node last; // последний элемент списка
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть положительной: " + capacity);
+        }
+        this.capacity = capacity;
+        int slots = Math.min(capacity, INITIAL_SLOTS);
+        this.tasks = new Task[slots];
+        this.next = new int[slots];
+        this.prev = new int[slots];
+        this.slotById = new IntIntHashMap(slots);
+    }
 
-    protected static class Node {
-        private final Task task;
-        private Node next;
-        private Node prev;
+    public int getCapacity() {
+        return capacity;
+    }
 
-        public Node(Task task) {
-            this.task = task;
-        }
+    @Override
+    public int size() {
+        return size;
     }
 
     private void linkLast(Task task) {
-        Node newNode = new Node(task);
-        if (last == null) {
-            first = newNode;
-            last = newNode;
+        int slot = allocateSlot();
+        tasks[slot] = task;
+        prev[slot] = last;
+        next[slot] = NIL;
+        if (last == NIL) {
+            first = slot;
         } else {
-            last.next = newNode;
-            newNode.prev = last;
-            last = newNode;
+            next[last] = slot;
         }
-        nodeMap.put(task.getId(), newNode);
+        last = slot;
+        slotById.put(task.getId(), slot);
+        size++;
     }
 
-    private void removeNode(Node node) {
-        if (node == null) return;
-
-        if (node.prev != null) {
-            node.prev.next = node.next;
+    private void removeSlot(int slot) {
+        if (prev[slot] != NIL) {
+            next[prev[slot]] = next[slot];
         } else {
-            first = node.next;
+            first = next[slot];
         }
 
-        if (node.next != null) {
-            node.next.prev = node.prev;
+        if (next[slot] != NIL) {
+            prev[next[slot]] = prev[slot];
         } else {
-            last = node.prev;
+            last = prev[slot];
+        }
+        slotById.remove(tasks[slot].getId());
+        tasks[slot] = null; // не удерживаем задачу от сборки мусора
+        next[slot] = freeSlot;
+        freeSlot = slot;
+        size--;
+    }
+
+    private int allocateSlot() {
+        if (freeSlot != NIL) {
+            int slot = freeSlot;
+            freeSlot = next[slot];
+            return slot;
+        }
+        if (usedSlots == tasks.length) {
+            // Массивы растут удвоением, но не больше ёмкости истории
+            int length = (int) Math.min(capacity, tasks.length * 2L);
+            tasks = Arrays.copyOf(tasks, length);
+            next = Arrays.copyOf(next, length);
+            prev = Arrays.copyOf(prev, length);
         }
-        nodeMap.remove(node.task.getId()); // удалили узел из HashMap
+        return usedSlots++;
     }
 
     @Override
     public void add(Task task) {
-        if (nodeMap.containsKey(task.getId())) {
-            removeNode(nodeMap.get(task.getId())); // тут удаляем уже существующую задачу
+        int slot = slotById.get(task.getId());
+        if (slot != IntIntHashMap.NO_VALUE) {
+            removeSlot(slot); // тут удаляем уже существующую задачу
+        } else if (size == capacity) {
+            removeSlot(first); // вытесняем самый давний просмотр
         }
         linkLast(task); // добавляем в конец
     }
 
     @Override
     public void remove(int id) {
-        Node node = nodeMap.get(id); // Находим узел по id
-        if (node != null) {
-            removeNode(node); // Удаляем узел из списка и HashMap
+        int slot = slotById.get(id); // Находим ячейку по id
+        if (slot != IntIntHashMap.NO_VALUE) {
+            removeSlot(slot);
         }
     }
 
     // Возвращаем список задач
     @Override
     public List<Task> getHistory() {
-        List<Task> result = new ArrayList<>();
-        Node node = first;
-        while (Objects.nonNull(node)) {
-            result.add(node.task);
-            node = node.next;
-        }
+        return getHistory(0, size);
+    }
 
+    // Страница истории от самых давних просмотров к свежим
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset и limit не могут быть отрицательными");
+        }
+        int count = Math.min(limit, Math.max(0, size - offset));
+        List<Task> result = new ArrayList<>(count);
+        // Идём с той стороны списка, к которой страница ближе
+        if (offset <= size - offset - count) {
+            int slot = first;
+            for (int i = 0; i < offset; i++) {
+                slot = next[slot];
+            }
+            for (int i = 0; i < count; i++) {
+                result.add(tasks[slot]);
+                slot = next[slot];
+            }
+        } else {
+            int slot = last;
+            for (int i = 0; i < size - offset - count; i++) {
+                slot = prev[slot];
+            }
+            Task[] page = new Task[count];
+            for (int i = count - 1; i >= 0; i--) {
+                page[i] = tasks[slot];
+                slot = prev[slot];
+            }
+            result.addAll(Arrays.asList(page));
+        }
         return result;
     }
-}
-
-
 
+    // Последние count просмотров в хронологическом порядке
+    @Override
+    public List<Task> getRecentHistory(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count не может быть отрицательным");
+        }
+        int n = Math.min(count, size);
+        return getHistory(size - n, n);
+    }
+}
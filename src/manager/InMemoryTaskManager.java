@@ -1,25 +1,59 @@
 package manager;
 
 import data.*;
+import logging.Logger;
+import util.IntObjectHashMap;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
 public class InMemoryTaskManager implements TaskManager {
-    // Хранение задач различных типов
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, SubTask> subtasks = new HashMap<>();
+    private static final Logger LOG = Logger.getLogger(InMemoryTaskManager.class);
+
+    // Хранение задач различных типов: ключи — примитивные int, наружу отдаются как Map<Integer, ...>
+    protected final IntObjectHashMap<Task> tasks = new IntObjectHashMap<>();
+    protected final IntObjectHashMap<Epic> epics = new IntObjectHashMap<>();
+    protected final IntObjectHashMap<SubTask> subtasks = new IntObjectHashMap<>();
     protected static int counterId = 1;
 
+    // Порядок getPrioritizedTasks: по началу, при равенстве — по ID; задачи без начала в конце
+    static final Comparator<Task> PRIORITY_ORDER = Comparator.comparing(Task::getStartTime,
+            Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Task::getId);
+
     private final HistoryManager historyManager;
 
-    protected final TreeSet<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime,
-            Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Task::getId));
+    protected final TreeSet<Task> prioritizedTasks = new TreeSet<>(PRIORITY_ORDER);
+
+    // Общий индекс интервалов задач и подзадач для проверки пересечений
+    protected final TimeIntervalIndex intervalIndex = new TimeIntervalIndex();
+
+    // Накопительные показатели подзадач по id эпика: статус и время эпика обновляются за O(log m)
+    protected final IntObjectHashMap<EpicAggregate> epicAggregates = new IntObjectHashMap<>();
+
+    // Вторичные индексы статус → задачи; подзадачи эпика по времени начала ведёт EpicAggregate
+    protected final StatusIndex<Task> taskStatuses = new StatusIndex<>();
+    protected final StatusIndex<Epic> epicStatuses = new StatusIndex<>();
+    protected final StatusIndex<SubTask> subtaskStatuses = new StatusIndex<>();
+
+    // Порядок по ID для постраничной выдачи с курсором
+    protected final IdOrderIndex<Task> taskOrder = new IdOrderIndex<>();
+    protected final IdOrderIndex<Epic> epicOrder = new IdOrderIndex<>();
+    protected final IdOrderIndex<SubTask> subtaskOrder = new IdOrderIndex<>();
+
+    // Полнотекстовый индекс по названиям и описаниям, обновляется вместе с хранилищем
+    protected final SearchIndex searchIndex = new SearchIndex();
+
+    // Изменения задач для подписчиков; восстановление из файла событий не порождает
+    protected final TaskEventBus eventBus = new TaskEventBus();
 
     public InMemoryTaskManager() {
-        this.historyManager = Managers.getDefaultHistory();
+        this(Managers.getDefaultHistory());
+    }
+
+    // История подставляется снаружи, например обёрнутая в декоратор с метриками
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
     }
 
     private int generateId() {
@@ -32,13 +66,25 @@ public class InMemoryTaskManager implements TaskManager {
         }
     }
 
+    @Override
+    public Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime from, LocalDateTime to) {
+        return intervalIndex.findFreeSlot(from, to, duration);
+    }
+
+    @Override
+    public ScheduleResult schedule(List<Integer> ids, LocalDateTime from, LocalDateTime to, SchedulePolicy policy) {
+        TaskScheduler.Plan plan = TaskScheduler.plan(this, intervalIndex, ids, from, to, policy);
+        applyBatch(plan.operations());
+        return plan.result();
+    }
+
+    @Override
+    public TaskEventBus getEventBus() {
+        return eventBus;
+    }
+
     public boolean intersects(Task task1, Task task2) {
-        if (task1.getStartTime() == null || task1.getEndTime() == null ||
-                task2.getStartTime() == null || task2.getEndTime() == null) {
-            return false;
-        }
-        return task1.getEndTime().isAfter(task2.getStartTime()) &&
-                task1.getStartTime().isBefore(task2.getEndTime());
+        return TimeIntervalIndex.intersects(task1, task2);
     }
 
     // Проверяем, что task является экземпляром класса Task
@@ -49,11 +95,19 @@ public class InMemoryTaskManager implements TaskManager {
         }
         int id = generateId();
         task.setId(id);
-        if (task.getStartTime() != null && tasks.values().stream()
-                .anyMatch(existingTask -> intersects(task, existingTask))) {
+        if (intervalIndex.findIntersection(task).isPresent()) {
             throw new IllegalArgumentException("Задача пересекается с другой по времени выполнения");
         }
-        tasks.put(id, task);
+        putTask(task);
+        eventBus.publish(TaskEvent.Kind.CREATED, task);
+    }
+
+    private void putTask(Task task) {
+        tasks.put(task.getId(), task);
+        taskStatuses.put(task);
+        taskOrder.put(task);
+        searchIndex.put(task);
+        intervalIndex.add(task);
         if (task.getStartTime() != null) {
             prioritizedTasks.add(task);
         }
@@ -64,9 +118,18 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic.getType() != TypeTask.EPIC) {
             return;
         }
+        putEpic(epic);
+    }
+
+    private void putEpic(Epic epic) {
         int id = generateId();
         epic.setId(id);
         epics.put(id, epic);
+        epicStatuses.put(epic);
+        epicOrder.put(epic);
+        searchIndex.put(epic);
+        epicAggregates.put(id, new EpicAggregate());
+        eventBus.publish(TaskEvent.Kind.CREATED, epic);
     }
 
     @Override
@@ -80,111 +143,76 @@ public class InMemoryTaskManager implements TaskManager {
         int id = generateId();
         subtask.setId(id);
         if (subtask.getStartTime() != null) {
-            // Используем prioritizedTasks для проверки пересечений
-            boolean hasIntersection = prioritizedTasks.stream()
-                    .filter(t -> t.getId() != subtask.getId()) // Исключаем саму подзадачу
-                    .anyMatch(t -> t.getStartTime() != null && intersects(subtask, t));
-            if (hasIntersection) {
-                System.out.println("Конфликт с задачей: " + prioritizedTasks.stream()
-                        .filter(t -> t.getStartTime() != null && intersects(subtask, t))
-                        .findFirst().orElse(null));
+            // Используем индекс интервалов для проверки пересечений
+            Optional<Task> conflict = intervalIndex.findIntersection(subtask);
+            if (conflict.isPresent()) {
+                LOG.debug("Конфликт с задачей: {}", conflict.get());
                 throw new IllegalArgumentException("Подзадача пересекается с другой задачей по времени выполнения");
             }
+        }
+        Epic epic = putSubtask(subtask);
+        recalculateEpic(epic);
+    }
+
+    // Сохраняет подзадачу с уже назначенным ID и учитывает её в агрегате эпика; эпик не пересчитывается
+    private Epic putSubtask(SubTask subtask) {
+        if (subtask.getStartTime() != null) {
             prioritizedTasks.add(subtask); // Добавляем подзадачу в приоритетный список
         }
-        subtasks.put(id, subtask);
+        subtasks.put(subtask.getId(), subtask);
+        subtaskStatuses.put(subtask);
+        subtaskOrder.put(subtask);
+        searchIndex.put(subtask);
+        intervalIndex.add(subtask);
 
         Epic epic = epics.get(subtask.getEpicId());
-        if (epic != null) {
-            epic.addSubtaskId(id);
-            updateEpicStatus(epic);
-            updateEpicTimeFields(epic);
-            if (epic.getStartTime() != null && !prioritizedTasks.contains(epic)) {
-                prioritizedTasks.remove(epic); // Удаляем старый эпик
-                updateEpicTimeFields(epic);    // Обновляем время эпика
-                prioritizedTasks.add(epic);    // Добавляем обновленный эпик
+        EpicAggregate aggregate = aggregateFor(epic);
+        epic.addSubtaskId(subtask.getId());
+        aggregate.add(subtask);
+        eventBus.publish(TaskEvent.Kind.CREATED, subtask);
+        return epic;
+    }
+
+    // Агрегат эпика. Если его ещё нет (эпик восстановлен из файла), он один раз строится по списку подзадач
+    protected EpicAggregate aggregateFor(Epic epic) {
+        return epicAggregates.computeIfAbsent(epic.getId(), id -> {
+            EpicAggregate aggregate = new EpicAggregate();
+            for (int subTaskId : epic.getSubTaskIds()) {
+                aggregate.add(subtasks.get(subTaskId));
             }
-        }
+            return aggregate;
+        });
+    }
+
+    // Пересчитывает статус и время эпика и сообщает об этом подписчикам
+    private void recalculateEpic(Epic epic) {
+        updateEpicStatus(epic);
+        updateEpicTimeFields(epic);
+        eventBus.publish(TaskEvent.Kind.EPIC_RECALCULATED, epic);
     }
 
     protected void updateEpicTimeFields(Epic epic) {
         Epic storedEpic = epics.get(epic.getId());
-
-        List<SubTask> testSubTasks = storedEpic.getSubTaskIds().stream()
-                .map(subtasks::get)
-                .filter(Objects::nonNull)
-                .filter(t -> t.getStartTime() != null)
-                .toList();
+        EpicAggregate aggregate = aggregateFor(storedEpic);
 
         prioritizedTasks.remove(storedEpic);
-
-        if (testSubTasks.isEmpty()) {
-            storedEpic.setStartTime(null);
-            storedEpic.setEndTime(null);
-            storedEpic.setDuration(null);
-            return;
-        }
-
-        // Инициализируем переменные
-        LocalDateTime start = null;
-        LocalDateTime end = null;
-        Duration totalDuration = Duration.ZERO;
-
-        // Один проход по списку подзадач
-        for (SubTask subTask : testSubTasks) {
-            LocalDateTime subStart = subTask.getStartTime();
-            LocalDateTime subEnd = subTask.getEndTime();
-            Duration subDuration = subTask.getDuration();
-
-            // Находим минимальное startTime
-            if (start == null || (subStart != null && subStart.isBefore(start))) {
-                start = subStart;
-            }
-
-            // Находим максимальное endTime
-            if (end == null || (subEnd != null && subEnd.isAfter(end))) {
-                end = subEnd;
-            }
-
-            // Суммируем duration
-            if (subDuration != null) {
-                totalDuration = totalDuration.plus(subDuration);
-            }
-        }
-
-        System.out.println("Обновление эпика " + storedEpic.getTitle() + ": startTime=" + start + ", endTime=" + end + ", duration=" + totalDuration);
-        storedEpic.setStartTime(start);
-        storedEpic.setEndTime(end);
-        storedEpic.setDuration(totalDuration);
+        aggregate.applyTimeFields(storedEpic);
 
         // Синхронизируем prioritizedTasks
         if (storedEpic.getStartTime() != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Обновление эпика {}: startTime={}, endTime={}, duration={}", storedEpic.getTitle(),
+                        storedEpic.getStartTime(), storedEpic.getEndTime(), storedEpic.getDuration());
+            }
             prioritizedTasks.add(storedEpic);
         }
     }
 
     @Override
     public void updateEpicStatus(Epic epic) {
-        List<Integer> subTaskIds = epic.getSubTaskIds();
-
-        if (subTaskIds.isEmpty()) {
-            epic.setStatus(TaskStatus.NEW);
-            return;
-        }
-
-        boolean allNew = subTaskIds.stream()
-                .map(subtasks::get)
-                .allMatch(s -> s != null && s.getStatus() == TaskStatus.NEW);
-        boolean allDone = subTaskIds.stream()
-                .map(subtasks::get)
-                .allMatch(s -> s != null && s.getStatus() == TaskStatus.DONE);
-
-        if (allNew) {
-            epic.setStatus(TaskStatus.NEW);
-        } else if (allDone) {
-            epic.setStatus(TaskStatus.DONE);
-        } else {
-            epic.setStatus(TaskStatus.IN_PROGRESS);
+        epic.setStatus(aggregateFor(epic).getStatus());
+        if (epics.get(epic.getId()) == epic) {
+            epicStatuses.put(epic);
         }
     }
 
@@ -193,6 +221,47 @@ public class InMemoryTaskManager implements TaskManager {
         return new ArrayList<>(prioritizedTasks);
     }
 
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return window(prioritizedTasks, from, to, limit);
+    }
+
+    @Override
+    public int prioritizedSize() {
+        return prioritizedTasks.size();
+    }
+
+    // Срез упорядоченного по началу множества через tailSet/headSet: копируются только задачи,
+    // попавшие в [from, to), и не больше limit штук
+    static List<Task> window(NavigableSet<Task> ordered, LocalDateTime from, LocalDateTime to, int limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Начало окна позже его конца: " + from + " > " + to);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit не может быть отрицательным: " + limit);
+        }
+        NavigableSet<Task> view = ordered;
+        if (from != null) {
+            view = view.tailSet(windowBound(from), true);
+        }
+        if (to != null) {
+            view = view.headSet(windowBound(to), false);
+        }
+        List<Task> result = new ArrayList<>(Math.min(limit, 64));
+        for (Task task : view) {
+            if (result.size() == limit || task.getStartTime() == null) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    // Граница окна: задача с минимальным ID сортируется раньше всех задач с тем же началом
+    static Task windowBound(LocalDateTime startTime) {
+        return new Task(null, null, null, Integer.MIN_VALUE, null, startTime);
+    }
+
     @Override
     public Map<Integer, Task> getTasks() {
         return tasks;
@@ -211,7 +280,12 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void clearTask() {
         tasks.clear();
+        taskStatuses.clear();
+        taskOrder.clear();
+        searchIndex.removeIf(t -> t.getType() == TypeTask.TASK);
         prioritizedTasks.removeIf(t -> t.getType() == TypeTask.TASK);
+        intervalIndex.removeIf(t -> t.getType() == TypeTask.TASK);
+        eventBus.publish(TaskEvent.Kind.CLEARED, TypeTask.TASK, 0, null);
 
     }
 
@@ -219,23 +293,39 @@ public class InMemoryTaskManager implements TaskManager {
     public void clearSubtask() {
         for (Epic epic : epics.values()) {
             epic.clearSubTasks();
-            updateEpicStatus(epic);
-            updateEpicTimeFields(epic);
+            epicAggregates.put(epic.getId(), new EpicAggregate());
+            recalculateEpic(epic);
         }
         subtasks.clear();
+        subtaskStatuses.clear();
+        subtaskOrder.clear();
+        searchIndex.removeIf(t -> t.getType() == TypeTask.SUBTASK);
         prioritizedTasks.removeIf(t -> t.getType() == TypeTask.SUBTASK);
+        intervalIndex.removeIf(t -> t.getType() == TypeTask.SUBTASK);
+        eventBus.publish(TaskEvent.Kind.CLEARED, TypeTask.SUBTASK, 0, null);
     }
 
     @Override
     public void deleteEpic() { //удаляем все эпики и их подзадачи
         for (Epic epic : epics.values()) {
             for (int subTaskId : epic.getSubTaskIds()) {
-                subtasks.remove(subTaskId);
-                prioritizedTasks.removeIf(t -> t.getId() == subTaskId);
+                SubTask subTask = subtasks.remove(subTaskId);
+                if (subTask != null) {
+                    intervalIndex.remove(subTask);
+                    prioritizedTasks.remove(subTask);
+                }
                 historyManager.remove(subTaskId);
             }
+            prioritizedTasks.remove(epic);
         }
         epics.clear();
+        subtaskStatuses.clear();
+        subtaskOrder.clear();
+        epicStatuses.clear();
+        epicOrder.clear();
+        searchIndex.removeIf(t -> t.getType() != TypeTask.TASK);
+        epicAggregates.clear();
+        eventBus.publish(TaskEvent.Kind.CLEARED, TypeTask.EPIC, 0, null);
     }
 
     @Override
@@ -270,81 +360,173 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
+    @Override
+    public int historySize() {
+        return historyManager.size();
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return historyManager.getHistory(offset, limit);
+    }
+
+    @Override
+    public List<Task> getRecentHistory(int count) {
+        return historyManager.getRecentHistory(count);
+    }
+
     @Override
     public void deleteTaskById(int id) {
+        removeTask(id);
+    }
+
+    private void removeTask(int id) {
         Task task = tasks.remove(id);
         if (task != null) {
+            taskStatuses.remove(id);
+            taskOrder.remove(id);
+            searchIndex.remove(id);
             prioritizedTasks.remove(task);
+            intervalIndex.remove(task);
             historyManager.remove(id);
+            eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.TASK, id, null);
         }
     }
 
     @Override
     public void deleteEpicById(int id) {
+        removeEpic(id);
+    }
+
+    private void removeEpic(int id) {
         Epic epic = epics.get(id);
         if (epic != null) {
             for (int subTaskId : epic.getSubTaskIds()) {
                 SubTask subTask = subtasks.get(subTaskId);
                 subtasks.remove(subTaskId);
+                subtaskStatuses.remove(subTaskId);
+                subtaskOrder.remove(subTaskId);
+                searchIndex.remove(subTaskId);
                 if (subTask != null) {
                     prioritizedTasks.remove(subTask); // Удаляем подзадачу из prioritizedTasks
+                    intervalIndex.remove(subTask);
+                    eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.SUBTASK, subTaskId, null);
                 }
                 historyManager.remove(subTaskId);
             }
             prioritizedTasks.remove(epic);
             epics.remove(id);
+            epicStatuses.remove(id);
+            epicOrder.remove(id);
+            searchIndex.remove(id);
+            epicAggregates.remove(id);
             historyManager.remove(id);
+            eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.EPIC, id, null);
         }
     }
 
     @Override
     public void deleteSubTaskById(int id) {
+        Epic epic = removeSubtask(id);
+        if (epic != null) {
+            recalculateEpic(epic);
+        }
+    }
+
+    // Удаляет подзадачу и возвращает её эпик, который нужно пересчитать (или null)
+    private Epic removeSubtask(int id) {
         SubTask subtask = subtasks.get(id);
-        if (subtask != null) {
-            Epic epic = epics.get(subtask.getEpicId());
-            if (epic != null) {
-                epic.removeSubTaskId(id);
-                updateEpicStatus(epic);
-                updateEpicTimeFields(epic);
-            }
-            subtasks.remove(id);
-            prioritizedTasks.remove(subtask);
-            historyManager.remove(id);
+        if (subtask == null) {
+            return null;
         }
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic != null) {
+            EpicAggregate aggregate = aggregateFor(epic);
+            epic.removeSubTaskId(id);
+            aggregate.remove(subtask);
+        }
+        subtasks.remove(id);
+        subtaskStatuses.remove(id);
+        subtaskOrder.remove(id);
+        searchIndex.remove(id);
+        prioritizedTasks.remove(subtask);
+        intervalIndex.remove(subtask);
+        historyManager.remove(id);
+        eventBus.publish(TaskEvent.Kind.DELETED, TypeTask.SUBTASK, id, null);
+        return epic;
     }
 
+    // Подзадачи эпика по времени начала, без времени — в конце
     @Override
     public List<SubTask> getSubtaskByEpic(Epic epic) {
-        return Optional.ofNullable(epic)
-                .map(Epic::getSubTaskIds)
-                .orElseGet(List::of)
-                .stream()
-                .map(subtasks::get)
-                .filter(Objects::nonNull)
-                .toList();
+        Epic stored = epic != null ? epics.get(epic.getId()) : null;
+        if (stored == null) {
+            return List.of();
+        }
+        return new ArrayList<>(aggregateFor(stored).getSubtasksByStart());
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return taskStatuses.get(status);
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return epicStatuses.get(status);
+    }
+
+    @Override
+    public List<SubTask> getSubtasksByStatus(TaskStatus status) {
+        return subtaskStatuses.get(status);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return taskOrder.page(afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        return epicOrder.page(afterId, limit);
+    }
+
+    @Override
+    public List<SubTask> getSubtasksPage(int afterId, int limit) {
+        return subtaskOrder.page(afterId, limit);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return searchIndex.search(query, limit);
     }
 
     @Override
     public void updateTask(Task task, Task newTask) { // обновление задачи
         newTask.setId(task.getId());
-        if (newTask.getStartTime() != null && tasks.values().stream()
-                .filter(t -> t.getId() != task.getId())
-                .anyMatch(t -> intersects(newTask, t))) {
+        if (intervalIndex.findIntersection(newTask).isPresent()) {
             throw new IllegalArgumentException("Обновлённая задача пересекается с другой по времени выполнения");
         }
         prioritizedTasks.remove(task);
-        tasks.put(task.getId(), newTask);
-        if (newTask.getStartTime() != null) {
-            prioritizedTasks.add(newTask);
-        }
+        replaceTask(newTask);
+    }
+
+    private void replaceTask(Task newTask) {
+        Task previous = tasks.get(newTask.getId());
+        prioritizedTasks.remove(previous);
+        intervalIndex.remove(previous);
+        putTask(newTask);
+        eventBus.publish(TaskEvent.Kind.UPDATED, newTask);
     }
 
     @Override
     public void updateEpic(Epic epic, String newTitle, String newDescription) {
         epic.setTitle(newTitle);
         epic.setDescription(newDescription);
+        searchIndex.put(epic);
         updateEpicStatus(epic);
         updateEpicTimeFields(epic);
+        eventBus.publish(TaskEvent.Kind.UPDATED, epic);
     }
 
     @Override
@@ -353,28 +535,129 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("SubTask или newSubTask не может быть null");
         }
         newSubTask.setId(subTask.getId());
-        if (newSubTask.getStartTime() != null) {
-            boolean hasIntersection = tasks.values().stream()
-                    .anyMatch(t -> intersects(newSubTask, t)) ||
-                    subtasks.values().stream()
-                            .filter(s -> s.getId() != newSubTask.getId())
-                            .anyMatch(s -> intersects(newSubTask, s));
-            if (hasIntersection) {
-                throw new IllegalArgumentException("Обновлённая подзадача пересекается с другой по времени выполнения");
-            }
+        if (intervalIndex.findIntersection(newSubTask).isPresent()) {
+            throw new IllegalArgumentException("Обновлённая подзадача пересекается с другой по времени выполнения");
         }
         if (subTask.getStartTime() != null) {
             prioritizedTasks.remove(subTask);
         }
-        subtasks.put(subTask.getId(), newSubTask);
+        for (Epic epic : replaceSubtask(newSubTask)) {
+            recalculateEpic(epic);
+        }
+    }
+
+    // Заменяет подзадачу новой версией с тем же ID, перенося её между эпиками при необходимости.
+    // Возвращает эпики, которые нужно пересчитать
+    private List<Epic> replaceSubtask(SubTask newSubTask) {
+        int id = newSubTask.getId();
+        SubTask previous = subtasks.get(id);
+        Epic previousEpic = previous != null ? epics.get(previous.getEpicId()) : null;
         Epic epic = epics.get(newSubTask.getEpicId());
+        // Агрегаты берём до замены, чтобы при ленивом построении они учли прежнюю версию подзадачи
+        EpicAggregate previousAggregate = previousEpic != null ? aggregateFor(previousEpic) : null;
+        EpicAggregate aggregate = epic != null ? aggregateFor(epic) : null;
+
+        if (previous != null) {
+            prioritizedTasks.remove(previous);
+        }
+        intervalIndex.remove(previous);
+        subtasks.put(id, newSubTask);
+        subtaskStatuses.put(newSubTask);
+        subtaskOrder.put(newSubTask);
+        searchIndex.put(newSubTask);
+        intervalIndex.add(newSubTask);
+        if (previousAggregate != null) {
+            previousAggregate.remove(previous);
+        }
+        if (aggregate != null) {
+            aggregate.add(newSubTask);
+        }
+
+        List<Epic> affected = new ArrayList<>(2);
+        // Подзадача перенесена в другой эпик
+        if (previousEpic != null && previousEpic != epic) {
+            previousEpic.removeSubTaskId(id);
+            affected.add(previousEpic);
+        }
         if (epic != null) {
-            updateEpicStatus(epic);
-            updateEpicTimeFields(epic);
+            if (epic != previousEpic) {
+                epic.addSubtaskId(id);
+            }
+            affected.add(epic);
         }
         if (newSubTask.getStartTime() != null) {
             prioritizedTasks.add(newSubTask);
         }
+        eventBus.publish(TaskEvent.Kind.UPDATED, newSubTask);
+        return affected;
+    }
+
+    // Пакет проверяется целиком до первого изменения, поэтому операции применяются без повторных
+    // проверок пересечений, а каждый затронутый эпик пересчитывается один раз в конце
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) {
+        BatchValidator.validate(this, intervalIndex, operations);
+        List<Integer> ids = new ArrayList<>(operations.size());
+        Set<Epic> affected = new LinkedHashSet<>();
+        for (BatchOperation operation : operations) {
+            Task task = operation.getTask();
+            int id = operation.getId();
+            switch (operation.getAction()) {
+                case CREATE -> {
+                    if (task instanceof Epic epic) {
+                        putEpic(epic);
+                    } else {
+                        if (task instanceof SubTask subTask && operation.getEpicRef() != BatchOperation.NO_REF) {
+                            subTask.setEpicId(ids.get(operation.getEpicRef()));
+                        }
+                        task.setId(generateId());
+                        if (task instanceof SubTask subTask) {
+                            affected.add(putSubtask(subTask));
+                        } else {
+                            putTask(task);
+                            eventBus.publish(TaskEvent.Kind.CREATED, task);
+                        }
+                    }
+                    id = task.getId();
+                }
+                case UPDATE -> {
+                    if (operation.getType() != TypeTask.EPIC) {
+                        task.setId(id);
+                    }
+                    switch (operation.getType()) {
+                        case TASK -> replaceTask(task);
+                        case EPIC -> {
+                            Epic epic = epics.get(id);
+                            epic.setTitle(task.getTitle());
+                            epic.setDescription(task.getDescription());
+                            searchIndex.put(epic);
+                            eventBus.publish(TaskEvent.Kind.UPDATED, epic);
+                            affected.add(epic);
+                        }
+                        case SUBTASK -> affected.addAll(replaceSubtask((SubTask) task));
+                    }
+                }
+                case DELETE -> {
+                    switch (operation.getType()) {
+                        case TASK -> removeTask(id);
+                        case EPIC -> removeEpic(id);
+                        case SUBTASK -> {
+                            Epic epic = removeSubtask(id);
+                            if (epic != null) {
+                                affected.add(epic);
+                            }
+                        }
+                    }
+                }
+            }
+            ids.add(id);
+        }
+        for (Epic epic : affected) {
+            if (epics.get(epic.getId()) == epic) {
+                recalculateEpic(epic);
+            }
+        }
+        return ids;
     }
 
     @Override
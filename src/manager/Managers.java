@@ -6,7 +6,13 @@ public final class Managers {
         return new InMemoryTaskManager();
     }
 
+    public static ConcurrentTaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    // Ёмкость истории можно задать системным свойством kanban.historyCapacity
     public static InMemoryHistoryManager getDefaultHistory() {
-        return new InMemoryHistoryManager();
+        return new InMemoryHistoryManager(Integer.getInteger("kanban.historyCapacity",
+                InMemoryHistoryManager.DEFAULT_CAPACITY));
     }
 }
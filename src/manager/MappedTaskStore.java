@@ -0,0 +1,354 @@
+package manager;
+
+import data.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Хранилище задач в отображённом в память файле с записями фиксированного размера.
+ * Запись задачи лежит по адресу HEADER_SIZE + id * recordSize, поэтому индекс не нужен:
+ * открытие читает только заголовок, задача собирается из байтов записи при обращении к get(id),
+ * а изменение переписывает одну запись на месте — сброс страниц на диск делает ОС или force().
+ * Файл отображается сегментами по SEGMENT_RECORDS записей, сегмент отображается при первом обращении.
+ *
+ * Заголовок: сигнатура KNMS, версия, размер записи, наибольший записанный ID.
+ * Запись: тип (0 — пусто, 1 — TASK, 2 — EPIC, 3 — SUBTASK), статус, длины названия и описания в байтах
+ * (-1 — null), ID эпика, CRC32C записи, длительность в минутах и начало в секундах от эпохи UTC
+ * (Long.MIN_VALUE — нет), затем UTF-8 названия и описания. Текст длиннее recordSize - RECORD_TEXT_OFFSET
+ * байт не помещается в запись и отклоняется: при записи по умолчанию это 480 байт UTF-8, то есть около
+ * 240 символов кириллицы на название и описание вместе. Проверить задачу заранее можно через checkFits.
+ * Длины текста хранятся в short, поэтому запись не может быть больше MAX_RECORD_SIZE.
+ */
+public class MappedTaskStore implements Closeable {
+    public static final int DEFAULT_RECORD_SIZE = 512;
+    static final byte[] MAGIC = {'K', 'N', 'M', 'S'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_TEXT_OFFSET = 32;
+    public static final int MAX_RECORD_SIZE = RECORD_TEXT_OFFSET + Short.MAX_VALUE;
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+    private static final long NONE = Long.MIN_VALUE;
+    private static final TypeTask[] TYPES = TypeTask.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    // Смещения полей заголовка и записи
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_RECORD_SIZE = 8;
+    private static final int HEADER_MAX_ID = 12;
+    private static final int TYPE = 0;
+    private static final int STATUS = 1;
+    private static final int TITLE_LENGTH = 2;
+    private static final int DESCRIPTION_LENGTH = 4;
+    private static final int EPIC_ID = 8;
+    private static final int CHECKSUM = 12;
+    private static final int DURATION = 16;
+    private static final int START_TIME = 24;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int recordSize;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>(); // force() идёт из фонового потока
+    private int maxId;
+
+    private MappedTaskStore(Path path, FileChannel channel, MappedByteBuffer header, int recordSize) {
+        this.path = path;
+        this.channel = channel;
+        this.header = header;
+        this.recordSize = recordSize;
+        this.maxId = header.getInt(HEADER_MAX_ID);
+    }
+
+    public static MappedTaskStore open(Path path) throws IOException {
+        return open(path, DEFAULT_RECORD_SIZE);
+    }
+
+    // Открывает существующее хранилище или создаёт новое в пустом файле.
+    // recordSize учитывается только при создании, дальше берётся из заголовка
+    public static MappedTaskStore open(Path path, int recordSize) throws IOException {
+        if (recordSize <= RECORD_TEXT_OFFSET || recordSize > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Размер записи должен быть от " + (RECORD_TEXT_OFFSET + 1)
+                    + " до " + MAX_RECORD_SIZE + ": " + recordSize);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            if (!created && channel.size() < HEADER_SIZE) {
+                throw new IOException("Файл слишком короткий для хранилища задач: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                header.put(0, MAGIC);
+                header.putInt(HEADER_VERSION, VERSION);
+                header.putInt(HEADER_RECORD_SIZE, recordSize);
+                header.putInt(HEADER_MAX_ID, -1);
+            } else {
+                byte[] magic = new byte[MAGIC.length];
+                header.get(0, magic);
+                if (!ByteBuffer.wrap(magic).equals(ByteBuffer.wrap(MAGIC))) {
+                    throw new IOException("Файл не является хранилищем задач: " + path);
+                }
+                int version = header.getInt(HEADER_VERSION);
+                if (version != VERSION) {
+                    throw new IOException("Неподдерживаемая версия хранилища задач: " + version);
+                }
+                int storedRecordSize = header.getInt(HEADER_RECORD_SIZE);
+                if (storedRecordSize <= RECORD_TEXT_OFFSET || storedRecordSize > MAX_RECORD_SIZE) {
+                    throw new IOException("Некорректный размер записи в хранилище задач: " + storedRecordSize);
+                }
+            }
+            return new MappedTaskStore(path, channel, header, header.getInt(HEADER_RECORD_SIZE));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    // Сколько байт UTF-8 помещается в запись на название и описание вместе
+    public int getMaxTextBytes() {
+        return recordSize - RECORD_TEXT_OFFSET;
+    }
+
+    // Бросает IllegalArgumentException, если название и описание не поместятся в запись
+    public void checkFits(String title, String description) {
+        int textLength = utf8Length(title) + utf8Length(description);
+        if (textLength > getMaxTextBytes()) {
+            throw new IllegalArgumentException("Название и описание задачи занимают " + textLength
+                    + " байт UTF-8, в запись помещается " + getMaxTextBytes());
+        }
+    }
+
+    private static int utf8Length(String text) {
+        return text == null ? 0 : text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // Наибольший ID, когда-либо записанный в хранилище, или -1
+    public int getMaxId() {
+        return maxId;
+    }
+
+    private MappedByteBuffer segment(int id) {
+        int index = id >>> SEGMENT_SHIFT;
+        while (segments.size() <= index) {
+            long position = HEADER_SIZE + (long) segments.size() * SEGMENT_RECORDS * recordSize;
+            try {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                        (long) SEGMENT_RECORDS * recordSize);
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                segments.add(segment);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при отображении хранилища задач: " + path, e);
+            }
+        }
+        return segments.get(index);
+    }
+
+    private int offset(int id) {
+        return (id & (SEGMENT_RECORDS - 1)) * recordSize;
+    }
+
+    private static void checkId(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID задачи не может быть отрицательным: " + id);
+        }
+    }
+
+    public void put(Task task) {
+        int id = task.getId();
+        checkId(id);
+        byte[] title = task.getTitle() == null ? null : task.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = task.getDescription() == null ? null
+                : task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int textLength = (title == null ? 0 : title.length) + (description == null ? 0 : description.length);
+        if (textLength > getMaxTextBytes()) {
+            throw new IllegalArgumentException("Название и описание задачи " + id + " занимают " + textLength
+                    + " байт UTF-8, в запись помещается " + getMaxTextBytes());
+        }
+
+        MappedByteBuffer segment = segment(id);
+        int offset = offset(id);
+        // Тип пишется последним: пока он 0, наполовину записанная запись считается пустой
+        segment.put(offset + TYPE, (byte) 0);
+        segment.put(offset + STATUS, (byte) task.getStatus().ordinal());
+        segment.putShort(offset + TITLE_LENGTH, (short) (title == null ? -1 : title.length));
+        segment.putShort(offset + DESCRIPTION_LENGTH, (short) (description == null ? -1 : description.length));
+        segment.putInt(offset + EPIC_ID, task instanceof SubTask subTask ? subTask.getEpicId() : 0);
+        boolean derivedTime = task.getType() == TypeTask.EPIC; // время эпика считается из подзадач
+        segment.putLong(offset + DURATION,
+                derivedTime || task.getDuration() == null ? NONE : task.getDuration().toMinutes());
+        segment.putLong(offset + START_TIME, derivedTime || task.getStartTime() == null ? NONE
+                : task.getStartTime().toEpochSecond(ZoneOffset.UTC));
+        int text = offset + RECORD_TEXT_OFFSET;
+        if (title != null) {
+            segment.put(text, title);
+            text += title.length;
+        }
+        if (description != null) {
+            segment.put(text, description);
+        }
+        segment.putInt(offset + CHECKSUM, checksum(segment, offset, textLength, task.getType().ordinal() + 1));
+        segment.put(offset + TYPE, (byte) (task.getType().ordinal() + 1));
+        if (id > maxId) {
+            maxId = id;
+            header.putInt(HEADER_MAX_ID, id);
+        }
+    }
+
+    public void remove(int id) {
+        checkId(id);
+        if (id <= maxId) {
+            segment(id).put(offset(id) + TYPE, (byte) 0);
+        }
+    }
+
+    // Удаляет все записи типа; для эпиков вместе с их подзадачами, как InMemoryTaskManager.deleteEpic
+    public void clear(TypeTask type) {
+        for (int id = 0; id <= maxId; id++) {
+            TypeTask stored = typeAt(id);
+            if (stored == type || (type == TypeTask.EPIC && stored == TypeTask.SUBTASK)) {
+                remove(id);
+            }
+        }
+    }
+
+    // Удаляет подзадачи эпика; требует прохода по хранилищу, как и удаление эпика в журнале
+    public void removeSubtasksOf(int epicId) {
+        for (int id = 0; id <= maxId; id++) {
+            if (typeAt(id) == TypeTask.SUBTASK && segment(id).getInt(offset(id) + EPIC_ID) == epicId) {
+                remove(id);
+            }
+        }
+    }
+
+    private TypeTask typeAt(int id) {
+        int code = segment(id).get(offset(id) + TYPE);
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    // Собирает задачу из записи; null — записи с таким ID нет
+    public Task get(int id) {
+        checkId(id);
+        if (id > maxId) {
+            return null;
+        }
+        MappedByteBuffer segment = segment(id);
+        int offset = offset(id);
+        int code = segment.get(offset + TYPE);
+        if (code == 0) {
+            return null;
+        }
+        if (code < 0 || code > TYPES.length) {
+            throw new ManagerSaveException("Повреждена запись задачи " + id + " в " + path,
+                    new IOException("Неизвестный тип " + code));
+        }
+        int titleLength = segment.getShort(offset + TITLE_LENGTH);
+        int descriptionLength = segment.getShort(offset + DESCRIPTION_LENGTH);
+        int textLength = Math.max(0, titleLength) + Math.max(0, descriptionLength);
+        if (textLength > recordSize - RECORD_TEXT_OFFSET
+                || checksum(segment, offset, textLength, code) != segment.getInt(offset + CHECKSUM)) {
+            throw new ManagerSaveException("Повреждена запись задачи " + id + " в " + path,
+                    new IOException("Контрольная сумма не совпадает"));
+        }
+        int text = offset + RECORD_TEXT_OFFSET;
+        String title = readString(segment, text, titleLength);
+        String description = readString(segment, text + Math.max(0, titleLength), descriptionLength);
+        TaskStatus status = STATUSES[segment.get(offset + STATUS)];
+        long minutes = segment.getLong(offset + DURATION);
+        long start = segment.getLong(offset + START_TIME);
+        Duration duration = minutes == NONE ? null : Duration.ofMinutes(minutes);
+        LocalDateTime startTime = start == NONE ? null : LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC);
+        return switch (TYPES[code - 1]) {
+            case TASK -> new Task(title, description, status, id, duration, startTime);
+            case EPIC -> new Epic(id, title, description, status);
+            case SUBTASK -> new SubTask(id, title, description, status, segment.getInt(offset + EPIC_ID),
+                    duration, startTime);
+        };
+    }
+
+    // Обходит все записи по возрастанию ID, собирая каждую задачу
+    public void forEach(Consumer<Task> action) {
+        for (int id = 0; id <= maxId; id++) {
+            Task task = get(id);
+            if (task != null) {
+                action.accept(task);
+            }
+        }
+    }
+
+    // Последовательное чтение всех задач; закрытие читателя закрывает хранилище
+    public TaskSnapshotReader reader() {
+        return new TaskSnapshotReader() {
+            private int nextId;
+
+            @Override
+            public Task next() {
+                while (nextId <= maxId) {
+                    Task task = get(nextId++);
+                    if (task != null) {
+                        return task;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                MappedTaskStore.this.close();
+            }
+        };
+    }
+
+    // Сбрасывает изменённые страницы на диск
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private static String readString(ByteBuffer segment, int from, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        segment.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // CRC32C по всем полям записи, кроме байта типа и самой суммы; тип подмешивается отдельно
+    private int checksum(ByteBuffer segment, int offset, int textLength, int typeCode) {
+        CRC32C crc = new CRC32C();
+        crc.update(typeCode);
+        crc.update(segment.slice(offset + STATUS, CHECKSUM - STATUS));
+        crc.update(segment.slice(offset + DURATION, RECORD_TEXT_OFFSET - DURATION + textLength));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,75 @@
+package manager;
+
+import java.time.Duration;
+
+/**
+ * Настройки сохранения FileBackedTaskManager: режим надёжности, интервал и размер пачки
+ * для фоновой записи, формат снимка. В режимах GROUP_COMMIT и ASYNC изменения сбрасываются на диск
+ * не реже раза в flushInterval или сразу, как только накопится batchSize мутаций.
+ * Значения по умолчанию повторяют прежнее поведение — синхронную запись каждой мутации в CSV.
+ */
+public class PersistenceConfig {
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(10);
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final DurabilityMode durabilityMode;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final SnapshotFormat snapshotFormat;
+
+    public PersistenceConfig(DurabilityMode durabilityMode, Duration flushInterval, int batchSize) {
+        this(durabilityMode, flushInterval, batchSize, SnapshotFormat.CSV);
+    }
+
+    // Формат влияет только на запись: при загрузке он определяется по содержимому файла
+    public PersistenceConfig(DurabilityMode durabilityMode, Duration flushInterval, int batchSize,
+                             SnapshotFormat snapshotFormat) {
+        if (durabilityMode == null) {
+            throw new IllegalArgumentException("Режим надёжности не может быть null");
+        }
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Интервал сброса должен быть положительным");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным: " + batchSize);
+        }
+        if (snapshotFormat == null) {
+            throw new IllegalArgumentException("Формат снимка не может быть null");
+        }
+        this.durabilityMode = durabilityMode;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    public static PersistenceConfig defaults() {
+        return new PersistenceConfig(DurabilityMode.SYNC, DEFAULT_FLUSH_INTERVAL, DEFAULT_BATCH_SIZE);
+    }
+
+    // Настройки из системных свойств kanban.durability, kanban.flushIntervalMs, kanban.flushBatch
+    // и kanban.snapshotFormat
+    public static PersistenceConfig fromSystemProperties() {
+        PersistenceConfig defaults = defaults();
+        return new PersistenceConfig(
+                DurabilityMode.valueOf(System.getProperty("kanban.durability", defaults.durabilityMode.name())),
+                Duration.ofMillis(Long.getLong("kanban.flushIntervalMs", defaults.flushInterval.toMillis())),
+                Integer.getInteger("kanban.flushBatch", defaults.batchSize),
+                SnapshotFormat.valueOf(System.getProperty("kanban.snapshotFormat", defaults.snapshotFormat.name())));
+    }
+
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+}
@@ -0,0 +1,6 @@
+package manager;
+
+public enum SchedulePolicy {
+    IN_ORDER, // в порядке запроса: раньше в списке — выше приоритет и раньше место
+    LONGEST_FIRST // сначала длинные задачи: короткие затем заполняют оставшиеся промежутки
+}
@@ -0,0 +1,24 @@
+package manager;
+
+import data.Task;
+
+import java.util.List;
+
+// Итог TaskManager.schedule: размещённые задачи с назначенным временем и ID, для которых места не нашлось
+public final class ScheduleResult {
+    private final List<Task> scheduled;
+    private final List<Integer> unscheduled;
+
+    public ScheduleResult(List<Task> scheduled, List<Integer> unscheduled) {
+        this.scheduled = List.copyOf(scheduled);
+        this.unscheduled = List.copyOf(unscheduled);
+    }
+
+    public List<Task> getScheduled() {
+        return scheduled;
+    }
+
+    public List<Integer> getUnscheduled() {
+        return unscheduled;
+    }
+}
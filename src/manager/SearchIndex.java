@@ -0,0 +1,314 @@
+package manager;
+
+import data.Task;
+import util.IntIntHashMap;
+import util.IntObjectHashMap;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Полнотекстовый инвертированный индекс по названиям и описаниям задач.
+ * Текст разбивается на слова из букв и цифр любого алфавита (кириллица, латиница),
+ * слова приводятся к нижнему регистру, «ё» совпадает с «е». Для каждого слова хранится
+ * список документов с весом вхождения: слово из названия весит TITLE_WEIGHT, из описания — 1.
+ * <p>
+ * Запрос — слова, которые должны встретиться все; каждое слово запроса — префикс
+ * (ищем «реа» — находим «реализовать»). Префикс раскрывается не более чем в maxExpansions слов
+ * словаря. Результаты ранжируются по BM25, при равенстве — по возрастанию ID.
+ * <p>
+ * Память ограничена: у документа индексируется не больше maxTermsPerDocument различных слов
+ * (сначала слова названия), слово обрезается до MAX_TOKEN_LENGTH символов, поэтому объём
+ * индекса — O(документов × maxTermsPerDocument) независимо от длины описаний.
+ * Индекс потокобезопасен: поиск идёт под блокировкой чтения, изменения — под блокировкой записи.
+ */
+public class SearchIndex {
+    public static final int DEFAULT_MAX_TERMS_PER_DOCUMENT = 64;
+    public static final int DEFAULT_MAX_EXPANSIONS = 64;
+    static final int MAX_TOKEN_LENGTH = 32;
+    static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final int maxTermsPerDocument;
+    private final int maxExpansions;
+    private final NavigableMap<String, IntIntHashMap> postings = new TreeMap<>();
+    private final IntObjectHashMap<Document> documents = new IntObjectHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength; // сумма длин документов для средней длины в BM25
+    private long postingCount;
+
+    public SearchIndex() {
+        this(DEFAULT_MAX_TERMS_PER_DOCUMENT, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    public SearchIndex(int maxTermsPerDocument, int maxExpansions) {
+        if (maxTermsPerDocument <= 0 || maxExpansions <= 0) {
+            throw new IllegalArgumentException("Ограничения индекса должны быть положительными");
+        }
+        this.maxTermsPerDocument = maxTermsPerDocument;
+        this.maxExpansions = maxExpansions;
+    }
+
+    private record Document(Task task, String[] terms, int length) {
+    }
+
+    // Индексирует задачу или заменяет прежнюю версию с тем же ID
+    public void put(Task task) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        int length = collect(task.getTitle(), TITLE_WEIGHT, weights) + collect(task.getDescription(), 1, weights);
+        lock.writeLock().lock();
+        try {
+            removeLocked(task.getId());
+            String[] terms = new String[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                terms[i++] = entry.getKey();
+                postings.computeIfAbsent(entry.getKey(), term -> new IntIntHashMap(4))
+                        .put(task.getId(), entry.getValue());
+            }
+            documents.put(task.getId(), new Document(task, terms, length));
+            totalLength += length;
+            postingCount += terms.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Складывает веса слов текста; новые слова сверх лимита документа пропускаются. Возвращает длину текста
+    private int collect(String text, int weight, Map<String, Integer> weights) {
+        int length = 0;
+        for (String token : tokenize(text)) {
+            length += weight;
+            if (weights.containsKey(token) || weights.size() < maxTermsPerDocument) {
+                weights.merge(token, weight, Integer::sum);
+            }
+        }
+        return length;
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            IntIntHashMap docs = postings.get(term);
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length();
+        postingCount -= document.terms().length;
+    }
+
+    public void removeIf(Predicate<Task> filter) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            documents.forEach((id, document) -> {
+                if (filter.test(document.task())) {
+                    ids.add(id);
+                }
+            });
+            ids.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            postingCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Число пар слово–документ: основная составляющая занимаемой памяти
+    public long postingCount() {
+        lock.readLock().lock();
+        try {
+            return postingCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // До limit задач, содержащих все слова запроса (как префиксы), от более релевантных к менее
+    public List<Task> search(String query, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit не может быть отрицательным: " + limit);
+        }
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit == 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return searchLocked(tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Task> searchLocked(List<String> tokens, int limit) {
+        int documentCount = documents.size();
+        double averageLength = documentCount == 0 ? 1 : Math.max(1.0, (double) totalLength / documentCount);
+
+        // Каждое слово запроса раскрывается в слова словаря; начинаем с самого редкого,
+        // чтобы множество кандидатов было минимальным с первого шага
+        List<List<IntIntHashMap>> expansions = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            List<IntIntHashMap> matches = new ArrayList<>();
+            for (IntIntHashMap docs : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                matches.add(docs);
+                if (matches.size() == maxExpansions) {
+                    break;
+                }
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            expansions.add(matches);
+        }
+        expansions.sort(Comparator.comparingLong(SearchIndex::frequency));
+
+        IntObjectHashMap<double[]> scores = new IntObjectHashMap<>(); // [0] — сумма, [1] — число совпавших слов
+        for (int round = 0; round < expansions.size(); round++) {
+            List<IntIntHashMap> matches = expansions.get(round);
+            int matched = round;
+            if (round == 0) {
+                for (IntIntHashMap docs : matches) {
+                    double idf = idf(documentCount, docs.size());
+                    docs.forEach((id, weight) -> {
+                        double[] score = scores.computeIfAbsent(id, key -> new double[2]);
+                        score[0] += bm25(idf, weight, documents.get(id).length(), averageLength);
+                        score[1] = 1;
+                    });
+                }
+                continue;
+            }
+            // Кандидатов уже мало: дешевле проверить их по спискам слов, чем обходить списки целиком
+            for (IntIntHashMap docs : matches) {
+                double idf = idf(documentCount, docs.size());
+                if ((long) scores.size() < docs.size()) {
+                    scores.forEach((id, score) -> {
+                        int weight = docs.get(id);
+                        if (weight != IntIntHashMap.NO_VALUE && score[1] >= matched) {
+                            score[0] += bm25(idf, weight, documents.get(id).length(), averageLength);
+                            score[1] = matched + 1;
+                        }
+                    });
+                } else {
+                    docs.forEach((id, weight) -> {
+                        double[] score = scores.get(id);
+                        if (score != null && score[1] >= matched) {
+                            score[0] += bm25(idf, weight, documents.get(id).length(), averageLength);
+                            score[1] = matched + 1;
+                        }
+                    });
+                }
+            }
+            scores.values().removeIf(score -> score[1] <= matched);
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return top(scores, limit);
+    }
+
+    private static long frequency(List<IntIntHashMap> matches) {
+        long frequency = 0;
+        for (IntIntHashMap docs : matches) {
+            frequency += docs.size();
+        }
+        return frequency;
+    }
+
+    private static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static double bm25(double idf, int weight, int length, double averageLength) {
+        return idf * weight * (K1 + 1) / (weight + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // Лучшие limit документов через кучу размера limit: O(k log limit) вместо полной сортировки
+    private List<Task> top(IntObjectHashMap<double[]> scores, int limit) {
+        Comparator<Map.Entry<Integer, Double>> worstFirst = Map.Entry.<Integer, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Integer, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(Math.min(limit, scores.size()) + 1,
+                worstFirst);
+        scores.forEach((id, score) -> {
+            heap.add(Map.entry(id, score[0]));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        Task[] result = new Task[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = documents.get(heap.poll().getKey().intValue()).task();
+        }
+        return Arrays.asList(result);
+    }
+
+    // Слова текста в нижнем регистре: последовательности букв и цифр любого алфавита
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    int lower = Character.toLowerCase(codePoint);
+                    token.appendCodePoint(lower == 'ё' ? 'е' : lower);
+                }
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
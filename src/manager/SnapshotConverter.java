@@ -0,0 +1,65 @@
+package manager;
+
+import data.Task;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Перевод снимка между форматами CSV, BINARY и MAPPED для миграции.
+ * Формат исходного файла определяется автоматически. CSV и двоичный снимок пишутся атомарно
+ * с контрольной суммой, хранилище MAPPED создаётся заново на месте нового файла.
+ * Запуск: java manager.SnapshotConverter &lt;исходный файл&gt; &lt;новый файл&gt; &lt;CSV|BINARY|MAPPED&gt;
+ */
+public final class SnapshotConverter {
+    private SnapshotConverter() {
+    }
+
+    // Возвращает количество перенесённых задач
+    public static int convert(Path source, Path target, SnapshotFormat format) throws IOException {
+        Path readable = SnapshotFiles.selectReadable(source);
+        if (readable == null) {
+            throw new IOException("Снимок не найден: " + source);
+        }
+        List<Task> tasks = new ArrayList<>();
+        try (TaskSnapshotReader reader = TaskSnapshotReader.open(readable)) {
+            Task task;
+            while ((task = reader.next()) != null) {
+                tasks.add(task);
+            }
+        }
+        if (format == SnapshotFormat.MAPPED) {
+            Files.deleteIfExists(target);
+            try (MappedTaskStore store = MappedTaskStore.open(target)) {
+                tasks.forEach(store::put);
+            }
+            return tasks.size();
+        }
+        SnapshotFiles.write(target, out -> {
+            if (format == SnapshotFormat.BINARY) {
+                FileBackedTaskManager.writeBinary(new TaskBinaryWriter(out), tasks, List.of(), List.of());
+            } else {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                FileBackedTaskManager.writeCsv(writer, tasks, List.of(), List.of());
+                writer.flush();
+            }
+        });
+        return tasks.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Использование: SnapshotConverter <исходный файл> <новый файл> <CSV|BINARY|MAPPED>");
+            System.exit(2);
+        }
+        SnapshotFormat format = SnapshotFormat.valueOf(args[2].toUpperCase());
+        int count = convert(Path.of(args[0]), Path.of(args[1]), format);
+        System.out.println("Перенесено задач: " + count + ", формат: " + format);
+    }
+}
@@ -0,0 +1,187 @@
+package manager;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Атомарная запись снимков FileBackedTaskManager.
+ * Снимок пишется во временный файл &lt;file&gt;.tmp, сбрасывается на диск через fsync и только потом
+ * переименовывается поверх основного файла; прежний снимок сохраняется как &lt;file&gt;.prev.
+ * В конец файла дописывается строка с контрольной суммой CRC32C всего, что перед ней,
+ * и при загрузке берётся первое поколение, у которого сумма сходится.
+ * Файл, закрытый для записи, не подменяется: переименование обошло бы запрет, поэтому запись отклоняется,
+ * а новый файл получает права прежнего.
+ */
+public final class SnapshotFiles {
+    static final String FOOTER_PREFIX = "#crc32c:";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FOOTER_SCAN = 64; // строка с суммой заведомо короче
+
+    private SnapshotFiles() {
+    }
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    public static Path previousGeneration(Path snapshot) {
+        return snapshot.resolveSibling(snapshot.getFileName() + ".prev");
+    }
+
+    private static Path temporary(Path snapshot) {
+        return snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+    }
+
+    // Пишет снимок целиком во временный файл и атомарно подменяет им основной
+    public static void write(Path snapshot, Body body) throws IOException {
+        boolean exists = Files.exists(snapshot);
+        if (exists && isReadOnly(snapshot)) {
+            throw new ManagerSaveException("Файл снимка доступен только для чтения: " + snapshot,
+                    new AccessDeniedException(snapshot.toString()));
+        }
+        Path temp = temporary(snapshot);
+        CRC32C checksum = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Поток не закрываем: это закрыло бы канал до записи суммы и fsync.
+            // Перевод строки перед суммой ставит её на отдельную строку и для двоичного снимка
+            OutputStream out = new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), checksum), BUFFER_SIZE);
+            body.writeTo(out);
+            out.write('\n');
+            out.flush();
+            ByteBuffer footer = ByteBuffer.wrap(footer(checksum.getValue()).getBytes(StandardCharsets.UTF_8));
+            while (footer.hasRemaining()) {
+                channel.write(footer);
+            }
+            channel.force(true);
+        }
+        if (exists) {
+            copyPermissions(snapshot, temp);
+            move(snapshot, previousGeneration(snapshot));
+        }
+        move(temp, snapshot);
+        syncDirectory(snapshot.toAbsolutePath().getParent());
+    }
+
+    // Права проверяются и по битам POSIX: root проходит проверку доступа к любому файлу,
+    // но файл без права записи владельца тоже считается закрытым
+    private static boolean isReadOnly(Path path) throws IOException {
+        if (!Files.isWritable(path)) {
+            return true;
+        }
+        PosixFileAttributeView posix = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+        return posix != null && !posix.readAttributes().permissions().contains(PosixFilePermission.OWNER_WRITE);
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        PosixFileAttributeView posix = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if (posix != null) {
+            Files.setPosixFilePermissions(target, posix.readAttributes().permissions());
+        }
+    }
+
+    static String footer(long checksum) {
+        return FOOTER_PREFIX + String.format("%08x", checksum) + "\n";
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Переименование попадает на диск только вместе с каталогом. Не везде каталог можно открыть — тогда пропускаем
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // не поддерживается этой ОС или файловой системой
+        }
+    }
+
+    // Поколение снимка, которое можно загрузить: основной файл, если его сумма сходится,
+    // иначе предыдущий. Файл без строки суммы (записанный до её появления) принимается как есть,
+    // но только если целого поколения нет. null — снимков нет вовсе
+    public static Path selectReadable(Path snapshot) throws IOException {
+        Path previous = previousGeneration(snapshot);
+        if (Files.exists(snapshot) && verify(snapshot) == Verification.VALID) {
+            return snapshot;
+        }
+        if (Files.exists(previous) && verify(previous) == Verification.VALID) {
+            return previous;
+        }
+        if (Files.exists(snapshot) && verify(snapshot) == Verification.NO_FOOTER) {
+            return snapshot;
+        }
+        if (Files.exists(previous) && verify(previous) == Verification.NO_FOOTER) {
+            return previous;
+        }
+        if (!Files.exists(snapshot) && !Files.exists(previous)) {
+            return null;
+        }
+        throw new ManagerSaveException("Снимок повреждён и нет целого предыдущего поколения: " + snapshot,
+                new IOException("Контрольная сумма не совпадает"));
+    }
+
+    enum Verification {
+        VALID, NO_FOOTER, CORRUPTED
+    }
+
+    static Verification verify(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return Verification.NO_FOOTER;
+            }
+            int tailLength = (int) Math.min(size, FOOTER_SCAN);
+            ByteBuffer tail = ByteBuffer.allocate(tailLength);
+            channel.read(tail, size - tailLength);
+            String tailText = new String(tail.array(), 0, tail.position(), StandardCharsets.UTF_8);
+            int footerAt = tailText.lastIndexOf(FOOTER_PREFIX);
+            boolean atLineStart = footerAt > 0 ? tailText.charAt(footerAt - 1) == '\n' : size == tailLength;
+            if (footerAt < 0 || !atLineStart) {
+                return Verification.NO_FOOTER;
+            }
+            long expected;
+            try {
+                expected = Long.parseLong(tailText.substring(footerAt + FOOTER_PREFIX.length()).trim(), 16);
+            } catch (NumberFormatException e) {
+                return Verification.CORRUPTED;
+            }
+            long bodyLength = size - tailText.substring(footerAt).getBytes(StandardCharsets.UTF_8).length;
+            return checksum(channel, bodyLength) == expected ? Verification.VALID : Verification.CORRUPTED;
+        }
+    }
+
+    private static long checksum(FileChannel channel, long length) throws IOException {
+        CRC32C checksum = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long position = 0;
+        while (position < length) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, length - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            checksum.update(buffer);
+            position += read;
+        }
+        return checksum.getValue();
+    }
+}
@@ -0,0 +1,8 @@
+package manager;
+
+public enum SnapshotFormat {
+    CSV, // текстовый снимок id,type,title,... — читается человеком и прежними версиями
+    BINARY, // компактный версионированный двоичный снимок, см. TaskBinaryWriter
+    MAPPED // отображаемое в память хранилище с записями фиксированного размера, см. MappedTaskStore;
+    // текст задачи ограничен размером записи (по умолчанию 480 байт UTF-8), длинный текст отклоняется
+}
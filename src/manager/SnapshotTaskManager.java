@@ -0,0 +1,241 @@
+package manager;
+
+import data.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Режим чтения из снимков: обёртка менеджера, которая отдаёт getTasks, getEpics, getSubtasks,
+ * getPrioritizedTasks и getSubtaskByEpic из неизменяемой версии доски без блокировок.
+ * Версию ведёт подписчик шины событий обёрнутого менеджера: каждое событие применяется
+ * к текущей версии, и новая версия публикуется записью в volatile-поле. События приходят
+ * под монитором шины строго по порядку, так что писатели не гоняются между собой, а снимок
+ * всегда соответствует состоянию после какого-то события — как у клиента ленты /events.
+ * Изменения многошаговых операций (подзадача и пересчёт её эпика, пакет) становятся видны
+ * по мере публикации их событий. Остальные методы, в том числе запись, выполняет обёрнутый менеджер;
+ * изменять его в обход шины событий нельзя.
+ */
+public class SnapshotTaskManager implements TaskManager {
+    private final TaskManager delegate;
+    private volatile BoardSnapshot current;
+
+    public SnapshotTaskManager(TaskManager delegate) {
+        this.delegate = delegate;
+        TaskEventBus eventBus = delegate.getEventBus();
+        // Публикация идёт под монитором шины: пока он захвачен, новых событий нет,
+        // и начальная версия совмещается с подпиской без пропусков
+        synchronized (eventBus) {
+            current = BoardSnapshot.capture(delegate, eventBus.getLastSequence());
+            eventBus.addListener(event -> current = current.apply(event));
+        }
+    }
+
+    // Текущая версия доски; для нескольких согласованных чтений её нужно взять один раз
+    public BoardSnapshot snapshot() {
+        return current;
+    }
+
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Map<Integer, Task> getTasks() {
+        return current.getTasks();
+    }
+
+    @Override
+    public Map<Integer, Epic> getEpics() {
+        return current.getEpics();
+    }
+
+    @Override
+    public Map<Integer, SubTask> getSubtasks() {
+        return current.getSubtasks();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return current.getPrioritizedTasks();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return current.getPrioritizedTasks(from, to, limit);
+    }
+
+    @Override
+    public int prioritizedSize() {
+        return current.getPrioritizedSize();
+    }
+
+    @Override
+    public List<SubTask> getSubtaskByEpic(Epic epic) {
+        return epic == null ? List.of() : current.getSubtasksByEpic(epic.getId());
+    }
+
+    // Эпики снимка — копии; менеджер должен изменять свой экземпляр эпика
+    @Override
+    public void updateEpic(Epic epic, String newTitle, String newDescription) {
+        delegate.updateEpic(stored(epic), newTitle, newDescription);
+    }
+
+    @Override
+    public void updateEpicStatus(Epic epic) {
+        delegate.updateEpicStatus(stored(epic));
+    }
+
+    private Epic stored(Epic epic) {
+        Epic stored = epic == null ? null : delegate.getEpics().get(epic.getId());
+        return stored != null ? stored : epic;
+    }
+
+    @Override
+    public void addTask(Task task) {
+        delegate.addTask(task);
+    }
+
+    @Override
+    public void addEpic(Epic epic) {
+        delegate.addEpic(epic);
+    }
+
+    @Override
+    public void addSubtask(SubTask subtask) {
+        delegate.addSubtask(subtask);
+    }
+
+    @Override
+    public void clearTask() {
+        delegate.clearTask();
+    }
+
+    @Override
+    public void clearSubtask() {
+        delegate.clearSubtask();
+    }
+
+    @Override
+    public void deleteEpic() {
+        delegate.deleteEpic();
+    }
+
+    @Override
+    public Optional<Task> getTaskById(int id) {
+        return delegate.getTaskById(id);
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(int id) {
+        return delegate.getEpicById(id);
+    }
+
+    @Override
+    public Optional<SubTask> getSubTaskById(int id) {
+        return delegate.getSubTaskById(id);
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        delegate.deleteTaskById(id);
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        delegate.deleteEpicById(id);
+    }
+
+    @Override
+    public void deleteSubTaskById(int id) {
+        delegate.deleteSubTaskById(id);
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return delegate.getTasksByStatus(status);
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return delegate.getEpicsByStatus(status);
+    }
+
+    @Override
+    public List<SubTask> getSubtasksByStatus(TaskStatus status) {
+        return delegate.getSubtasksByStatus(status);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return delegate.getTasksPage(afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        return delegate.getEpicsPage(afterId, limit);
+    }
+
+    @Override
+    public List<SubTask> getSubtasksPage(int afterId, int limit) {
+        return delegate.getSubtasksPage(afterId, limit);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return delegate.search(query, limit);
+    }
+
+    @Override
+    public void updateTask(Task task, Task newTask) {
+        delegate.updateTask(task, newTask);
+    }
+
+    @Override
+    public void updateSubTask(SubTask subTask, SubTask newSubTask) {
+        delegate.updateSubTask(subTask, newSubTask);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public int historySize() {
+        return delegate.historySize();
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return delegate.getHistory(offset, limit);
+    }
+
+    @Override
+    public List<Task> getRecentHistory(int count) {
+        return delegate.getRecentHistory(count);
+    }
+
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) {
+        return delegate.applyBatch(operations);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime from, LocalDateTime to) {
+        return delegate.findFreeSlot(duration, from, to);
+    }
+
+    @Override
+    public ScheduleResult schedule(List<Integer> ids, LocalDateTime from, LocalDateTime to, SchedulePolicy policy) {
+        return delegate.schedule(ids, from, to, policy);
+    }
+
+    @Override
+    public TaskEventBus getEventBus() {
+        return delegate.getEventBus();
+    }
+}
@@ -0,0 +1,63 @@
+package manager;
+
+import data.Task;
+import data.TaskStatus;
+import util.IntObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Вторичный индекс статус → задачи одного типа. Выборка по статусу копирует только задачи
+ * этого статуса, без обхода всего хранилища. Задача снимается с индекса по id во всех корзинах,
+ * поэтому индекс остаётся верным, даже если статус хранимого объекта изменили на месте.
+ * Потокобезопасный вариант (для ConcurrentTaskManager) хранит корзины в ConcurrentHashMap;
+ * записи по одному id вызывающий упорядочивает сам.
+ */
+class StatusIndex<T extends Task> {
+    private final Map<TaskStatus, Map<Integer, T>> buckets = new EnumMap<>(TaskStatus.class);
+
+    StatusIndex() {
+        this(false);
+    }
+
+    StatusIndex(boolean concurrent) {
+        for (TaskStatus status : TaskStatus.values()) {
+            buckets.put(status, concurrent ? new ConcurrentHashMap<>() : new IntObjectHashMap<>());
+        }
+    }
+
+    // Добавляет задачу или переносит её в корзину текущего статуса
+    void put(T task) {
+        remove(task.getId());
+        if (task.getStatus() != null) {
+            buckets.get(task.getStatus()).put(task.getId(), task);
+        }
+    }
+
+    void remove(int id) {
+        for (Map<Integer, T> bucket : buckets.values()) {
+            bucket.remove(id);
+        }
+    }
+
+    void clear() {
+        for (Map<Integer, T> bucket : buckets.values()) {
+            bucket.clear();
+        }
+    }
+
+    List<T> get(TaskStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Статус не может быть null");
+        }
+        return new ArrayList<>(buckets.get(status).values());
+    }
+
+    int count(TaskStatus status) {
+        return buckets.get(status).size();
+    }
+}
@@ -0,0 +1,112 @@
+package manager;
+
+import data.*;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Потоковое чтение двоичного снимка, записанного TaskBinaryWriter.
+ * Даты и длительности восстанавливаются из чисел без разбора текста.
+ */
+public class TaskBinaryReader implements TaskSnapshotReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final TypeTask[] TYPES = TypeTask.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final DataInputStream in;
+    private boolean finished;
+
+    public TaskBinaryReader(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+        try {
+            byte[] magic = new byte[TaskBinaryWriter.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, TaskBinaryWriter.MAGIC)) {
+                throw new IOException("Файл не является двоичным снимком: " + path);
+            }
+            int version = in.readUnsignedByte();
+            if (version != TaskBinaryWriter.VERSION) {
+                throw new IOException("Неподдерживаемая версия двоичного снимка: " + version);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Task next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int typeCode = in.readUnsignedByte();
+        if (typeCode == TaskBinaryWriter.END) {
+            finished = true;
+            return null;
+        }
+        if (typeCode > TYPES.length) {
+            throw new IOException("Неизвестный тип задачи в снимке: " + typeCode);
+        }
+        TypeTask type = TYPES[typeCode - 1];
+        int id = (int) readVarLong();
+        int statusCode = in.readUnsignedByte();
+        if (statusCode >= STATUSES.length) {
+            throw new IOException("Неизвестный статус задачи в снимке: " + statusCode);
+        }
+        TaskStatus status = STATUSES[statusCode];
+        String title = readString();
+        String description = readString();
+        long minutes = readVarLong();
+        Duration duration = minutes == 0 ? null : Duration.ofMinutes(minutes - 1);
+        long start = readVarLong();
+        LocalDateTime startTime = start == 0 ? null
+                : LocalDateTime.ofEpochSecond(unzigzag(start - 1), 0, ZoneOffset.UTC);
+
+        return switch (type) {
+            case TASK -> new Task(title, description, status, id, duration, startTime);
+            case EPIC -> new Epic(id, title, description, status);
+            case SUBTASK -> new SubTask(id, title, description, status, (int) readVarLong(), duration, startTime);
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[Math.toIntExact(length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Слишком длинное число в снимке");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,85 @@
+package manager;
+
+import data.SubTask;
+import data.Task;
+import data.TypeTask;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+
+/**
+ * Запись снимка в двоичном формате. Файл начинается с сигнатуры KNBS и байта версии,
+ * дальше идут записи задач и нулевой байт-терминатор. Запись задачи:
+ * тип (1 — TASK, 2 — EPIC, 3 — SUBTASK), varint ID, порядковый номер статуса,
+ * название и описание (varint длины + 1 и UTF-8, 0 — null), varint длительности в минутах + 1
+ * (0 — нет), zigzag-varint начала в секундах от эпохи UTC + 1 (0 — нет), у подзадачи — varint ID эпика.
+ * Время эпика вычисляется из подзадач и не записывается, как и при чтении CSV.
+ */
+public class TaskBinaryWriter {
+    static final byte[] MAGIC = {'K', 'N', 'B', 'S'};
+    static final int VERSION = 1;
+    static final int END = 0;
+
+    private final DataOutputStream out;
+
+    public TaskBinaryWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    // Задача проверяется до записи первого байта, поэтому отклонённая запись не оставляет в потоке обрывка
+    public void write(Task task) throws IOException {
+        if (task.getStatus() == null) {
+            throw new ManagerSaveException("У задачи с ID " + task.getId() + " не задан статус", null);
+        }
+        TypeTask type = task.getType();
+        out.writeByte(type.ordinal() + 1);
+        writeVarLong(task.getId());
+        out.writeByte(task.getStatus().ordinal());
+        writeString(task.getTitle());
+        writeString(task.getDescription());
+        if (type == TypeTask.EPIC) {
+            writeVarLong(0);
+            writeVarLong(0);
+        } else {
+            writeVarLong(task.getDuration() == null ? 0 : task.getDuration().toMinutes() + 1);
+            writeVarLong(task.getStartTime() == null ? 0
+                    : zigzag(task.getStartTime().toEpochSecond(ZoneOffset.UTC)) + 1);
+        }
+        if (type == TypeTask.SUBTASK) {
+            writeVarLong(((SubTask) task).getEpicId());
+        }
+    }
+
+    // Дописывает терминатор; сам поток закрывает владелец
+    public void finish() throws IOException {
+        out.writeByte(END);
+        out.flush();
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,137 @@
+package manager;
+
+import data.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Потоковое чтение CSV-снимка FileBackedTaskManager.
+ * Файл читается одним проходом через буферизованный канал, без загрузки всех строк в память.
+ * Строка разбирается курсором по позициям запятых вместо String.split: id, длительность, тип,
+ * статус и дата читаются прямо из строки, новые строки создаются только для названия и описания.
+ */
+public class TaskCsvReader implements TaskSnapshotReader {
+    static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FIELDS = 8; // id,type,title,status,description,duration,startTime,epic
+    private static final TypeTask[] TYPES = TypeTask.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final BufferedReader reader;
+    private boolean headerSkipped;
+
+    public TaskCsvReader(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // Следующая задача снимка или null в конце файла. Первая строка — заголовок, пустые строки
+    // и служебные строки с '#' (контрольная сумма снимка) пропускаются
+    @Override
+    public Task next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!headerSkipped) {
+                headerSkipped = true;
+                continue;
+            }
+            if (!line.isBlank() && line.charAt(0) != '#') {
+                return parse(line);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Разбирает одну строку формата id,type,title,status,description,duration,startTime[,epic]
+    public static Task parse(String line) {
+        int end = line.length();
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        int begin = 0;
+        while (begin < end && Character.isWhitespace(line.charAt(begin))) {
+            begin++;
+        }
+
+        // starts[i] — начало i-го поля; последнее поле забирает остаток строки, как split(",", 8)
+        int[] starts = new int[FIELDS + 1];
+        starts[0] = begin;
+        int count = 1;
+        while (count < FIELDS) {
+            int comma = line.indexOf(',', starts[count - 1]);
+            if (comma < 0 || comma >= end) {
+                break;
+            }
+            starts[count++] = comma + 1;
+        }
+        if (count < 7) {
+            throw new IllegalArgumentException("Неверный формат строки: " + line);
+        }
+        starts[count] = end + 1;
+
+        try {
+            int id = Integer.parseInt(line, starts[0], starts[1] - 1, 10);
+            TypeTask type = parseEnum(TYPES, line, starts[1], starts[2] - 1);
+            String title = line.substring(starts[2], starts[3] - 1);
+            TaskStatus status = parseEnum(STATUSES, line, starts[3], starts[4] - 1);
+            String description = line.substring(starts[4], starts[5] - 1);
+            Duration duration = starts[6] - 1 == starts[5]
+                    ? null : Duration.ofMinutes(Long.parseLong(line, starts[5], starts[6] - 1, 10));
+            LocalDateTime startTime = starts[7] - 1 == starts[6]
+                    ? null : parseDateTime(line, starts[6], starts[7] - 1);
+
+            return switch (type) {
+                case TASK -> new Task(title, description, status, id, duration, startTime);
+                case EPIC -> new Epic(id, title, description, status);
+                case SUBTASK -> {
+                    if (count < FIELDS || starts[8] - 1 == starts[7]) {
+                        throw new IllegalArgumentException("Для подзадачи не указан ID эпика: " + line);
+                    }
+                    int epicId = Integer.parseInt(line, starts[7], starts[8] - 1, 10);
+                    yield new SubTask(id, title, description, status, epicId, duration, startTime);
+                }
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Неверный формат строки: " + line, e);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(E[] values, String line, int from, int to) {
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == to - from && line.regionMatches(from, name, 0, name.length())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное значение '" + line.substring(from, to) + "' в строке: " + line);
+    }
+
+    // Быстрый путь для формата dd-MM-yyyy HH:mm:ss, остальное отдаём DateTimeFormatter
+    private static LocalDateTime parseDateTime(String line, int from, int to) {
+        if (to - from == 19 && line.charAt(from + 2) == '-' && line.charAt(from + 5) == '-'
+                && line.charAt(from + 10) == ' ' && line.charAt(from + 13) == ':' && line.charAt(from + 16) == ':') {
+            return LocalDateTime.of(
+                    Integer.parseInt(line, from + 6, from + 10, 10),
+                    Integer.parseInt(line, from + 3, from + 5, 10),
+                    Integer.parseInt(line, from, from + 2, 10),
+                    Integer.parseInt(line, from + 11, from + 13, 10),
+                    Integer.parseInt(line, from + 14, from + 16, 10),
+                    Integer.parseInt(line, from + 17, from + 19, 10));
+        }
+        return LocalDateTime.parse(line.subSequence(from, to), FORMATTER);
+    }
+}
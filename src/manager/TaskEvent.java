@@ -0,0 +1,55 @@
+package manager;
+
+import data.Task;
+import data.TypeTask;
+
+/**
+ * Изменение в менеджере задач. Номер sequence строго возрастает в пределах одного TaskEventBus,
+ * по нему клиент продолжает получение событий после переподключения.
+ * Для CREATED, UPDATED и EPIC_RECALCULATED task — задача после изменения, для DELETED и CLEARED — null.
+ * CLEARED означает удаление всех задач типа type (для эпиков — вместе с подзадачами), id при этом 0.
+ */
+public final class TaskEvent {
+    public enum Kind {
+        CREATED, UPDATED, DELETED, CLEARED, EPIC_RECALCULATED
+    }
+
+    private final long sequence;
+    private final Kind kind;
+    private final TypeTask type;
+    private final int id;
+    private final Task task;
+
+    TaskEvent(long sequence, Kind kind, TypeTask type, int id, Task task) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.type = type;
+        this.id = id;
+        this.task = task;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public TypeTask getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" + sequence + " " + kind + " " + type + " " + id + "}";
+    }
+}
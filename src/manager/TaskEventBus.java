@@ -0,0 +1,114 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TypeTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Шина событий менеджера задач. Каждое событие получает следующий номер. После retainRecent()
+ * события попадают в кольцевой буфер последних событий ограниченной ёмкости, откуда отдаются
+ * клиентам, продолжающим получение с известного номера. Публикация и подписка идут под одним
+ * монитором, поэтому подписчик видит события строго по возрастанию номеров и без пропусков.
+ * Событие несёт копию задачи на момент публикации: менеджер дальше меняет свои объекты,
+ * а события читаются из других потоков и отдаются клиентам позже. Копия эпика делит с ним
+ * неизменяемое множество подзадач, поэтому стоит O(1). Пока нет ни подписчиков, ни буфера,
+ * публикация только увеличивает номер: ни копий, ни записи в буфер.
+ */
+public class TaskEventBus {
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final List<TaskEventListener> listeners = new CopyOnWriteArrayList<>();
+    private TaskEvent[] recent; // null, пока буфер не включён
+    private long retainedFrom; // номер первого события, попавшего в буфер
+    private long lastSequence;
+
+    public TaskEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TaskEventBus(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость буфера событий должна быть положительной: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    // Включает буфер для продолжения с известного номера; события до включения недоступны
+    public synchronized void retainRecent() {
+        if (recent == null) {
+            recent = new TaskEvent[capacity];
+            retainedFrom = lastSequence + 1;
+        }
+    }
+
+    public synchronized void publish(TaskEvent.Kind kind, TypeTask type, int id, Task task) {
+        long sequence = ++lastSequence;
+        if (recent == null && listeners.isEmpty()) {
+            return;
+        }
+        TaskEvent event = new TaskEvent(sequence, kind, type, id, task == null ? null : copyOf(task));
+        if (recent != null) {
+            recent[(int) ((sequence - 1) % recent.length)] = event;
+        }
+        for (TaskEventListener listener : listeners) {
+            listener.onEvent(event);
+        }
+    }
+
+    public void publish(TaskEvent.Kind kind, Task task) {
+        publish(kind, task.getType(), task.getId(), task);
+    }
+
+    private static Task copyOf(Task task) {
+        return switch (task.getType()) {
+            case TASK -> new Task(task);
+            case EPIC -> new Epic((Epic) task);
+            case SUBTASK -> new SubTask((SubTask) task);
+        };
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    // События с номером больше afterSequence. null, если часть из них уже вытеснена из буфера
+    // или номер из будущего (например, от предыдущего запуска сервера): клиенту нужно перечитать доску
+    public synchronized List<TaskEvent> eventsAfter(long afterSequence) {
+        if (recent == null) {
+            return afterSequence == lastSequence ? new ArrayList<>() : null;
+        }
+        long oldest = Math.max(retainedFrom, lastSequence - recent.length + 1);
+        if (afterSequence < oldest - 1 || afterSequence > lastSequence) {
+            return null;
+        }
+        List<TaskEvent> result = new ArrayList<>((int) (lastSequence - afterSequence));
+        for (long sequence = afterSequence + 1; sequence <= lastSequence; sequence++) {
+            result.add(recent[(int) ((sequence - 1) % recent.length)]);
+        }
+        return result;
+    }
+
+    public void addListener(TaskEventListener listener) {
+        listeners.add(listener);
+    }
+
+    // Атомарно отдаёт события после afterSequence и подписывает listener на следующие;
+    // null — события уже недоступны, подписка не оформлена
+    public synchronized List<TaskEvent> subscribe(TaskEventListener listener, long afterSequence) {
+        List<TaskEvent> backlog = eventsAfter(afterSequence);
+        if (backlog != null) {
+            listeners.add(listener);
+        }
+        return backlog;
+    }
+
+    public void removeListener(TaskEventListener listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,8 @@
+package manager;
+
+// Получатель событий TaskEventBus. Вызывается в потоке, выполнившем изменение,
+// под блокировкой шины, поэтому не должен блокироваться и обращаться к менеджеру
+@FunctionalInterface
+public interface TaskEventListener {
+    void onEvent(TaskEvent event);
+}
@@ -0,0 +1,91 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Журнал изменений (write-ahead log) для FileBackedTaskManager.
+ * Каждая мутация дописывает в конец файла одну строку, поэтому стоимость записи
+ * не зависит от размера доски. Чекпоинт сворачивает журнал в снимок и очищает его.
+ */
+public class TaskJournal {
+    private final Path path;
+    private int size; // количество записей с последнего чекпоинта
+
+    public TaskJournal(File file) {
+        this.path = file.toPath();
+    }
+
+    public static File journalFileFor(File snapshot) {
+        return new File(snapshot.getPath() + ".log");
+    }
+
+    public void append(String record) {
+        appendAll(List.of(record));
+    }
+
+    // Дописывает пачку записей за одно открытие файла
+    public void appendAll(List<String> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String record : records) {
+                writer.write(record);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при записи в журнал: " + path, e);
+        }
+        size += records.size();
+    }
+
+    // Записи журнала по порядку. Последняя строка без перевода строки — оборванная запись, её пропускаем
+    public List<String> readRecords() {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        try {
+            String content = Files.readString(path, StandardCharsets.UTF_8);
+            List<String> records = new ArrayList<>();
+            int from = 0;
+            int newLine;
+            while ((newLine = content.indexOf('\n', from)) >= 0) {
+                String record = content.substring(from, newLine).trim();
+                if (!record.isEmpty()) {
+                    records.add(record);
+                }
+                from = newLine + 1;
+            }
+            size = records.size();
+            return records;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении журнала: " + path, e);
+        }
+    }
+
+    public void truncate() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при очистке журнала: " + path, e);
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public File getFile() {
+        return path.toFile();
+    }
+}
@@ -2,6 +2,8 @@ package manager;
 
 import data.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 import java.util.Map;
@@ -37,8 +39,28 @@ public interface TaskManager {
 
     void deleteSubTaskById(int id);
 
+    // Подзадачи эпика по времени начала, подзадачи без времени — в конце; при равном начале по ID.
+    // Порядок общий для всех реализаций и для GET /epics/{id}/subtasks
     List<SubTask> getSubtaskByEpic(Epic epic);
 
+    // Выборки по статусу из вторичного индекса: время пропорционально размеру ответа
+    List<Task> getTasksByStatus(TaskStatus status);
+
+    List<Epic> getEpicsByStatus(TaskStatus status);
+
+    List<SubTask> getSubtasksByStatus(TaskStatus status);
+
+    // Страница по возрастанию ID: до limit элементов с ID больше afterId. Курсор следующей страницы —
+    // ID последнего элемента; вставки и удаления между запросами не сдвигают уже выданные страницы
+    List<Task> getTasksPage(int afterId, int limit);
+
+    List<Epic> getEpicsPage(int afterId, int limit);
+
+    List<SubTask> getSubtasksPage(int afterId, int limit);
+
+    // Полнотекстовый поиск по названию и описанию: все слова запроса как префиксы, лучшие limit по релевантности
+    List<Task> search(String query, int limit);
+
     void updateTask(Task task, Task newTask);
 
     void updateEpic(Epic epic, String newTitle, String newDescription);
@@ -49,6 +71,32 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    List<Task> getHistory(int offset, int limit);
+
+    List<Task> getRecentHistory(int count);
+
     List<Task> getPrioritizedTasks();
 
+    // Размеры истории и приоритетного списка за O(1), без копирования — для датчиков метрик
+    int historySize();
+
+    int prioritizedSize();
+
+    // Задачи с началом в [from, to) по порядку, не больше limit; null вместо границы — без ограничения
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit);
+
+    // Применяет пакет операций целиком или не применяет ничего (IllegalArgumentException).
+    // Возвращает ID по каждой операции: созданной задачи или той, к которой операция относилась
+    List<Integer> applyBatch(List<BatchOperation> operations);
+
+    // Самое раннее начало свободного времени длительностью duration в окне [from, to); to == null — без границы
+    Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime from, LocalDateTime to);
+
+    // Раскладывает незапланированные задачи и подзадачи по свободному времени окна [from, to) без пересечений.
+    // Найденные места применяются одним пакетом через applyBatch; не поместившиеся задачи остаются без времени
+    ScheduleResult schedule(List<Integer> ids, LocalDateTime from, LocalDateTime to, SchedulePolicy policy);
+
+    // Шина событий об изменениях задач, см. TaskEvent
+    TaskEventBus getEventBus();
+
 }
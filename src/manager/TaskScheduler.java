@@ -0,0 +1,134 @@
+package manager;
+
+import data.SubTask;
+import data.Task;
+import data.TypeTask;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Раскладка незапланированных задач по свободному времени окна, общая для InMemoryTaskManager
+ * и ConcurrentTaskManager. Свободные промежутки окна берутся из TimeIntervalIndex одним проходом,
+ * затем каждая задача встаёт в начало самого раннего промежутка, в который помещается (first fit).
+ * Наибольшая оставшаяся длина промежутков хранится в дереве отрезков, поэтому поиск места
+ * и сдвиг промежутка — O(log g), а раскладка m задач при g промежутках — O(g + m log g).
+ * Результат — обновления для applyBatch: пакет ещё раз проверяется и применяется целиком.
+ */
+final class TaskScheduler {
+    private static final long NO_GAP = -1;
+
+    private final LocalDateTime[] starts;
+    private final long[] tree; // максимум оставшейся длины промежутков в секундах на отрезке
+    private final int leaves;
+
+    private TaskScheduler(List<LocalDateTime[]> gaps) {
+        int capacity = 1;
+        while (capacity < gaps.size()) {
+            capacity <<= 1;
+        }
+        leaves = capacity;
+        starts = new LocalDateTime[gaps.size()];
+        tree = new long[2 * capacity];
+        Arrays.fill(tree, NO_GAP);
+        for (int i = 0; i < gaps.size(); i++) {
+            starts[i] = gaps.get(i)[0];
+            tree[capacity + i] = Duration.between(gaps.get(i)[0], gaps.get(i)[1]).getSeconds();
+        }
+        for (int node = capacity - 1; node > 0; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    // Пакет обновлений, назначающих задачам с ID из ids время начала внутри [from, to)
+    static Plan plan(TaskManager manager, TimeIntervalIndex index, List<Integer> ids,
+                     LocalDateTime from, LocalDateTime to, SchedulePolicy policy) {
+        if (ids == null || policy == null) {
+            throw new IllegalArgumentException("Список задач и политика не могут быть null");
+        }
+        if (to == null) {
+            throw new IllegalArgumentException("Для раскладки нужна правая граница окна");
+        }
+        List<Task> pending = new ArrayList<>(ids.size());
+        Set<Integer> seen = new HashSet<>();
+        for (Integer id : ids) {
+            if (id == null || !seen.add(id)) {
+                throw new IllegalArgumentException("ID задачи не может быть null или повторяться: " + id);
+            }
+            Task task = manager.getTasks().get(id);
+            if (task == null) {
+                task = manager.getSubtasks().get(id);
+            }
+            if (task == null) {
+                throw new IllegalArgumentException("Задача или подзадача " + id + " не найдена");
+            }
+            if (task.getStartTime() != null) {
+                throw new IllegalArgumentException("Задача " + id + " уже запланирована на " + task.getStartTime());
+            }
+            pending.add(task);
+        }
+        if (policy == SchedulePolicy.LONGEST_FIRST) {
+            // Сортировка устойчивая: задачи равной длины остаются в порядке запроса
+            pending.sort(Comparator.comparing(Task::getDuration, Comparator.nullsLast(Comparator.reverseOrder())));
+        }
+
+        TaskScheduler scheduler = new TaskScheduler(index.findFreeGaps(from, to));
+        List<BatchOperation> operations = new ArrayList<>();
+        List<Task> scheduled = new ArrayList<>();
+        List<Integer> unscheduled = new ArrayList<>();
+        for (Task task : pending) {
+            LocalDateTime start = task.getDuration() == null ? null : scheduler.place(task.getDuration());
+            if (start == null) {
+                unscheduled.add(task.getId());
+                continue;
+            }
+            Task placed = task.getType() == TypeTask.SUBTASK
+                    ? new SubTask(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                    ((SubTask) task).getEpicId(), task.getDuration(), start)
+                    : new Task(task.getTitle(), task.getDescription(), task.getStatus(), task.getId(),
+                    task.getDuration(), start);
+            operations.add(BatchOperation.update(task.getId(), placed));
+            scheduled.add(placed);
+        }
+        return new Plan(operations, new ScheduleResult(scheduled, unscheduled));
+    }
+
+    // Начало места для задачи длительностью duration или null, если ни один промежуток её не вмещает
+    private LocalDateTime place(Duration duration) {
+        long needed = duration.getSeconds() + (duration.getNano() > 0 ? 1 : 0);
+        if (starts.length == 0 || tree[1] < needed) {
+            return null;
+        }
+        int node = 1;
+        while (node < leaves) {
+            node = tree[2 * node] >= needed ? 2 * node : 2 * node + 1;
+        }
+        int gap = node - leaves;
+        LocalDateTime start = starts[gap];
+        starts[gap] = start.plus(duration);
+        tree[node] -= needed;
+        for (node >>= 1; node > 0; node >>= 1) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+        return start;
+    }
+
+    static final class Plan {
+        private final List<BatchOperation> operations;
+        private final ScheduleResult result;
+
+        private Plan(List<BatchOperation> operations, ScheduleResult result) {
+            this.operations = operations;
+            this.result = result;
+        }
+
+        List<BatchOperation> operations() {
+            return operations;
+        }
+
+        ScheduleResult result() {
+            return result;
+        }
+    }
+}
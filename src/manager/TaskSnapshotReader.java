@@ -0,0 +1,42 @@
+package manager;
+
+import data.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Потоковое чтение снимка задач независимо от его формата
+public interface TaskSnapshotReader extends Closeable {
+    // Следующая задача снимка или null в конце
+    Task next() throws IOException;
+
+    // Открывает снимок, определяя формат по первым байтам файла
+    static TaskSnapshotReader open(Path path) throws IOException {
+        return switch (detectFormat(path)) {
+            case CSV -> new TaskCsvReader(path);
+            case BINARY -> new TaskBinaryReader(path);
+            case MAPPED -> MappedTaskStore.open(path).reader();
+        };
+    }
+
+    static SnapshotFormat detectFormat(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer prefix = ByteBuffer.allocate(TaskBinaryWriter.MAGIC.length);
+            while (prefix.hasRemaining() && channel.read(prefix) > 0) {
+                // дочитываем сигнатуру
+            }
+            if (prefix.hasRemaining()) {
+                return SnapshotFormat.CSV;
+            }
+            prefix.flip();
+            if (prefix.equals(ByteBuffer.wrap(TaskBinaryWriter.MAGIC))) {
+                return SnapshotFormat.BINARY;
+            }
+            return prefix.equals(ByteBuffer.wrap(MappedTaskStore.MAGIC)) ? SnapshotFormat.MAPPED : SnapshotFormat.CSV;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package manager;
+
+import data.Task;
+import data.TypeTask;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Индекс временных интервалов задач и подзадач для проверки пересечений за O(log n + k).
+ * Интервалы хранятся в TreeMap по startTime. Все записи проходят через проверку пересечений,
+ * поэтому интервалы в индексе попарно не пересекаются: среди интервалов, начавшихся раньше
+ * кандидата, пересечься с ним может только ближайший интервал ненулевой длины.
+ * Эпики в индекс не попадают — их время вычисляется из подзадач.
+ * <p>
+ * Непересекаемость позволяет искать и свободное время: промежутки между интервалами
+ * обходятся одним проходом по TreeMap от начала окна, без сортировки и слияния.
+ */
+public class TimeIntervalIndex {
+    private final NavigableMap<LocalDateTime, List<Task>> intervals = new TreeMap<>();
+    private int size;
+
+    public static boolean isIndexable(Task task) {
+        return task != null && task.getType() != TypeTask.EPIC
+                && task.getStartTime() != null && task.getEndTime() != null;
+    }
+
+    public static boolean intersects(Task task1, Task task2) {
+        if (task1.getStartTime() == null || task1.getEndTime() == null ||
+                task2.getStartTime() == null || task2.getEndTime() == null) {
+            return false;
+        }
+        return task1.getEndTime().isAfter(task2.getStartTime()) &&
+                task1.getStartTime().isBefore(task2.getEndTime());
+    }
+
+    public void add(Task task) {
+        if (!isIndexable(task)) {
+            return;
+        }
+        intervals.computeIfAbsent(task.getStartTime(), k -> new ArrayList<>(1)).add(task);
+        size++;
+    }
+
+    public void remove(Task task) {
+        if (!isIndexable(task)) {
+            return;
+        }
+        List<Task> bucket = intervals.get(task.getStartTime());
+        if (bucket == null) {
+            return;
+        }
+        if (bucket.removeIf(t -> t.getId() == task.getId())) {
+            size--;
+        }
+        if (bucket.isEmpty()) {
+            intervals.remove(task.getStartTime());
+        }
+    }
+
+    public void removeIf(Predicate<Task> filter) {
+        Iterator<List<Task>> iterator = intervals.values().iterator();
+        while (iterator.hasNext()) {
+            List<Task> bucket = iterator.next();
+            int before = bucket.size();
+            bucket.removeIf(filter);
+            size -= before - bucket.size();
+            if (bucket.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        intervals.clear();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Первый найденный интервал, пересекающийся с кандидатом (интервал с тем же id не учитывается)
+    public Optional<Task> findIntersection(Task candidate) {
+        List<Task> found = collectIntersections(candidate, candidate == null ? 0 : candidate.getId(), true);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    public List<Task> findIntersections(Task candidate) {
+        return findIntersections(candidate, candidate == null ? 0 : candidate.getId());
+    }
+
+    // Как findIntersections(candidate), но не учитывается интервал с ID candidateId: так проверяют задачу,
+    // которая займёт этот ID только после применения, не меняя её саму
+    public List<Task> findIntersections(Task candidate, int candidateId) {
+        return collectIntersections(candidate, candidateId, false);
+    }
+
+    private List<Task> collectIntersections(Task candidate, int candidateId, boolean firstOnly) {
+        if (candidate == null || candidate.getStartTime() == null || candidate.getEndTime() == null) {
+            return List.of();
+        }
+        LocalDateTime start = candidate.getStartTime();
+        LocalDateTime end = candidate.getEndTime();
+        if (end.isBefore(start)) {
+            return List.of();
+        }
+        List<Task> result = new ArrayList<>();
+
+        // Интервалы, начинающиеся раньше кандидата: достаточно дойти до первого ненулевого
+        for (List<Task> bucket : intervals.headMap(start, false).descendingMap().values()) {
+            boolean hasLength = false;
+            for (Task task : bucket) {
+                hasLength |= task.getEndTime().isAfter(task.getStartTime());
+                if (task.getId() != candidateId && intersects(candidate, task)) {
+                    result.add(task);
+                    if (firstOnly) {
+                        return result;
+                    }
+                }
+            }
+            if (hasLength) {
+                break;
+            }
+        }
+
+        // Интервалы, начинающиеся внутри [start, end)
+        for (List<Task> bucket : intervals.subMap(start, true, end, false).values()) {
+            for (Task task : bucket) {
+                if (task.getId() != candidateId && intersects(candidate, task)) {
+                    result.add(task);
+                    if (firstOnly) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // Самое раннее начало промежутка длиной duration внутри [from, to), не пересекающего ни один интервал.
+    // to == null — окно без правой границы
+    public Optional<LocalDateTime> findFreeSlot(LocalDateTime from, LocalDateTime to, Duration duration) {
+        checkWindow(from, to);
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("Длительность должна быть неотрицательной: " + duration);
+        }
+        LocalDateTime cursor = freeFrom(from);
+        for (Map.Entry<LocalDateTime, List<Task>> entry : intervals.tailMap(cursor, true).entrySet()) {
+            LocalDateTime end = cursor.plus(duration);
+            if (to != null && end.isAfter(to)) {
+                return Optional.empty();
+            }
+            if (!end.isAfter(entry.getKey())) {
+                return Optional.of(cursor);
+            }
+            cursor = latestEnd(entry.getValue(), cursor);
+        }
+        return to == null || !cursor.plus(duration).isAfter(to) ? Optional.of(cursor) : Optional.empty();
+    }
+
+    // Свободные промежутки ненулевой длины внутри [from, to) по возрастанию: пары {начало, конец}
+    public List<LocalDateTime[]> findFreeGaps(LocalDateTime from, LocalDateTime to) {
+        checkWindow(from, to);
+        if (to == null) {
+            throw new IllegalArgumentException("Для списка промежутков нужна правая граница окна");
+        }
+        List<LocalDateTime[]> gaps = new ArrayList<>();
+        LocalDateTime cursor = freeFrom(from);
+        for (Map.Entry<LocalDateTime, List<Task>> entry : intervals.subMap(cursor, true, to, false).entrySet()) {
+            if (entry.getKey().isAfter(cursor)) {
+                gaps.add(new LocalDateTime[]{cursor, entry.getKey()});
+            }
+            cursor = latestEnd(entry.getValue(), cursor);
+        }
+        if (cursor.isBefore(to)) {
+            gaps.add(new LocalDateTime[]{cursor, to});
+        }
+        return gaps;
+    }
+
+    private static void checkWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null) {
+            throw new IllegalArgumentException("Начало окна не может быть null");
+        }
+        if (to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("Конец окна раньше начала: " + from + " > " + to);
+        }
+    }
+
+    // Момент, с которого после from свободно от интервалов, начавшихся раньше from
+    private LocalDateTime freeFrom(LocalDateTime from) {
+        LocalDateTime cursor = from;
+        for (List<Task> bucket : intervals.headMap(from, false).descendingMap().values()) {
+            boolean hasLength = false;
+            for (Task task : bucket) {
+                hasLength |= task.getEndTime().isAfter(task.getStartTime());
+            }
+            cursor = latestEnd(bucket, cursor);
+            if (hasLength) {
+                break;
+            }
+        }
+        return cursor;
+    }
+
+    private static LocalDateTime latestEnd(List<Task> bucket, LocalDateTime cursor) {
+        for (Task task : bucket) {
+            if (task.getEndTime().isAfter(cursor)) {
+                cursor = task.getEndTime();
+            }
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,94 @@
+package metrics;
+
+import data.Task;
+import manager.HistoryManager;
+
+import java.util.List;
+
+/**
+ * Декоратор HistoryManager: задержки операций истории в гистограмме
+ * kanban_history_operation_duration_seconds{operation="..."}. Размер истории отдаётся без замера:
+ * его читает датчик kanban_store_size{store="history"} при каждом GET /metrics.
+ */
+public class InstrumentedHistoryManager implements HistoryManager {
+    static final String OPERATION_DURATION = "kanban_history_operation_duration_seconds";
+
+    private final HistoryManager delegate;
+    private final LatencyHistogram addLatency;
+    private final LatencyHistogram removeLatency;
+    private final LatencyHistogram getHistoryLatency;
+    private final LatencyHistogram getHistoryPageLatency;
+    private final LatencyHistogram getRecentHistoryLatency;
+
+    public InstrumentedHistoryManager(HistoryManager delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedHistoryManager(HistoryManager delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        addLatency = operation(registry, "add");
+        removeLatency = operation(registry, "remove");
+        getHistoryLatency = operation(registry, "getHistory");
+        getHistoryPageLatency = operation(registry, "getHistoryPage");
+        getRecentHistoryLatency = operation(registry, "getRecentHistory");
+    }
+
+    private static LatencyHistogram operation(MetricsRegistry registry, String name) {
+        return registry.histogram(OPERATION_DURATION, "Задержка операций HistoryManager", "operation", name);
+    }
+
+    @Override
+    public void add(Task task) {
+        long start = System.nanoTime();
+        try {
+            delegate.add(task);
+        } finally {
+            addLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        long start = System.nanoTime();
+        try {
+            delegate.remove(id);
+        } finally {
+            removeLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getHistory();
+        } finally {
+            getHistoryLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getHistory(offset, limit);
+        } finally {
+            getHistoryPageLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public List<Task> getRecentHistory(int count) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getRecentHistory(count);
+        } finally {
+            getRecentHistoryLatency.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package metrics;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import manager.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Декоратор TaskManager, измеряющий задержку каждой операции в гистограмме
+ * kanban_manager_operation_duration_seconds{operation="..."}. Гистограммы создаются в конструкторе
+ * и хранятся в полях, так что вызов обходится двумя System.nanoTime() и записью в гистограмму.
+ * Время операции включает всё, что делает обёрнутый менеджер, в том числе запись на диск.
+ * Неудачные операции тоже учитываются: задержка отказа — часть наблюдаемого поведения.
+ */
+public class InstrumentedTaskManager implements TaskManager {
+    static final String OPERATION_DURATION = "kanban_manager_operation_duration_seconds";
+
+    private final TaskManager delegate;
+    private final LatencyHistogram addTaskLatency;
+    private final LatencyHistogram addEpicLatency;
+    private final LatencyHistogram addSubtaskLatency;
+    private final LatencyHistogram getTasksLatency;
+    private final LatencyHistogram getEpicsLatency;
+    private final LatencyHistogram getSubtasksLatency;
+    private final LatencyHistogram clearTaskLatency;
+    private final LatencyHistogram clearSubtaskLatency;
+    private final LatencyHistogram deleteEpicLatency;
+    private final LatencyHistogram getTaskByIdLatency;
+    private final LatencyHistogram getEpicByIdLatency;
+    private final LatencyHistogram getSubTaskByIdLatency;
+    private final LatencyHistogram deleteTaskByIdLatency;
+    private final LatencyHistogram deleteEpicByIdLatency;
+    private final LatencyHistogram deleteSubTaskByIdLatency;
+    private final LatencyHistogram getSubtaskByEpicLatency;
+    private final LatencyHistogram getTasksByStatusLatency;
+    private final LatencyHistogram getEpicsByStatusLatency;
+    private final LatencyHistogram getSubtasksByStatusLatency;
+    private final LatencyHistogram getTasksPageLatency;
+    private final LatencyHistogram getEpicsPageLatency;
+    private final LatencyHistogram getSubtasksPageLatency;
+    private final LatencyHistogram searchLatency;
+    private final LatencyHistogram updateTaskLatency;
+    private final LatencyHistogram updateEpicLatency;
+    private final LatencyHistogram updateSubTaskLatency;
+    private final LatencyHistogram updateEpicStatusLatency;
+    private final LatencyHistogram getHistoryLatency;
+    private final LatencyHistogram getHistoryPageLatency;
+    private final LatencyHistogram getRecentHistoryLatency;
+    private final LatencyHistogram getPrioritizedTasksLatency;
+    private final LatencyHistogram getPrioritizedTasksRangeLatency;
+    private final LatencyHistogram applyBatchLatency;
+    private final LatencyHistogram findFreeSlotLatency;
+    private final LatencyHistogram scheduleLatency;
+
+    public InstrumentedTaskManager(TaskManager delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedTaskManager(TaskManager delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        addTaskLatency = operation(registry, "addTask");
+        addEpicLatency = operation(registry, "addEpic");
+        addSubtaskLatency = operation(registry, "addSubtask");
+        getTasksLatency = operation(registry, "getTasks");
+        getEpicsLatency = operation(registry, "getEpics");
+        getSubtasksLatency = operation(registry, "getSubtasks");
+        clearTaskLatency = operation(registry, "clearTask");
+        clearSubtaskLatency = operation(registry, "clearSubtask");
+        deleteEpicLatency = operation(registry, "deleteEpic");
+        getTaskByIdLatency = operation(registry, "getTaskById");
+        getEpicByIdLatency = operation(registry, "getEpicById");
+        getSubTaskByIdLatency = operation(registry, "getSubTaskById");
+        deleteTaskByIdLatency = operation(registry, "deleteTaskById");
+        deleteEpicByIdLatency = operation(registry, "deleteEpicById");
+        deleteSubTaskByIdLatency = operation(registry, "deleteSubTaskById");
+        getSubtaskByEpicLatency = operation(registry, "getSubtaskByEpic");
+        getTasksByStatusLatency = operation(registry, "getTasksByStatus");
+        getEpicsByStatusLatency = operation(registry, "getEpicsByStatus");
+        getSubtasksByStatusLatency = operation(registry, "getSubtasksByStatus");
+        getTasksPageLatency = operation(registry, "getTasksPage");
+        getEpicsPageLatency = operation(registry, "getEpicsPage");
+        getSubtasksPageLatency = operation(registry, "getSubtasksPage");
+        searchLatency = operation(registry, "search");
+        updateTaskLatency = operation(registry, "updateTask");
+        updateEpicLatency = operation(registry, "updateEpic");
+        updateSubTaskLatency = operation(registry, "updateSubTask");
+        updateEpicStatusLatency = operation(registry, "updateEpicStatus");
+        getHistoryLatency = operation(registry, "getHistory");
+        getHistoryPageLatency = operation(registry, "getHistoryPage");
+        getRecentHistoryLatency = operation(registry, "getRecentHistory");
+        getPrioritizedTasksLatency = operation(registry, "getPrioritizedTasks");
+        getPrioritizedTasksRangeLatency = operation(registry, "getPrioritizedTasksRange");
+        applyBatchLatency = operation(registry, "applyBatch");
+        findFreeSlotLatency = operation(registry, "findFreeSlot");
+        scheduleLatency = operation(registry, "schedule");
+    }
+
+    private static LatencyHistogram operation(MetricsRegistry registry, String name) {
+        return registry.histogram(OPERATION_DURATION, "Задержка операций TaskManager", "operation", name);
+    }
+
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void addTask(Task task) {
+        long start = System.nanoTime();
+        try {
+            delegate.addTask(task);
+        } finally {
+            addTaskLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void addEpic(Epic epic) {
+        long start = System.nanoTime();
+        try {
+            delegate.addEpic(epic);
+        } finally {
+            addEpicLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void addSubtask(SubTask subtask) {
+        long start = System.nanoTime();
+        try {
+            delegate.addSubtask(subtask);
+        } finally {
+            addSubtaskLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Map<Integer, Task> getTasks() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getTasks();
+        } finally {
+            getTasksLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Map<Integer, Epic> getEpics() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getEpics();
+        } finally {
+            getEpicsLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Map<Integer, SubTask> getSubtasks() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSubtasks();
+        } finally {
+            getSubtasksLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void clearTask() {
+        long start = System.nanoTime();
+        try {
+            delegate.clearTask();
+        } finally {
+            clearTaskLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void clearSubtask() {
+        long start = System.nanoTime();
+        try {
+            delegate.clearSubtask();
+        } finally {
+            clearSubtaskLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void deleteEpic() {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteEpic();
+        } finally {
+            deleteEpicLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Optional<Task> getTaskById(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getTaskById(id);
+        } finally {
+            getTaskByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getEpicById(id);
+        } finally {
+            getEpicByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Optional<SubTask> getSubTaskById(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSubTaskById(id);
+        } finally {
+            getSubTaskByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteTaskById(id);
+        } finally {
+            deleteTaskByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteEpicById(id);
+        } finally {
+            deleteEpicByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void deleteSubTaskById(int id) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteSubTaskById(id);
+        } finally {
+            deleteSubTaskByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<SubTask> getSubtaskByEpic(Epic epic) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSubtaskByEpic(epic);
+        } finally {
+            getSubtaskByEpicLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getTasksByStatus(status);
+        } finally {
+            getTasksByStatusLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getEpicsByStatus(status);
+        } finally {
+            getEpicsByStatusLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<SubTask> getSubtasksByStatus(TaskStatus status) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSubtasksByStatus(status);
+        } finally {
+            getSubtasksByStatusLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getTasksPage(afterId, limit);
+        } finally {
+            getTasksPageLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getEpicsPage(afterId, limit);
+        } finally {
+            getEpicsPageLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<SubTask> getSubtasksPage(int afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSubtasksPage(afterId, limit);
+        } finally {
+            getSubtasksPageLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.search(query, limit);
+        } finally {
+            searchLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateTask(Task task, Task newTask) {
+        long start = System.nanoTime();
+        try {
+            delegate.updateTask(task, newTask);
+        } finally {
+            updateTaskLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateEpic(Epic epic, String newTitle, String newDescription) {
+        long start = System.nanoTime();
+        try {
+            delegate.updateEpic(epic, newTitle, newDescription);
+        } finally {
+            updateEpicLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateSubTask(SubTask subTask, SubTask newSubTask) {
+        long start = System.nanoTime();
+        try {
+            delegate.updateSubTask(subTask, newSubTask);
+        } finally {
+            updateSubTaskLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateEpicStatus(Epic epic) {
+        long start = System.nanoTime();
+        try {
+            delegate.updateEpicStatus(epic);
+        } finally {
+            updateEpicStatusLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getHistory();
+        } finally {
+            getHistoryLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getHistory(offset, limit);
+        } finally {
+            getHistoryPageLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getRecentHistory(int count) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getRecentHistory(count);
+        } finally {
+            getRecentHistoryLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPrioritizedTasks();
+        } finally {
+            getPrioritizedTasksLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPrioritizedTasks(from, to, limit);
+        } finally {
+            getPrioritizedTasksRangeLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) {
+        long start = System.nanoTime();
+        try {
+            return delegate.applyBatch(operations);
+        } finally {
+            applyBatchLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> findFreeSlot(Duration duration, LocalDateTime from, LocalDateTime to) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findFreeSlot(duration, from, to);
+        } finally {
+            findFreeSlotLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public ScheduleResult schedule(List<Integer> ids, LocalDateTime from, LocalDateTime to, SchedulePolicy policy) {
+        long start = System.nanoTime();
+        try {
+            return delegate.schedule(ids, from, to, policy);
+        } finally {
+            scheduleLatency.recordSince(start);
+        }
+    }
+
+    // Размеры читают датчики метрик при каждом GET /metrics; их задержку не замеряем
+    @Override
+    public int historySize() {
+        return delegate.historySize();
+    }
+
+    @Override
+    public int prioritizedSize() {
+        return delegate.prioritizedSize();
+    }
+
+    @Override
+    public TaskEventBus getEventBus() {
+        return delegate.getEventBus();
+    }
+}
@@ -0,0 +1,103 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма задержек в наносекундах с логарифмически-линейными корзинами, как в HdrHistogram:
+ * каждая октава [2^e, 2^(e+1)) делится на SUB_BUCKETS равных корзин, так что относительная
+ * погрешность не больше 1/SUB_BUCKETS (6,25%) при любом порядке величин. Запись — вычисление
+ * номера корзины и два LongAdder.increment, без блокировок и аллокаций; параллельные записи
+ * не мешают друг другу.
+ * Для экспозиции корзины сворачиваются до границ октав, квантили считаются по полным корзинам.
+ */
+public final class LatencyHistogram {
+    static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4; // log2(SUB_BUCKETS)
+    private static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKET_COUNT];
+    private final LongAdder sum = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)].increment();
+        sum.add(value);
+    }
+
+    // Записывает время, прошедшее с startNanos (значение System.nanoTime() в начале операции)
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Верхняя (исключённая) граница корзины
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long upper = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << (exponent - SUB_BITS);
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    // Число записей меньше 2^exponent наносекунд
+    public long countBelowPowerOfTwo(int exponent) {
+        int limit = exponent <= SUB_BITS ? Math.min(BUCKET_COUNT, 1 << exponent) : (exponent - SUB_BITS + 1) * SUB_BUCKETS;
+        long count = 0;
+        for (int i = 0; i < Math.min(limit, BUCKET_COUNT); i++) {
+            count += counts[i].sum();
+        }
+        return count;
+    }
+
+    // Значение, не меньше которого percentile процентов записей, с точностью до корзины; 0 без записей
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Перцентиль должен быть от 0 до 100: " + percentile);
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts[i].sum();
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+}
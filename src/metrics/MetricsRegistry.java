@@ -0,0 +1,135 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Реестр метрик: счётчики, гистограммы задержек и датчики, сгруппированные в семейства по имени,
+ * с метками вида operation="addTask". Метрика создаётся один раз и кешируется вызывающим,
+ * поэтому на горячем пути нет ни поиска в реестре, ни склейки строк. scrape() отдаёт всё
+ * в текстовом формате Prometheus (text exposition 0.0.4); семейства и серии упорядочены по имени.
+ * Процессу обычно хватает общего реестра getDefault(); отдельный экземпляр удобен в тестах.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    // Границы корзин в экспозиции — степени двойки наносекунд: от ~1 мкс до ~34 с
+    private static final int MIN_EXPONENT = 10;
+    private static final int MAX_EXPONENT = 35;
+
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+
+        private final String exposition;
+
+        Type(String exposition) {
+            this.exposition = exposition;
+        }
+    }
+
+    private static final class Family {
+        private final Type type;
+        private final String help;
+        private final Map<String, Object> series = new ConcurrentSkipListMap<>(); // метки → метрика
+
+        private Family(Type type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // labels — пары имя, значение: counter("kanban_requests_total", "...", "route", "/tasks")
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, Type.COUNTER).series
+                .computeIfAbsent(renderLabels(labels), key -> new LongAdder());
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series
+                .computeIfAbsent(renderLabels(labels), key -> new LatencyHistogram());
+    }
+
+    // Значение датчика читается при каждом scrape(); повторная регистрация заменяет прежний источник
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(renderLabels(labels), value);
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(type, help));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Метрика " + name + " уже зарегистрирована как " + family.type);
+        }
+        return family;
+    }
+
+    private static String renderLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Метки задаются парами имя, значение");
+        }
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\' -> result.append("\\\\");
+                    case '"' -> result.append("\\\"");
+                    case '\n' -> result.append("\\n");
+                    default -> result.append(c);
+                }
+            }
+            result.append('"');
+        }
+        return result.append('}').toString();
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        families.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type.exposition).append('\n');
+            family.series.forEach((labels, metric) -> {
+                switch (family.type) {
+                    case COUNTER -> sample(out, name, labels, Long.toString(((LongAdder) metric).sum()));
+                    case GAUGE -> sample(out, name, labels, Long.toString(((LongSupplier) metric).getAsLong()));
+                    case HISTOGRAM -> writeHistogram(out, name, labels, (LatencyHistogram) metric);
+                }
+            });
+        });
+        return out.toString();
+    }
+
+    // Задержки отдаются в секундах, как принято в Prometheus; корзины кумулятивные
+    private static void writeHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        String prefix = labels.isEmpty() ? "{" : labels.substring(0, labels.length() - 1) + ",";
+        long below = 0;
+        for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+            String le = Double.toString((1L << exponent) / 1e9);
+            below = histogram.countBelowPowerOfTwo(exponent);
+            sample(out, name + "_bucket", prefix + "le=\"" + le + "\"}", Long.toString(below));
+        }
+        // Записи, пришедшие во время обхода, не должны сделать +Inf меньше последней корзины
+        long count = Math.max(below, histogram.getCount());
+        sample(out, name + "_bucket", prefix + "le=\"+Inf\"}", Long.toString(count));
+        sample(out, name + "_sum", labels, Double.toString(histogram.getSum() / 1e9));
+        sample(out, name + "_count", labels, Long.toString(count));
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String value) {
+        out.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+}
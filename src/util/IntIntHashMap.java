@@ -0,0 +1,155 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Отображение int → int на открытой адресации с линейным пробированием.
+ * Ключи и значения лежат в двух примитивных массивах, без упаковки в Integer и без узлов.
+ * Удаление сдвигает следующие элементы цепочки назад, поэтому «надгробий» не остаётся
+ * и поиск не деградирует после долгой серии вставок и удалений.
+ */
+public class IntIntHashMap {
+    public static final int NO_VALUE = -1;
+    private static final int EMPTY = 0; // в массиве values хранится value + 1, ноль — свободная ячейка
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // Значение по ключу или NO_VALUE. Хранимые значения должны быть неотрицательными
+    public int get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? NO_VALUE : values[index] - 1;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    // Возвращает предыдущее значение или NO_VALUE
+    public int put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Значение не может быть отрицательным: " + value);
+        }
+        int index = hash(key) & mask;
+        while (values[index] != EMPTY) {
+            if (keys[index] == key) {
+                int previous = values[index] - 1;
+                values[index] = value + 1;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value + 1;
+        if (++size > (mask + 1) / 2) {
+            resize();
+        }
+        return NO_VALUE;
+    }
+
+    // Возвращает удалённое значение или NO_VALUE
+    public int remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return NO_VALUE;
+        }
+        int removed = values[index] - 1;
+        shiftBack(index);
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, EMPTY);
+        size = 0;
+    }
+
+    // Обход пар без упаковки; изменять отображение во время обхода нельзя
+    public void forEach(IntIntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != EMPTY) {
+                action.accept(keys[i], values[i] - 1);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    private int indexOf(int key) {
+        int index = hash(key) & mask;
+        while (values[index] != EMPTY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Освобождает ячейку и переносит назад элементы, которые иначе стали бы недостижимы
+    private void shiftBack(int hole) {
+        int index = hole;
+        while (true) {
+            index = (index + 1) & mask;
+            if (values[index] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[index]) & mask;
+            // Элемент можно перенести в дыру, только если его исходная ячейка не лежит между дырой и им
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+        }
+        values[hole] = EMPTY;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // Перемешивание битов, чтобы последовательные ID не образовывали длинных цепочек
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,370 @@
+package util;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Отображение int → объект на открытой адресации: ключи лежат в int[], значения — в Object[],
+ * без упаковки ключей в Integer и без узла на каждую запись, как в HashMap.
+ * Примитивные методы get(int), put(int, V), remove(int) работают без аллокаций,
+ * а сам класс реализует Map&lt;Integer, V&gt;, поэтому может отдаваться наружу как обычная Map.
+ * Удалённые ячейки помечаются «надгробием», так что удаление через итератор безопасно;
+ * надгробия вычищаются при перестроении таблицы. Значения null не поддерживаются.
+ */
+public class IntObjectHashMap<V> extends AbstractMap<Integer, V> {
+    private static final Object TOMBSTONE = new Object();
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values; // null — свободная ячейка, TOMBSTONE — удалённая
+    private int mask;
+    private int size;
+    private int occupied; // живые записи и надгробия
+    private int modCount;
+
+    private Set<Entry<Integer, V>> entrySet;
+    private Collection<V> valuesView;
+
+    public IntObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        occupied = size;
+    }
+
+    // Как в HashMap: последовательные ID попадают в соседние ячейки и обходятся по возрастанию
+    private static int hash(int key) {
+        return key ^ (key >>> 16);
+    }
+
+    private int indexOf(int key) {
+        int index = hash(key) & mask;
+        Object value;
+        while ((value = values[index]) != null) {
+            if (value != TOMBSTONE && keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        int index = hash(key) & mask;
+        int tombstone = -1;
+        Object current;
+        while ((current = values[index]) != null) {
+            if (current == TOMBSTONE) {
+                if (tombstone < 0) {
+                    tombstone = index;
+                }
+            } else if (keys[index] == key) {
+                values[index] = value;
+                return (V) current;
+            }
+            index = (index + 1) & mask;
+        }
+        if (tombstone >= 0) {
+            index = tombstone; // занимаем надгробие, occupied не меняется
+        } else {
+            occupied++;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        modCount++;
+        if (occupied > (mask + 1) * 3L / 4) {
+            // Если таблицу забили надгробия, перестраиваем её в том же размере
+            rehash(size > (mask + 1) / 2 ? (mask + 1) * 2 : mask + 1);
+        }
+        return null;
+    }
+
+    public V computeIfAbsent(int key, IntFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V removed = (V) values[index];
+        removeAt(index);
+        return removed;
+    }
+
+    private void removeAt(int index) {
+        values[index] = TOMBSTONE;
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            Object value = oldValues[i];
+            if (value != null && value != TOMBSTONE) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (occupied == 0) {
+            return;
+        }
+        Arrays.fill(values, null);
+        size = 0;
+        occupied = 0;
+        modCount++;
+    }
+
+    // Методы Map<Integer, V> делегируют примитивным
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super V> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value != null && value != TOMBSTONE) {
+                action.accept(keys[i], (V) value);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    return new SlotIterator<>() {
+                        @Override
+                        Entry<Integer, V> element(int index) {
+                            return new SlotEntry(index);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    IntObjectHashMap.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    // Значения обходятся прямо по массиву, без создания Entry на каждый элемент
+    @Override
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new AbstractCollection<>() {
+                @SuppressWarnings("unchecked")
+                @Override
+                public Iterator<V> iterator() {
+                    return new SlotIterator<>() {
+                        @Override
+                        V element(int index) {
+                            return (V) values[index];
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    IntObjectHashMap.this.clear();
+                }
+            };
+        }
+        return valuesView;
+    }
+
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        private int next = advance(0);
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        private int advance(int from) {
+            int index = from;
+            while (index < values.length && (values[index] == null || values[index] == TOMBSTONE)) {
+                index++;
+            }
+            return index;
+        }
+
+        abstract E element(int index);
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= values.length) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = advance(next + 1);
+            return element(current);
+        }
+
+        // Надгробие не сдвигает другие записи, поэтому обход продолжается с того же места
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(current);
+            expectedModCount = modCount;
+            current = -1;
+        }
+    }
+
+    private class SlotEntry implements Entry<Integer, V> {
+        private final int index;
+        private final int key;
+
+        SlotEntry(int index) {
+            this.index = index;
+            this.key = keys[index];
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V getValue() {
+            return (V) values[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V setValue(V value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Значение не может быть null");
+            }
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> entry
+                    && Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
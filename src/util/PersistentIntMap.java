@@ -0,0 +1,263 @@
+package util;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Неизменяемое отображение неотрицательный int → объект на префиксном дереве с ветвлением 32,
+ * как PersistentVector в Clojure: ключ разбивается на 5-битные цифры от старших к младшим.
+ * with и without возвращают новую версию, копируя только узлы на пути от корня — не больше
+ * семи массивов по 32 ссылки; остальные узлы общие со старой версией, которая остаётся валидной.
+ * Высота дерева растёт с максимальным ключом, поэтому плотные ID задач дают неглубокое дерево,
+ * а обход идёт по возрастанию ключей. Как Map&lt;Integer, V&gt; доступно только для чтения;
+ * значения null не поддерживаются.
+ */
+public final class PersistentIntMap<V> extends AbstractMap<Integer, V> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final int MAX_SHIFT = 30; // 31 бит неотрицательного ключа — семь уровней
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0, 0);
+
+    private final Object[] root; // на уровне 0 — значения, выше — дочерние узлы; null — пустое поддерево
+    private final int shift; // сдвиг цифры корня
+    private final int size;
+
+    private Set<Entry<Integer, V>> entrySet;
+    private Collection<V> valuesView;
+
+    private PersistentIntMap(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key < 0 || root == null || (shift < MAX_SHIFT && key >>> (shift + BITS) != 0)) {
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(key >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (V) node[key & MASK];
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public PersistentIntMap<V> with(int key, V value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Ключ не может быть отрицательным: " + key);
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        V previous = get(key);
+        if (previous == value) {
+            return this;
+        }
+        Object[] newRoot = root;
+        int newShift = root == null ? 0 : shift;
+        // Ключ не помещается в дерево — добавляем уровни над прежним корнем
+        while (newShift < MAX_SHIFT && key >>> (newShift + BITS) != 0) {
+            if (newRoot != null) {
+                Object[] parent = new Object[WIDTH];
+                parent[0] = newRoot;
+                newRoot = parent;
+            }
+            newShift += BITS;
+        }
+        return new PersistentIntMap<>(withIn(newRoot, newShift, key, value), newShift,
+                previous == null ? size + 1 : size);
+    }
+
+    private static Object[] withIn(Object[] node, int level, int key, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int index = (key >>> level) & MASK;
+        copy[index] = level == 0 ? value : withIn((Object[]) copy[index], level - BITS, key, value);
+        return copy;
+    }
+
+    public PersistentIntMap<V> without(int key) {
+        if (get(key) == null) {
+            return this;
+        }
+        if (size == 1) {
+            return empty();
+        }
+        return new PersistentIntMap<>(withoutIn(root, shift, key), shift, size - 1);
+    }
+
+    // Опустевший узел заменяется null, чтобы удалённые ключи не держали память
+    private static Object[] withoutIn(Object[] node, int level, int key) {
+        int index = (key >>> level) & MASK;
+        Object child = level == 0 ? null : withoutIn((Object[]) node[index], level - BITS, key);
+        Object[] copy = node.clone();
+        copy[index] = child;
+        for (Object slot : copy) {
+            if (slot != null) {
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super V> action) {
+        if (root != null) {
+            forEachIn(root, shift, 0, action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEachIn(Object[] node, int level, int prefix, BiConsumer<? super Integer, ? super V> action) {
+        for (int i = 0; i < WIDTH; i++) {
+            Object slot = node[i];
+            if (slot == null) {
+                continue;
+            }
+            int key = prefix | (i << level);
+            if (level == 0) {
+                action.accept(key, (V) slot);
+            } else {
+                forEachIn((Object[]) slot, level - BITS, key, action);
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    return new LeafIterator<>() {
+                        @Override
+                        Entry<Integer, V> element(int key, V value) {
+                            return new SimpleImmutableEntry<>(key, value);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new AbstractCollection<>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new LeafIterator<>() {
+                        @Override
+                        V element(int key, V value) {
+                            return value;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return valuesView;
+    }
+
+    // Обход листьев по возрастанию ключей со стеком позиций на каждом уровне; remove не поддерживается
+    private abstract class LeafIterator<E> implements Iterator<E> {
+        private final Object[][] nodes = new Object[MAX_SHIFT / BITS + 1][];
+        private final int[] positions = new int[MAX_SHIFT / BITS + 1];
+        private int depth = -1; // уровень стека, на котором ищется следующий элемент
+        private int remaining = size;
+
+        LeafIterator() {
+            if (root != null) {
+                depth = 0;
+                nodes[0] = root;
+            }
+        }
+
+        abstract E element(int key, V value);
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            while (true) {
+                int level = shift - depth * BITS;
+                int position = positions[depth];
+                if (position == WIDTH) {
+                    depth--; // узел пройден, возвращаемся к родителю
+                    continue;
+                }
+                positions[depth]++;
+                Object slot = nodes[depth][position];
+                if (slot == null) {
+                    continue;
+                }
+                if (level == 0) {
+                    remaining--;
+                    return element(keyAt(), (V) slot);
+                }
+                depth++;
+                nodes[depth] = (Object[]) slot;
+                positions[depth] = 0;
+            }
+        }
+
+        // Ключ текущего листа собирается из позиций на всех уровнях стека
+        private int keyAt() {
+            int key = 0;
+            for (int i = 0; i <= depth; i++) {
+                key |= (positions[i] - 1) << (shift - i * BITS);
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Неизменяемое упорядоченное множество на декартовом дереве (treap) со случайными приоритетами.
+ * with и without возвращают новую версию за ожидаемые O(log n), копируя только узлы на пути
+ * к изменённому месту; остальное дерево общее со старой версией. Элементы сравниваются компаратором,
+ * поэтому поля, от которых он зависит, не должны меняться, пока элемент лежит в множестве.
+ */
+public final class PersistentSortedSet<T> {
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private final Node<T> left;
+        private final Node<T> right;
+
+        private Node(T value, int priority, Node<T> left, Node<T> right) {
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    // Результат split: элементы меньше и больше разделяющего значения
+    private record Split<T>(Node<T> left, Node<T> right) {
+    }
+
+    private final Comparator<? super T> comparator;
+    private final Node<T> root;
+    private final int size;
+    private List<T> list; // лениво собранный список элементов; гонка при сборке безопасна
+
+    private PersistentSortedSet(Comparator<? super T> comparator, Node<T> root, int size) {
+        this.comparator = comparator;
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> PersistentSortedSet<T> empty(Comparator<? super T> comparator) {
+        return new PersistentSortedSet<>(comparator, null, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    // Равный по компаратору элемент заменяется новым
+    public PersistentSortedSet<T> with(T value) {
+        if (contains(value)) {
+            return new PersistentSortedSet<>(comparator, replace(root, value), size);
+        }
+        return new PersistentSortedSet<>(comparator, insert(root, value, ThreadLocalRandom.current().nextInt()),
+                size + 1);
+    }
+
+    public PersistentSortedSet<T> without(T value) {
+        if (!contains(value)) {
+            return this;
+        }
+        return new PersistentSortedSet<>(comparator, remove(root, value), size - 1);
+    }
+
+    private Node<T> replace(Node<T> node, T value) {
+        int cmp = comparator.compare(value, node.value);
+        if (cmp == 0) {
+            return new Node<>(value, node.priority, node.left, node.right);
+        }
+        return cmp < 0 ? new Node<>(node.value, node.priority, replace(node.left, value), node.right)
+                : new Node<>(node.value, node.priority, node.left, replace(node.right, value));
+    }
+
+    // Вызывается только для отсутствующего элемента
+    private Node<T> insert(Node<T> node, T value, int priority) {
+        if (node == null) {
+            return new Node<>(value, priority, null, null);
+        }
+        if (priority > node.priority) {
+            Split<T> parts = split(node, value);
+            return new Node<>(value, priority, parts.left(), parts.right());
+        }
+        return comparator.compare(value, node.value) < 0
+                ? new Node<>(node.value, node.priority, insert(node.left, value, priority), node.right)
+                : new Node<>(node.value, node.priority, node.left, insert(node.right, value, priority));
+    }
+
+    // Делит дерево на элементы меньше value и больше value
+    private Split<T> split(Node<T> node, T value) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (comparator.compare(value, node.value) < 0) {
+            Split<T> parts = split(node.left, value);
+            return new Split<>(parts.left(), new Node<>(node.value, node.priority, parts.right(), node.right));
+        }
+        Split<T> parts = split(node.right, value);
+        return new Split<>(new Node<>(node.value, node.priority, node.left, parts.left()), parts.right());
+    }
+
+    // Вызывается только для присутствующего элемента
+    private Node<T> remove(Node<T> node, T value) {
+        int cmp = comparator.compare(value, node.value);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        return cmp < 0 ? new Node<>(node.value, node.priority, remove(node.left, value), node.right)
+                : new Node<>(node.value, node.priority, node.left, remove(node.right, value));
+    }
+
+    // Все элементы left меньше всех элементов right
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return new Node<>(left.value, left.priority, left.left, merge(left.right, right));
+        }
+        return new Node<>(right.value, right.priority, merge(left, right.left), right.right);
+    }
+
+    // Элементы по возрастанию в неизменяемом списке; собирается один раз на версию
+    public List<T> toList() {
+        List<T> result = list;
+        if (result == null) {
+            List<T> elements = new ArrayList<>(size);
+            forEachFrom(null, elements::add);
+            result = Collections.unmodifiableList(elements);
+            list = result;
+        }
+        return result;
+    }
+
+    // Обходит элементы не меньше from (null — с первого) по возрастанию, пока action возвращает true
+    public void forEachFrom(T from, Predicate<? super T> action) {
+        visit(root, from, action);
+    }
+
+    private boolean visit(Node<T> node, T from, Predicate<? super T> action) {
+        if (node == null) {
+            return true;
+        }
+        if (from != null && comparator.compare(node.value, from) < 0) {
+            return visit(node.right, from, action); // левое поддерево целиком меньше from
+        }
+        return visit(node.left, from, action) && action.test(node.value) && visit(node.right, null, action);
+    }
+}
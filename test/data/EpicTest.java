@@ -0,0 +1,41 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpicTest {
+
+    @Test
+    void testSubtaskIdsAreKeptInIdOrder() {
+        Epic epic = new Epic(1, "Epic", "Description", TaskStatus.NEW);
+        epic.addSubtaskId(7);
+        epic.addSubtaskId(3);
+        epic.addSubtaskId(5);
+        epic.addSubtaskId(3);
+        assertEquals(List.of(3, 5, 7), epic.getSubTaskIds());
+
+        epic.removeSubTaskId(5);
+        epic.removeSubTaskId(42);
+        assertEquals(List.of(3, 7), epic.getSubTaskIds());
+        assertThrows(UnsupportedOperationException.class, () -> epic.getSubTaskIds().add(9));
+        assertThrows(IllegalArgumentException.class, () -> epic.addSubtaskId(1));
+    }
+
+    @Test
+    void testCopyIsIndependentOfOriginal() {
+        Epic epic = new Epic(1, "Epic", "Description", TaskStatus.NEW);
+        epic.addSubtaskId(2);
+        List<Integer> before = epic.getSubTaskIds();
+
+        Epic copy = new Epic(epic);
+        epic.addSubtaskId(3);
+        copy.removeSubTaskId(2);
+
+        assertEquals(List.of(2, 3), epic.getSubTaskIds());
+        assertTrue(copy.getSubTaskIds().isEmpty());
+        assertEquals(List.of(2), before, "Returned list should not change with the epic");
+    }
+}
@@ -2,6 +2,10 @@ package data;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TaskTest {
@@ -23,4 +27,34 @@ class TaskTest {
         task.setId(148);
         assertEquals(148, task.getId(), "установка ID таксков работает не корректно");
     }
-}
\ No newline at end of file
+
+    @Test
+    void hashCodeDoesNotChangeWhenTaskIsEdited() {
+        Task task = new Task("Task1", "paint green button", TaskStatus.NEW);
+        task.setId(5);
+        Set<Task> index = new HashSet<>(Set.of(task));
+        int hash = task.hashCode();
+
+        task.setStatus(TaskStatus.DONE);
+        task.setStartTime(LocalDateTime.of(2025, 3, 12, 10, 0));
+        task.setDescription("paint red button");
+
+        assertEquals(hash, task.hashCode(), "Хеш не должен зависеть от изменяемых полей");
+        assertTrue(index.contains(task), "Отредактированная задача должна находиться в HashSet");
+    }
+
+    @Test
+    void subTasksWithDifferentIdsHaveDifferentHashes() {
+        Set<Integer> hashes = new HashSet<>();
+        for (int id = 1; id <= 100; id++) {
+            SubTask subTask = new SubTask("Sub", "Desc", TaskStatus.NEW, 1000, null, null);
+            subTask.setId(id);
+            hashes.add(subTask.hashCode());
+        }
+        assertEquals(100, hashes.size(), "Хеш подзадачи должен зависеть от её ID");
+
+        Task task = new Task(7, "Same id", "Desc", TaskStatus.NEW);
+        SubTask subTask = new SubTask(7, "Same id", "Desc", TaskStatus.NEW, 1, null, null);
+        assertNotEquals(task, subTask, "Задачи разных типов не равны даже при одинаковом ID");
+    }
+}
@@ -0,0 +1,102 @@
+package httpservice;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import manager.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchHandlerTest {
+    private HttpTaskServer server;
+    private HttpClient client;
+    private TaskManager taskManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new HttpTaskServer();
+        taskManager = server.getTaskManager();
+        server.start();
+
+        client = HttpClient.newHttpClient();
+
+        taskManager.clearTask();
+        taskManager.clearSubtask();
+        taskManager.deleteEpic();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> postBatch(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/batch"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testPostBatchAppliesAllOperations() throws IOException, InterruptedException {
+        Task existing = new Task("Existing", "Desc", TaskStatus.NEW);
+        taskManager.addTask(existing);
+        String body = "["
+                + "{\"op\": \"create\", \"task\": {\"type\": \"EPIC\", \"title\": \"Epic\", \"description\": \"Desc\"}},"
+                + "{\"op\": \"create\", \"epicRef\": 0, \"task\": {\"type\": \"SUBTASK\", \"title\": \"Sub\","
+                + " \"description\": \"Desc\", \"status\": \"DONE\", \"duration\": 30,"
+                + " \"startTime\": \"12-03-2025 10:00:00\"}},"
+                + "{\"op\": \"delete\", \"type\": \"TASK\", \"id\": " + existing.getId() + "}"
+                + "]";
+
+        HttpResponse<String> response = postBatch(body);
+
+        assertEquals(201, response.statusCode(), response.body());
+        assertTrue(taskManager.getTasks().isEmpty(), "Deleted task should be gone");
+        assertEquals(1, taskManager.getEpics().size());
+        Epic epic = taskManager.getEpics().values().iterator().next();
+        SubTask sub = taskManager.getSubtasks().values().iterator().next();
+        assertEquals(epic.getId(), sub.getEpicId(), "Subtask should be linked to the epic of the same batch");
+        assertEquals(TaskStatus.DONE, epic.getStatus());
+        assertTrue(response.body().contains(String.valueOf(sub.getId())), "Response should list created IDs");
+    }
+
+    @Test
+    void testPostBatchWithOverlapIsRejected() throws IOException, InterruptedException {
+        Task existing = new Task("Existing", "Desc", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 3, 12, 9, 0));
+        taskManager.addTask(existing);
+        String body = "["
+                + "{\"op\": \"create\", \"task\": {\"type\": \"TASK\", \"title\": \"Free\", \"description\": \"Desc\","
+                + " \"status\": \"NEW\"}},"
+                + "{\"op\": \"create\", \"task\": {\"type\": \"TASK\", \"title\": \"Overlap\", \"description\": \"Desc\","
+                + " \"status\": \"NEW\", \"duration\": 30, \"startTime\": \"12-03-2025 09:30:00\"}}"
+                + "]";
+
+        HttpResponse<String> response = postBatch(body);
+
+        assertEquals(400, response.statusCode(), response.body());
+        assertTrue(response.body().contains("Overlap"), "Response should name the conflicting task");
+        assertEquals(1, taskManager.getTasks().size(), "Rejected batch should not create any task");
+    }
+
+    @Test
+    void testPostMalformedBatchReturnsBadRequest() throws IOException, InterruptedException {
+        assertEquals(400, postBatch("{\"op\": \"create\"}").statusCode(), "Body should be an array");
+        assertEquals(400, postBatch("[{\"op\": \"move\", \"task\": {\"type\": \"TASK\", \"title\": \"T\","
+                + " \"description\": \"D\", \"status\": \"NEW\"}}]").statusCode(), "Unknown op should be rejected");
+    }
+}
@@ -0,0 +1,105 @@
+package httpservice;
+
+import data.Task;
+import data.TaskStatus;
+import manager.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventsHandlerTest {
+    private HttpTaskServer server;
+    private HttpClient client;
+    private TaskManager taskManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new HttpTaskServer();
+        taskManager = server.getTaskManager();
+        server.start();
+
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<Stream<String>> openStream(String query) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/events" + query))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofLines());
+    }
+
+    // Строки до конца очередного события (пустой строки) с ограничением по времени
+    private static List<String> readEvent(Iterator<String> lines) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            List<String> event = new ArrayList<>();
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.isEmpty()) {
+                    break;
+                }
+                event.add(line);
+            }
+            return event;
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testResumeSendsMissedAndLiveEvents() throws Exception {
+        Task first = new Task("First", "Desc", TaskStatus.NEW);
+        taskManager.addTask(first);
+        long resumeFrom = taskManager.getEventBus().getLastSequence() - 1;
+
+        HttpResponse<Stream<String>> response = openStream("?after=" + resumeFrom);
+        assertEquals(200, response.statusCode());
+        assertEquals("text/event-stream; charset=UTF-8", response.headers().firstValue("Content-Type").orElse(""));
+        Iterator<String> lines = response.body().iterator();
+
+        List<String> missed = readEvent(lines);
+        assertEquals("id: " + (resumeFrom + 1), missed.get(0));
+        assertEquals("event: created", missed.get(1));
+        assertTrue(missed.get(2).contains("\"First\""), "Missed event should carry the task");
+
+        Task second = new Task("Second", "Desc", TaskStatus.NEW);
+        taskManager.addTask(second);
+        List<String> live = readEvent(lines);
+        assertEquals("id: " + (resumeFrom + 2), live.get(0));
+        assertTrue(live.get(2).contains("\"id\":" + second.getId()), "Live event should describe the new task");
+        response.body().close();
+    }
+
+    @Test
+    void testUnknownSequenceRequestsReset() throws Exception {
+        HttpResponse<Stream<String>> response = openStream("?after=" + (taskManager.getEventBus().getLastSequence() + 100));
+        List<String> event = readEvent(response.body().iterator());
+        assertEquals("event: reset", event.get(0));
+    }
+
+    @Test
+    void testInvalidSequenceIsRejected() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/events?after=abc"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+}
@@ -88,4 +88,31 @@ public class HistoryHandlerTest {
         assertEquals(200, response.statusCode());
         assertEquals("[]", response.body());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetHistoryPageAndLastViews() throws IOException, InterruptedException {
+        for (int i = 1; i <= 3; i++) {
+            Task task = new Task("Task " + i, "Task Description", TaskStatus.NEW);
+            taskManager.addTask(task);
+            taskManager.getTaskById(task.getId());
+        }
+
+        HttpResponse<String> last = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/history?last=1")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, last.statusCode());
+        assertTrue(last.body().contains("\"title\": \"Task 3\""), "Last view should be Task 3");
+        assertFalse(last.body().contains("\"title\": \"Task 1\""), "Older views should be skipped");
+
+        HttpResponse<String> page = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/history?offset=1&limit=1")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, page.statusCode());
+        assertTrue(page.body().contains("\"title\": \"Task 2\""), "Second page item should be Task 2");
+
+        HttpResponse<String> invalid = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/history?limit=-1")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, invalid.statusCode());
+    }
+}
@@ -0,0 +1,129 @@
+package httpservice;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import manager.ConcurrentTaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpTaskServerTest {
+    private static final int PORT = 8081;
+    private HttpTaskServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + PORT + path))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testVirtualThreadModeServesConcurrentRequests() throws Exception {
+        server = new HttpTaskServer(new ConcurrentTaskManager(),
+                new HttpServerConfig(PORT, 0, ExecutorMode.VIRTUAL_THREADS, 1, 100));
+        server.start();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + PORT + "/tasks")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get(5, TimeUnit.SECONDS).statusCode());
+        }
+    }
+
+    @Test
+    void testPlatformPoolModeUsesConfiguredPort() throws Exception {
+        server = new HttpTaskServer(new ConcurrentTaskManager(),
+                new HttpServerConfig(PORT, 16, ExecutorMode.PLATFORM_POOL, 2, 10));
+        server.start();
+
+        assertEquals(200, get("/prioritized").statusCode());
+    }
+
+    @Test
+    void testSaturatedServerReturns503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        ConcurrentTaskManager slowManager = new ConcurrentTaskManager() {
+            @Override
+            public List<Task> getHistory() {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getHistory();
+            }
+        };
+        server = new HttpTaskServer(slowManager, new HttpServerConfig(PORT, 0, ExecutorMode.PLATFORM_POOL, 1, 1));
+        server.start();
+
+        CompletableFuture<HttpResponse<String>> slow = client.sendAsync(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + PORT + "/history")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(entered.await(5, TimeUnit.SECONDS), "First request should occupy the only slot");
+
+        HttpResponse<String> rejected = get("/tasks");
+        assertEquals(503, rejected.statusCode(), "Request over the limit should be rejected");
+        assertTrue(rejected.body().contains("Server is overloaded"));
+
+        release.countDown();
+        assertEquals(200, slow.get(5, TimeUnit.SECONDS).statusCode(), "Admitted request should complete normally");
+    }
+
+    @Test
+    void testStreamingModeWritesCompactJsonWithType() throws Exception {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager();
+        server = new HttpTaskServer(manager,
+                new HttpServerConfig(PORT, 0, ExecutorMode.PLATFORM_POOL, 2, 10).withStreamingResponses(true));
+        server.start();
+        Epic epic = new Epic("Эпик", "Desc");
+        manager.addEpic(epic);
+        manager.addSubtask(new SubTask("Подзадача", "Desc", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(15), LocalDateTime.of(2025, 3, 12, 9, 0)));
+
+        HttpResponse<String> response = get("/subtasks");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(""));
+        assertTrue(response.body().contains("\"type\":\"SUBTASK\""), "Type should be written inline");
+        JsonArray subtasks = JsonParser.parseString(response.body()).getAsJsonArray();
+        assertEquals(1, subtasks.size());
+        SubTask parsed = HttpTaskServer.getGson().fromJson(subtasks.get(0), SubTask.class);
+        assertEquals(epic.getId(), parsed.getEpicId());
+        assertEquals("12-03-2025 09:00:00", subtasks.get(0).getAsJsonObject().get("startTime").getAsString());
+        assertEquals(TaskStatus.DONE, parsed.getStatus());
+    }
+}
@@ -0,0 +1,73 @@
+package httpservice;
+
+import data.Task;
+import data.TaskStatus;
+import manager.InMemoryTaskManager;
+import metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsHandlerTest {
+    private HttpTaskServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new HttpTaskServer(new InMemoryTaskManager(), HttpServerConfig.defaults(), new MetricsRegistry());
+        server.start();
+
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080" + path))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testMetricsReportRequestsAndStoreSizes() throws IOException, InterruptedException {
+        server.getTaskManager().addTask(new Task("Task", "Description", TaskStatus.NEW));
+        get("/tasks");
+        get("/tasks/999");
+
+        HttpResponse<String> response = get("/metrics");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+        String body = response.body();
+        assertTrue(body.contains("kanban_http_requests_total{route=\"/tasks\",method=\"GET\",status=\"200\"} 1"),
+                body);
+        assertTrue(body.contains("kanban_http_requests_total{route=\"/tasks\",method=\"GET\",status=\"404\"} 1"));
+        assertTrue(body.contains("kanban_http_request_duration_seconds_count{route=\"/tasks\",method=\"GET\"} 2"));
+        assertTrue(body.contains("kanban_store_size{store=\"tasks\"} 1"));
+        assertTrue(body.contains("kanban_store_size{store=\"epics\"} 0"));
+    }
+
+    @Test
+    void testOnlyGetIsServed() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/metrics"))
+                .DELETE()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(404, response.statusCode());
+    }
+}
@@ -73,4 +73,30 @@ public class PrioritizedHandlerTest {
         assertEquals(200, response.statusCode());
         assertEquals("[]", response.body());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetPrioritizedTasksInWindow() throws IOException, InterruptedException {
+        for (int hour = 1; hour <= 5; hour++) {
+            taskManager.addTask(new Task("Task " + hour, "Desc", TaskStatus.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 13, hour, 0)));
+        }
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/prioritized?from=13-03-2025%2002:00:00"
+                        + "&to=2025-03-13T05:00&limit=2"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"title\": \"Task 2\""));
+        assertTrue(response.body().contains("\"title\": \"Task 3\""));
+        assertFalse(response.body().contains("\"title\": \"Task 4\""), "Limit should cut the window");
+        assertFalse(response.body().contains("\"title\": \"Task 1\""), "Tasks before the window are skipped");
+
+        HttpResponse<String> invalid = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/prioritized?from=tomorrow"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, invalid.statusCode());
+    }
+}
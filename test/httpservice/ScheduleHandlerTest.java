@@ -0,0 +1,98 @@
+package httpservice;
+
+import data.Task;
+import data.TaskStatus;
+import manager.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleHandlerTest {
+    private HttpTaskServer server;
+    private HttpClient client;
+    private TaskManager taskManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new HttpTaskServer();
+        taskManager = server.getTaskManager();
+        server.start();
+
+        client = HttpClient.newHttpClient();
+
+        taskManager.addTask(new Task("Busy", "Desc", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 3, 12, 9, 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/schedule"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testGetFreeSlot() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/schedule?duration=30&from=" + encode("12-03-2025 09:15:00")))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"startTime\": \"12-03-2025 10:00:00\""), response.body());
+
+        HttpRequest noRoom = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/schedule?duration=30&from=" + encode("12-03-2025 09:15:00")
+                        + "&to=" + encode("12-03-2025 10:00:00")))
+                .GET()
+                .build();
+        assertEquals(404, client.send(noRoom, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void testPostSchedulePlacesTasks() throws IOException, InterruptedException {
+        Task fits = new Task("Fits", "Desc", TaskStatus.NEW, Duration.ofMinutes(60), null);
+        Task tooLong = new Task("Too long", "Desc", TaskStatus.NEW, Duration.ofMinutes(300), null);
+        taskManager.addTask(fits);
+        taskManager.addTask(tooLong);
+
+        HttpResponse<String> response = post("{\"ids\": [" + fits.getId() + ", " + tooLong.getId() + "],"
+                + " \"from\": \"12-03-2025 08:30:00\", \"to\": \"12-03-2025 12:00:00\", \"policy\": \"IN_ORDER\"}");
+
+        assertEquals(200, response.statusCode(), response.body());
+        assertTrue(response.body().contains("\"startTime\": \"12-03-2025 10:00:00\""), response.body());
+        assertEquals(LocalDateTime.of(2025, 3, 12, 10, 0), taskManager.getTasks().get(fits.getId()).getStartTime());
+        assertNull(taskManager.getTasks().get(tooLong.getId()).getStartTime());
+    }
+
+    @Test
+    void testPostScheduleRejectsInvalidRequest() throws IOException, InterruptedException {
+        assertEquals(400, post("{\"ids\": [1]}").statusCode(), "Window is required");
+        assertEquals(400, post("{\"ids\": [999], \"from\": \"12-03-2025 08:00:00\","
+                + " \"to\": \"12-03-2025 12:00:00\"}").statusCode(), "Unknown task id");
+        assertEquals(400, post("not json").statusCode());
+    }
+}
@@ -0,0 +1,71 @@
+package httpservice;
+
+import data.Task;
+import data.TaskStatus;
+import manager.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchHandlerTest {
+    private HttpTaskServer server;
+    private HttpClient client;
+    private TaskManager taskManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new HttpTaskServer();
+        taskManager = server.getTaskManager();
+        server.start();
+
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String query) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/search" + query))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testSearchReturnsRankedTasks() throws IOException, InterruptedException {
+        taskManager.addTask(new Task("Созвон", "обсудить миграцию", TaskStatus.NEW));
+        taskManager.addTask(new Task("Миграция базы", "перенести таблицы", TaskStatus.NEW));
+        taskManager.addTask(new Task("Обед", "в столовой", TaskStatus.NEW));
+
+        HttpResponse<String> response = get("?q=" + URLEncoder.encode("Миграц", StandardCharsets.UTF_8));
+
+        assertEquals(200, response.statusCode());
+        String body = response.body();
+        assertTrue(body.indexOf("Миграция базы") < body.indexOf("Созвон"), "Title match should rank first");
+        assertFalse(body.contains("Обед"));
+
+        HttpResponse<String> limited = get("?q=" + URLEncoder.encode("миграц", StandardCharsets.UTF_8) + "&limit=1");
+        assertEquals(200, limited.statusCode());
+        assertFalse(limited.body().contains("Созвон"), "limit should cut the result");
+    }
+
+    @Test
+    void testSearchWithoutQueryIsBadRequest() throws IOException, InterruptedException {
+        assertEquals(400, get("").statusCode());
+        assertEquals(400, get("?q=%20").statusCode());
+        assertEquals(400, get("?q=x&limit=-1").statusCode());
+    }
+}
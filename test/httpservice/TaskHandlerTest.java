@@ -259,4 +259,65 @@ public class TaskHandlerTest {
         assertEquals(404, response.statusCode());
         assertTrue(response.body().contains("\"error\": \"Task with ID 999 not found\""));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetTasksFilteredByStatus() throws IOException, InterruptedException {
+        Task open = new Task("Open task", "Desc", TaskStatus.NEW);
+        Task active = new Task("Active task", "Desc", TaskStatus.IN_PROGRESS);
+        taskManager.addTask(open);
+        taskManager.addTask(active);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=IN_PROGRESS"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("Active task"));
+        assertFalse(response.body().contains("Open task"), "Tasks with other statuses should be filtered out");
+
+        HttpRequest invalid = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=PAUSED"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(invalid, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void testGetTasksPageWithCursor() throws IOException, InterruptedException {
+        Task first = new Task("First", "Desc", TaskStatus.NEW);
+        Task second = new Task("Second", "Desc", TaskStatus.NEW);
+        Task third = new Task("Third", "Desc", TaskStatus.NEW);
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+        taskManager.addTask(third);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?limit=2"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonObject page = JsonParser.parseString(response.body()).getAsJsonObject();
+        assertEquals(2, page.getAsJsonArray("items").size());
+        assertEquals(second.getId(), page.get("next").getAsInt());
+
+        HttpRequest next = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?limit=2&after=" + page.get("next").getAsInt()))
+                .GET()
+                .build();
+        JsonObject last = JsonParser.parseString(client.send(next, HttpResponse.BodyHandlers.ofString()).body())
+                .getAsJsonObject();
+        assertEquals(1, last.getAsJsonArray("items").size());
+        assertEquals("Third", last.getAsJsonArray("items").get(0).getAsJsonObject().get("title").getAsString());
+        assertFalse(last.has("next"), "Last page should have no cursor");
+
+        HttpRequest mixed = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?limit=2&status=NEW"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(mixed, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+}
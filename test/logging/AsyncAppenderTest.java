@@ -0,0 +1,78 @@
+package logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncAppenderTest {
+
+    private static LogRecord record(String message) {
+        return new LogRecord(System.currentTimeMillis(), Level.INFO, "Test", "main", message, null);
+    }
+
+    @Test
+    void testFlushWaitsForQueuedRecords() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncAppender appender = new AsyncAppender(new StreamAppender(out, false));
+        for (int i = 0; i < 1000; i++) {
+            appender.append(record("line " + i));
+        }
+        appender.flush();
+
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertEquals(1000, text.lines().count(), "All records should be written by flush");
+        assertTrue(text.contains("INFO [main] Test - line 999"));
+        appender.close();
+    }
+
+    @Test
+    void testRecordsAreFlushedOncePerBatch() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        AsyncAppender appender = new AsyncAppender(new Appender() {
+            @Override
+            public void append(LogRecord record) {
+                events.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+                events.add("flush");
+            }
+        });
+        for (int i = 0; i < 500; i++) {
+            appender.append(record("m" + i));
+        }
+        appender.flush();
+
+        long flushes = events.stream().filter("flush"::equals).count();
+        assertEquals(500, events.size() - flushes);
+        assertTrue(flushes < 500, "Delegate should be flushed per batch, not per record");
+        appender.close();
+    }
+
+    @Test
+    void testFullQueueDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncAppender appender = new AsyncAppender(record -> {
+            try {
+                release.await(); // приёмник «завис» — очередь не разбирается
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 4);
+        for (int i = 0; i < 20; i++) {
+            appender.append(record("m" + i));
+        }
+
+        assertTrue(appender.getDroppedCount() > 0, "Records beyond capacity should be dropped");
+        release.countDown();
+        appender.close();
+    }
+}
@@ -0,0 +1,71 @@
+package logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoggerTest {
+    private final List<LogRecord> records = new ArrayList<>();
+    private final Logger logger = Logger.getLogger(LoggerTest.class);
+    private Appender previousAppender;
+    private Level previousLevel;
+
+    @BeforeEach
+    void setUp() {
+        previousAppender = LogConfig.setAppender(records::add);
+        previousLevel = LogConfig.getLevel();
+    }
+
+    @AfterEach
+    void tearDown() {
+        LogConfig.setAppender(previousAppender);
+        LogConfig.setLevel(previousLevel);
+    }
+
+    @Test
+    void testFormatSubstitutesPlaceholdersInOrder() {
+        assertEquals("a=1, b=x", Logger.format("a={}, b={}", 1, "x"));
+        assertEquals("only 1 and {}", Logger.format("only {} and {}", 1));
+        assertEquals("no placeholders", Logger.format("no placeholders", 1, 2));
+        assertEquals("null", Logger.format("{}", (Object) null));
+    }
+
+    @Test
+    void testDisabledLevelDoesNotFormatArguments() {
+        LogConfig.setLevel(Level.INFO);
+        int[] calls = new int[1];
+        Object expensive = new Object() {
+            @Override
+            public String toString() {
+                calls[0]++;
+                return "expensive";
+            }
+        };
+
+        logger.debug("value: {}", expensive);
+        assertEquals(0, calls[0], "Disabled debug should not call toString");
+        assertTrue(records.isEmpty());
+
+        LogConfig.setLevel(Level.DEBUG);
+        logger.debug("value: {}", expensive);
+        assertEquals(1, calls[0]);
+        assertEquals("value: expensive", records.get(0).getMessage());
+        assertEquals(Level.DEBUG, records.get(0).getLevel());
+        assertEquals("LoggerTest", records.get(0).getLoggerName());
+    }
+
+    @Test
+    void testOffDisablesEverything() {
+        LogConfig.setLevel(Level.OFF);
+        logger.error("failure", new IllegalStateException());
+        logger.info("started");
+
+        assertTrue(records.isEmpty());
+        assertFalse(logger.isEnabled(Level.ERROR));
+    }
+}
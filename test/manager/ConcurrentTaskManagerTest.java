@@ -0,0 +1,225 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    private static final int THREADS = 8;
+
+    @Override
+    protected ConcurrentTaskManager createTaskManager() {
+        return new ConcurrentTaskManager();
+    }
+
+    // Запускает action в THREADS потоках одновременно и ждёт завершения всех
+    private void runConcurrently(ThreadAction action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                action.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    private interface ThreadAction {
+        void run(int thread) throws Exception;
+    }
+
+    @Test
+    void testConcurrentAddGeneratesUniqueIds() throws Exception {
+        int perThread = 500;
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                taskManager.addTask(new Task("Task " + thread + "-" + i, "Desc", TaskStatus.NEW));
+            }
+        });
+
+        assertEquals(THREADS * perThread, taskManager.getTasks().size(), "Every task should get its own id");
+    }
+
+    @Test
+    void testConcurrentOverlappingTasksAreRejected() throws Exception {
+        int slots = 100;
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < slots; i++) {
+                Task candidate = new Task("Task " + thread + "-" + i, "Desc", TaskStatus.NEW,
+                        Duration.ofMinutes(45), LocalDateTime.of(2025, 3, 12, 0, 0).plusHours(i));
+                try {
+                    taskManager.addTask(candidate);
+                    accepted.incrementAndGet();
+                } catch (IllegalArgumentException ignored) {
+                    // слот уже занят другим потоком
+                }
+            }
+        });
+
+        assertEquals(slots, accepted.get(), "Exactly one task per slot should be accepted");
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        for (int i = 1; i < prioritized.size(); i++) {
+            assertFalse(prioritized.get(i).getStartTime().isBefore(prioritized.get(i - 1).getEndTime()),
+                    "Prioritized tasks should not overlap");
+        }
+    }
+
+    @Test
+    void testConcurrentSubtasksKeepEpicsConsistent() throws Exception {
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Epic threadEpic = new Epic("Epic " + i, "Desc");
+            taskManager.addEpic(threadEpic);
+            epics.add(threadEpic);
+        }
+        int perThread = 200;
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                // Каждый поток пишет во все эпики по кругу, чтобы блокировки эпиков конкурировали
+                Epic target = epics.get((thread + i) % epics.size());
+                SubTask sub = new SubTask("Sub " + thread + "-" + i, "Desc", TaskStatus.DONE, target.getId(),
+                        Duration.ofMinutes(10), LocalDateTime.of(2025, 1, 1, 0, 0)
+                        .plusMinutes(10L * (thread * perThread + i)));
+                taskManager.addSubtask(sub);
+                if (i % 2 == 1) {
+                    taskManager.deleteSubTaskById(sub.getId());
+                }
+            }
+        });
+
+        assertEquals(THREADS * perThread / 2, taskManager.getSubtasks().size(), "Half of subtasks should remain");
+        Set<Integer> linked = new HashSet<>();
+        for (Epic stored : taskManager.getEpics().values()) {
+            List<SubTask> subtasks = taskManager.getSubtaskByEpic(stored);
+            assertEquals(stored.getSubTaskIds().size(), subtasks.size(), "Epic links should match the store");
+            subtasks.forEach(sub -> linked.add(sub.getId()));
+            assertEquals(TaskStatus.DONE, stored.getStatus(), "Epic status should follow its DONE subtasks");
+            assertEquals(Duration.ofMinutes(10L * subtasks.size()), stored.getDuration(),
+                    "Epic duration should be the sum of remaining subtasks");
+        }
+        assertEquals(taskManager.getSubtasks().keySet(), linked, "Every subtask should be linked to an epic");
+    }
+
+    @Test
+    void testReadsDuringWritesDoNotFail() throws Exception {
+        taskManager.addEpic(epic);
+        runConcurrently(thread -> {
+            for (int i = 0; i < 300; i++) {
+                if (thread % 2 == 0) {
+                    SubTask sub = new SubTask("Sub", "Desc", TaskStatus.NEW, epic.getId(), null, null);
+                    taskManager.addSubtask(sub);
+                    taskManager.getSubTaskById(sub.getId());
+                } else {
+                    taskManager.getSubtaskByEpic(epic);
+                    taskManager.getPrioritizedTasks();
+                    taskManager.getHistory();
+                    taskManager.getSubtasks().values().forEach(Task::getTitle);
+                }
+            }
+        });
+
+        assertEquals(THREADS / 2 * 300, taskManager.getSubtaskByEpic(epic).size(), "All subtasks should be linked");
+    }
+
+    @Test
+    void testEpicReadsDuringWritesAreConsistent() throws Exception {
+        taskManager.addEpic(epic);
+        int perThread = 300;
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                if (thread % 2 == 0) {
+                    SubTask sub = new SubTask("Sub " + thread + "-" + i, "Desc", TaskStatus.NEW, epic.getId(),
+                            Duration.ofMinutes(10), LocalDateTime.of(2025, 1, 1, 0, 0)
+                            .plusMinutes(10L * (thread * perThread + i)));
+                    taskManager.addSubtask(sub);
+                    if (i % 2 == 1) {
+                        taskManager.deleteSubTaskById(sub.getId());
+                    }
+                } else {
+                    // Копия снимается под блокировкой эпика, поэтому ID и длительность согласованы
+                    Epic read = thread % 4 == 1
+                            ? taskManager.getEpicById(epic.getId()).orElseThrow()
+                            : taskManager.getEpics().get(epic.getId());
+                    int count = read.getSubTaskIds().size();
+                    assertEquals(count == 0 ? null : Duration.ofMinutes(10L * count), read.getDuration(),
+                            "Epic copy should not be half-updated");
+                }
+            }
+        });
+
+        assertEquals(THREADS / 2 * perThread / 2, taskManager.getSubtaskByEpic(epic).size());
+    }
+
+    @Test
+    void testEpicReadsReturnCopies() {
+        taskManager.addEpic(epic);
+        Epic read = taskManager.getEpicById(epic.getId()).orElseThrow();
+        assertNotSame(epic, read, "Readers should not get the stored epic");
+        assertNotSame(epic, taskManager.getEpics().get(epic.getId()));
+
+        taskManager.updateEpic(read, "New title", "New description");
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.DONE, epic.getId(), null, null);
+        taskManager.addSubtask(sub);
+
+        Epic reread = taskManager.getEpics().get(epic.getId());
+        assertEquals("New title", reread.getTitle(), "Update through a copy should reach the stored epic");
+        assertEquals(List.of(sub.getId()), reread.getSubTaskIds());
+        assertEquals(TaskStatus.DONE, reread.getStatus());
+        assertTrue(read.getSubTaskIds().isEmpty(), "An earlier copy should not change");
+    }
+
+    @Test
+    void testUpdateAfterDeleteDoesNotResurrect() throws Exception {
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Task task = new Task("Task " + i, "Desc", TaskStatus.NEW);
+            taskManager.addTask(task);
+            added.add(task);
+        }
+        taskManager.addEpic(epic);
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.NEW, epic.getId(), null, null);
+        taskManager.addSubtask(sub);
+
+        runConcurrently(thread -> {
+            for (Task task : added) {
+                if (thread % 2 == 0) {
+                    taskManager.deleteTaskById(task.getId());
+                } else {
+                    taskManager.updateTask(task, new Task(task.getTitle(), "Updated", TaskStatus.DONE));
+                }
+            }
+        });
+        taskManager.deleteSubTaskById(sub.getId());
+        taskManager.updateSubTask(sub, new SubTask("Sub", "Updated", TaskStatus.DONE, epic.getId(), null, null));
+
+        assertTrue(taskManager.getTasks().isEmpty(), "Deleted tasks should stay deleted");
+        assertTrue(taskManager.getTasksByStatus(TaskStatus.DONE).isEmpty());
+        assertTrue(taskManager.getSubtasks().isEmpty(), "Deleted subtask should stay deleted");
+        assertTrue(taskManager.getEpicById(epic.getId()).orElseThrow().getSubTaskIds().isEmpty());
+    }
+}
@@ -1,14 +1,22 @@
 package manager;
 
+import data.Epic;
+import data.SubTask;
 import data.Task;
 import data.TaskStatus;
+import data.TypeTask;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import static manager.TaskAssertions.assertSameFields;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
@@ -57,4 +65,302 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         assertTrue(file.exists(), "File should exist after writing");
         assertTrue(file.length() > 0, "File should contain data");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoadKeepsFirstSavedTask() {
+        taskManager.addTask(task);
+        taskManager.addEpic(epic);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertSameFields(task, loaded.getTasks().get(task.getId()), "First saved task should survive reload");
+        assertEquals(1, loaded.getEpics().size(), "Epic should survive reload");
+    }
+
+    @Test
+    void testJournalReplayOnLoad() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 100);
+        manager.addTask(task);
+        manager.addEpic(epic);
+        SubTask sub = new SubTask("SubTask 1", "SubTask Description", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        manager.addSubtask(sub);
+        Task other = new Task("Task 2", "Description 2", TaskStatus.NEW);
+        manager.addTask(other);
+        manager.deleteTaskById(other.getId());
+
+        assertEquals(0, file.length(), "Journaled mode should not rewrite the snapshot on every mutation");
+        assertTrue(TaskJournal.journalFileFor(file).length() > 0, "Mutations should be appended to the journal");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, 100);
+        assertSameFields(manager.getTasks(), loaded.getTasks(), "Tasks should be restored from the journal");
+        assertSameFields(manager.getSubtasks(), loaded.getSubtasks(), "Subtasks should be restored from the journal");
+        Epic loadedEpic = loaded.getEpics().get(epic.getId());
+        assertEquals(TaskStatus.DONE, loadedEpic.getStatus(), "Epic status should be recalculated after replay");
+        assertEquals(List.of(sub.getId()), loadedEpic.getSubTaskIds(), "Epic should be linked to its subtasks");
+        assertFalse(TaskJournal.journalFileFor(file).exists(), "Journal should be compacted after load");
+    }
+
+    @Test
+    void testCheckpointCompactsJournal() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 2);
+        manager.addTask(task);
+        assertTrue(TaskJournal.journalFileFor(file).exists(), "First record should go to the journal");
+        manager.addEpic(epic);
+        assertFalse(TaskJournal.journalFileFor(file).exists(), "Journal should be truncated at checkpoint");
+
+        manager.updateEpic(epic, "Updated Epic", "Updated Description");
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, 2);
+        assertSameFields(task, loaded.getTasks().get(task.getId()), "Task should be restored from the snapshot");
+        assertEquals("Updated Epic", loaded.getEpics().get(epic.getId()).getTitle(),
+                "Journal tail should be applied on top of the snapshot");
+    }
+
+    @Test
+    void testAddSubtaskSavesSnapshotOnce() {
+        int[] saves = new int[1];
+        FileBackedTaskManager manager = new FileBackedTaskManager(file) {
+            @Override
+            protected void save() {
+                saves[0]++;
+                super.save();
+            }
+        };
+        manager.addEpic(epic);
+        saves[0] = 0;
+        manager.addSubtask(new SubTask("SubTask 1", "SubTask Description", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0)));
+        assertEquals(1, saves[0], "Nested epic status update should not trigger a separate save");
+    }
+
+    @Test
+    void testAsyncModeDefersWritesUntilFlush() {
+        PersistenceConfig config = new PersistenceConfig(DurabilityMode.ASYNC, Duration.ofMinutes(1), 1000);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 0, config);
+        try {
+            manager.addTask(task);
+            manager.addEpic(epic);
+            assertEquals(0, file.length(), "Async mode should not write on the caller thread");
+
+            manager.flush();
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+            assertSameFields(task, loaded.getTasks().get(task.getId()), "Task should be on disk after flush");
+            assertEquals(1, loaded.getEpics().size(), "Epic should be on disk after flush");
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void testAsyncJournalFlushesWhenBatchIsFull() throws InterruptedException {
+        PersistenceConfig config = new PersistenceConfig(DurabilityMode.ASYNC, Duration.ofMinutes(1), 2);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 100, config);
+        try {
+            manager.addTask(task);
+            manager.addEpic(epic);
+            File journalFile = TaskJournal.journalFileFor(file);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!journalFile.exists() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(journalFile.exists(), "A full batch should be written without waiting for the interval");
+        } finally {
+            manager.close();
+        }
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, 100);
+        assertSameFields(manager.getTasks(), loaded.getTasks(), "Tasks should be restored from the batched journal");
+        assertEquals(manager.getEpics().keySet(), loaded.getEpics().keySet(), "Epics should be restored");
+    }
+
+    @Test
+    void testGroupCommitReturnsAfterDurableWrite() {
+        PersistenceConfig config = new PersistenceConfig(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(5), 64);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 100, config);
+        try {
+            manager.addTask(task);
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, 100);
+            assertSameFields(task, loaded.getTasks().get(task.getId()), "Group commit should acknowledge after the write");
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void testAsyncWriteFailureSurfacesOnFlush() {
+        PersistenceConfig config = new PersistenceConfig(DurabilityMode.ASYNC, Duration.ofMillis(5), 64);
+        FileBackedTaskManager manager = new FileBackedTaskManager(new File("/invalid/path/tasks.csv"), 0, config);
+        manager.addTask(task);
+        assertThrows(ManagerSaveException.class, manager::flush, "Flush should report a failed background write");
+        assertThrows(ManagerSaveException.class, manager::close, "Close should not hide unsaved changes");
+    }
+
+    @Test
+    void testLoadFallsBackToPreviousSnapshotWhenChecksumFails() throws IOException {
+        taskManager.addTask(task);
+        taskManager.addEpic(epic);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file.toPath(), bytes);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertSameFields(task, loaded.getTasks().get(task.getId()), "Previous generation should be loaded");
+        assertTrue(loaded.getEpics().isEmpty(), "Changes after the previous generation are lost, not corrupted");
+    }
+
+    @Test
+    void testBinarySnapshotRoundTrip() {
+        PersistenceConfig config = new PersistenceConfig(DurabilityMode.SYNC,
+                PersistenceConfig.DEFAULT_FLUSH_INTERVAL, PersistenceConfig.DEFAULT_BATCH_SIZE, SnapshotFormat.BINARY);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 0, config);
+        manager.addTask(task);
+        manager.addEpic(epic);
+        SubTask sub = new SubTask("SubTask 1", "SubTask Description", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        manager.addSubtask(sub);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertSameFields(manager.getTasks(), loaded.getTasks(), "Tasks should be restored from the binary snapshot");
+        assertSameFields(manager.getSubtasks(), loaded.getSubtasks(), "Subtasks should be restored");
+        assertEquals(sub.getStartTime(), loaded.getEpics().get(epic.getId()).getStartTime(),
+                "Epic time should be recalculated from subtasks");
+    }
+
+    @Test
+    void testMappedStoreWritesInPlaceAndReopens() {
+        file.delete();
+        PersistenceConfig config = new PersistenceConfig(DurabilityMode.SYNC,
+                PersistenceConfig.DEFAULT_FLUSH_INTERVAL, PersistenceConfig.DEFAULT_BATCH_SIZE, SnapshotFormat.MAPPED);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 0, config);
+        manager.addTask(task);
+        manager.addEpic(epic);
+        SubTask sub = new SubTask("SubTask 1", "SubTask Description", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        manager.addSubtask(sub);
+        Epic other = new Epic("Epic 2", "Removed");
+        manager.addEpic(other);
+        manager.addSubtask(new SubTask("SubTask 2", "Removed", TaskStatus.NEW, other.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 13, 10, 0)));
+        manager.deleteEpicById(other.getId());
+        manager.close();
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        try {
+            assertSameFields(manager.getTasks(), loaded.getTasks(), "Tasks should be read from the mapped store");
+            assertSameFields(manager.getSubtasks(), loaded.getSubtasks(), "Subtasks of a deleted epic should be gone");
+            assertSameFields(manager.getEpics(), loaded.getEpics(), "Epics should be recalculated from the store");
+            assertEquals(TaskStatus.DONE, loaded.getEpics().get(epic.getId()).getStatus());
+
+            loaded.deleteTaskById(task.getId());
+        } finally {
+            loaded.close();
+        }
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(file);
+        assertTrue(reloaded.getTasks().isEmpty(), "Reopened store should accept further in-place updates");
+        reloaded.close();
+    }
+
+    @Test
+    void testBatchIsJournaledAsOneRecord() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 100);
+        manager.addTask(task);
+        Epic batchEpic = new Epic("Batch epic", "Desc");
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.IN_PROGRESS, 0,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 5, 1, 10, 0));
+        Task other = new Task("Other", "Desc", TaskStatus.NEW);
+        manager.applyBatch(List.of(
+                BatchOperation.create(batchEpic),
+                BatchOperation.createSubtask(sub, 0),
+                BatchOperation.create(other),
+                BatchOperation.delete(TypeTask.TASK, task.getId())));
+
+        File journalFile = TaskJournal.journalFileFor(file);
+        List<String> lines = Files.readAllLines(journalFile.toPath());
+        assertEquals("BATCH,4", lines.get(1), "Batch should be journaled behind a header");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, 100);
+        assertSameFields(manager.getTasks(), loaded.getTasks(), "Tasks should be restored from the batch record");
+        assertSameFields(manager.getSubtasks(), loaded.getSubtasks());
+        assertEquals(TaskStatus.IN_PROGRESS, loaded.getEpics().get(batchEpic.getId()).getStatus());
+    }
+
+    @Test
+    void testTornBatchIsDroppedOnLoad() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 100);
+        manager.addTask(task);
+        Task other = new Task("Other", "Desc", TaskStatus.NEW);
+        manager.applyBatch(List.of(BatchOperation.create(other), BatchOperation.delete(TypeTask.TASK, task.getId())));
+
+        // Обрываем пакет после первой записи, как при падении процесса посреди записи
+        File journalFile = TaskJournal.journalFileFor(file);
+        List<String> lines = Files.readAllLines(journalFile.toPath());
+        Files.write(journalFile.toPath(), lines.subList(0, lines.size() - 1));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, 100);
+        assertEquals(List.of(task.getId()), List.copyOf(loaded.getTasks().keySet()),
+                "Incomplete batch should not be applied partially");
+    }
+
+    @Test
+    void testMappedStoreRejectsTooLongTextBeforeChangingManager() {
+        file.delete();
+        PersistenceConfig config = new PersistenceConfig(DurabilityMode.SYNC,
+                PersistenceConfig.DEFAULT_FLUSH_INTERVAL, PersistenceConfig.DEFAULT_BATCH_SIZE, SnapshotFormat.MAPPED);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 0, config);
+        Task tooLong = new Task("Задача", "Ж".repeat(300), TaskStatus.NEW, Duration.ofMinutes(30),
+                LocalDateTime.of(2025, 3, 14, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> manager.addTask(tooLong));
+        assertTrue(manager.getTasks().isEmpty(), "Rejected task should not stay in memory");
+        assertTrue(manager.getPrioritizedTasks().isEmpty());
+
+        manager.addTask(task);
+        Task update = new Task(task.getTitle(), "Ж".repeat(300), task.getStatus(), task.getDuration(),
+                task.getStartTime());
+        assertThrows(IllegalArgumentException.class, () -> manager.updateTask(task, update));
+        assertEquals(task.getDescription(), manager.getTasks().get(task.getId()).getDescription());
+        manager.close();
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        try {
+            assertEquals(manager.getTasks().keySet(), loaded.getTasks().keySet());
+            assertEquals(task.getDescription(), loaded.getTasks().get(task.getId()).getDescription());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    void testOverlappingTasksInFileAreRejectedOnLoad() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        Task first = new Task("First", "Desc", TaskStatus.NEW, Duration.ofMinutes(60),
+                LocalDateTime.of(2025, 3, 12, 10, 0));
+        Task second = new Task("Second", "Desc", TaskStatus.NEW, Duration.ofMinutes(60),
+                LocalDateTime.of(2025, 3, 12, 14, 0));
+        manager.addTask(first);
+        manager.addTask(second);
+        manager.checkpoint();
+        manager.close();
+
+        // Файл правят вручную: вторая задача начинается посреди первой, строка суммы убрана
+        List<String> lines = new ArrayList<>(Files.readAllLines(file.toPath()));
+        lines.removeIf(line -> line.startsWith(SnapshotFiles.FOOTER_PREFIX));
+        Files.deleteIfExists(SnapshotFiles.previousGeneration(file.toPath()));
+        String firstStart = null;
+        for (String line : lines) {
+            if (line.startsWith(first.getId() + ",")) {
+                firstStart = line.split(",")[6];
+            }
+        }
+        assertNotNull(firstStart);
+        for (int i = 0; i < lines.size(); i++) {
+            String[] fields = lines.get(i).split(",", -1);
+            if (lines.get(i).startsWith(second.getId() + ",")) {
+                fields[6] = firstStart;
+                lines.set(i, String.join(",", fields));
+            }
+        }
+        Files.write(file.toPath(), lines);
+
+        ManagerSaveException e = assertThrows(ManagerSaveException.class,
+                () -> FileBackedTaskManager.loadFromFile(file));
+        assertTrue(e.getMessage().contains("пересекаются"), "Error should name the overlap: " + e.getMessage());
+    }
+}
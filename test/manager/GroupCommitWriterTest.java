@@ -0,0 +1,69 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GroupCommitWriterTest {
+    private static final Duration LONG_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void testFlushWritesSubmittedMutations() {
+        AtomicInteger writes = new AtomicInteger();
+        GroupCommitWriter writer = new GroupCommitWriter("test-writer", writes::incrementAndGet, LONG_INTERVAL, 100);
+        writer.submit();
+        writer.submit();
+        writer.flush();
+        assertEquals(1, writes.get(), "One write should cover both mutations");
+        writer.close();
+        assertThrows(IllegalStateException.class, writer::submit);
+    }
+
+    @Test
+    void testErrorInWriteStopsWriterWithoutHangingCallers() {
+        Error error = new Error("Диск недоступен");
+        GroupCommitWriter writer = new GroupCommitWriter("test-writer", () -> {
+            throw error;
+        }, LONG_INTERVAL, 100);
+        long ticket = writer.submit();
+
+        ManagerSaveException exception = assertTimeoutPreemptively(TIMEOUT,
+                () -> assertThrows(ManagerSaveException.class, () -> writer.flush()));
+        assertSame(error, exception.getCause());
+        assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(ManagerSaveException.class, () -> writer.await(ticket)));
+        assertThrows(IllegalStateException.class, writer::submit, "Dead writer should reject new mutations");
+        assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(ManagerSaveException.class, writer::close));
+    }
+
+    @Test
+    void testInterruptedWriterFailsWaitersFast() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicBoolean released = new AtomicBoolean();
+        // flushAction выполняется в потоке записи: прерываем его, и следующее ожидание завершит поток
+        GroupCommitWriter writer = new GroupCommitWriter("test-writer", () -> {
+            Thread.currentThread().interrupt();
+            writing.countDown();
+            while (!released.get()) {
+                Thread.onSpinWait();
+            }
+        }, LONG_INTERVAL, 100);
+        writer.submit();
+        CompletableFuture<Void> firstFlush = CompletableFuture.runAsync(writer::flush);
+        assertTrue(writing.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        long ticket = writer.submit();
+        released.set(true);
+        firstFlush.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        ManagerSaveException exception = assertTimeoutPreemptively(TIMEOUT,
+                () -> assertThrows(ManagerSaveException.class, () -> writer.await(ticket)));
+        assertInstanceOf(InterruptedException.class, exception.getCause());
+    }
+}
@@ -0,0 +1,47 @@
+package manager;
+
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdOrderIndexTest {
+
+    private static Task task(int id) {
+        Task task = new Task("Task " + id, "Desc", TaskStatus.NEW);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    void testPageStartsAfterCursor() {
+        IdOrderIndex<Task> index = new IdOrderIndex<>();
+        for (int id : new int[]{5, 1, 3, 9, 7}) {
+            index.put(task(id));
+        }
+
+        assertEquals(List.of(1, 3), index.page(0, 2).stream().map(Task::getId).toList());
+        assertEquals(List.of(5, 7), index.page(3, 2).stream().map(Task::getId).toList());
+        assertEquals(List.of(9), index.page(7, 2).stream().map(Task::getId).toList());
+        assertTrue(index.page(9, 2).isEmpty());
+    }
+
+    @Test
+    void testCursorSurvivesRemovalOfItsTask() {
+        IdOrderIndex<Task> index = new IdOrderIndex<>(true);
+        for (int id = 1; id <= 5; id++) {
+            index.put(task(id));
+        }
+        index.remove(2);
+
+        assertEquals(List.of(3, 4), index.page(2, 2).stream().map(Task::getId).toList(),
+                "Cursor pointing to a deleted task should continue after it");
+        Task replaced = task(3);
+        index.put(replaced);
+        assertSame(replaced, index.page(2, 1).get(0), "Put should replace the task with the same id");
+        assertEquals(4, index.size());
+    }
+}
@@ -90,4 +90,45 @@ public class InMemoryHistoryManagerTest {
         assertEquals(task1, history.get(0), "First task should be task1");
         assertEquals(task2, history.get(1), "Second task should be task2");
     }
+
+    @Test
+    void testLeastRecentlyViewedTaskIsEvicted() {
+        InMemoryHistoryManager bounded = new InMemoryHistoryManager(2);
+        bounded.add(task1);
+        bounded.add(task2);
+        bounded.add(task1); // task1 снова свежий, вытесняться должен task2
+        bounded.add(task3);
+
+        assertEquals(List.of(task1, task3), bounded.getHistory(), "History should keep two most recent views");
+        assertEquals(2, bounded.size());
+    }
+
+    @Test
+    void testSlotsAreReusedAfterEviction() {
+        InMemoryHistoryManager bounded = new InMemoryHistoryManager(3);
+        for (int id = 1; id <= 100; id++) {
+            Task task = new Task(id, "Task " + id, "Desc", TaskStatus.NEW);
+            bounded.add(task);
+            if (id % 7 == 0) {
+                bounded.remove(id - 1);
+            }
+        }
+
+        List<Task> history = bounded.getHistory();
+        assertEquals(3, history.size());
+        assertEquals(100, history.get(2).getId(), "Most recent view should be last");
+    }
+
+    @Test
+    void testHistoryPagesAndRecentViews() {
+        historyManager.add(task1);
+        historyManager.add(task2);
+        historyManager.add(task3);
+
+        assertEquals(List.of(task2), historyManager.getHistory(1, 1));
+        assertEquals(List.of(task2, task3), historyManager.getHistory(1, 10));
+        assertTrue(historyManager.getHistory(5, 2).isEmpty(), "Page past the end should be empty");
+        assertEquals(List.of(task2, task3), historyManager.getRecentHistory(2));
+        assertEquals(List.of(task1, task2, task3), historyManager.getRecentHistory(10));
+    }
 }
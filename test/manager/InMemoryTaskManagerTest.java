@@ -1,5 +1,6 @@
 package manager;
 
+import data.Epic;
 import data.SubTask;
 import data.TaskStatus;
 
@@ -10,6 +11,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
 
@@ -76,4 +78,56 @@ public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager
 
         assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus(), "Epic status should be IN_PROGRESS when subtasks are IN_PROGRESS");
     }
+
+    // Тесты для накопительных показателей Epic
+    @Test
+    void testEpicTimeFieldsFollowSubtaskChanges() {
+        taskManager.addEpic(epic);
+        SubTask early = new SubTask("SubTask 1", "Desc 1", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 9, 0));
+        SubTask late = new SubTask("SubTask 2", "Desc 2", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 3, 12, 11, 0));
+        taskManager.addSubtask(early);
+        taskManager.addSubtask(late);
+
+        assertEquals(LocalDateTime.of(2025, 3, 12, 9, 0), epic.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 3, 12, 12, 0), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(90), epic.getDuration());
+
+        taskManager.deleteSubTaskById(early.getId());
+        assertEquals(LocalDateTime.of(2025, 3, 12, 11, 0), epic.getStartTime(), "Start should move to the next subtask");
+        assertEquals(Duration.ofMinutes(60), epic.getDuration());
+        assertEquals(TaskStatus.DONE, epic.getStatus(), "Only DONE subtask remains");
+
+        SubTask moved = new SubTask("SubTask 2", "Desc 2", TaskStatus.IN_PROGRESS, epic.getId(),
+                Duration.ofMinutes(15), LocalDateTime.of(2025, 3, 12, 14, 0));
+        taskManager.updateSubTask(late, moved);
+        assertEquals(LocalDateTime.of(2025, 3, 12, 14, 15), epic.getEndTime(), "End should follow the updated subtask");
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+
+        taskManager.deleteSubTaskById(moved.getId());
+        assertNull(epic.getStartTime(), "Epic without subtasks should have no start time");
+        assertNull(epic.getDuration(), "Epic without subtasks should have no duration");
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+    }
+
+    @Test
+    void testSubtaskMovedToAnotherEpic() {
+        Epic otherEpic = new Epic("Epic 2", "Epic Description 2");
+        taskManager.addEpic(epic);
+        taskManager.addEpic(otherEpic);
+        SubTask sub = new SubTask("SubTask 1", "Desc 1", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 9, 0));
+        taskManager.addSubtask(sub);
+
+        SubTask moved = new SubTask("SubTask 1", "Desc 1", TaskStatus.DONE, otherEpic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 9, 0));
+        taskManager.updateSubTask(sub, moved);
+
+        assertEquals(0, taskManager.getSubtaskByEpic(epic).size(), "Subtask should leave the old epic");
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+        assertEquals(1, taskManager.getSubtaskByEpic(otherEpic).size(), "Subtask should join the new epic");
+        assertEquals(TaskStatus.DONE, otherEpic.getStatus());
+        assertEquals(Duration.ofMinutes(30), otherEpic.getDuration());
+    }
 }
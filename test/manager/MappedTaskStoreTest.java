@@ -0,0 +1,145 @@
+package manager;
+
+import data.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTaskStoreTest {
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempDirectory("mapped").resolve("tasks.db");
+    }
+
+    @Test
+    void testRecordsSurviveReopen() throws IOException {
+        Task task = new Task("Задача", "Описание", TaskStatus.IN_PROGRESS, 5,
+                Duration.ofMinutes(45), LocalDateTime.of(2025, 3, 13, 5, 7, 9));
+        SubTask subTask = new SubTask(7, "Sub", null, TaskStatus.DONE, 6, null, null);
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            store.put(task);
+            store.put(new Epic(6, "Epic", "Desc", TaskStatus.NEW));
+            store.put(subTask);
+        }
+
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            assertEquals(7, store.getMaxId());
+            Task loaded = store.get(5);
+            assertEquals("Задача", loaded.getTitle());
+            assertEquals("Описание", loaded.getDescription());
+            assertEquals(TaskStatus.IN_PROGRESS, loaded.getStatus());
+            assertEquals(Duration.ofMinutes(45), loaded.getDuration());
+            assertEquals(LocalDateTime.of(2025, 3, 13, 5, 7, 9), loaded.getStartTime());
+            assertInstanceOf(Epic.class, store.get(6));
+            SubTask loadedSub = (SubTask) store.get(7);
+            assertEquals(6, loadedSub.getEpicId());
+            assertNull(loadedSub.getDescription());
+            assertNull(loadedSub.getStartTime());
+            assertNull(store.get(4), "Empty slot should have no task");
+            assertNull(store.get(100), "Ids past the end should have no task");
+        }
+    }
+
+    @Test
+    void testUpdateOverwritesRecordInPlace() throws IOException {
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            store.put(new Task("Long title here", "Long description", TaskStatus.NEW, 1, null, null));
+            long size = Files.size(path);
+            store.put(new Task("T", "D", TaskStatus.DONE, 1, null, null));
+            assertEquals(size, Files.size(path), "Update should not grow the file");
+            assertEquals("T", store.get(1).getTitle());
+            assertEquals("D", store.get(1).getDescription());
+        }
+    }
+
+    @Test
+    void testRemoveAndClear() throws IOException {
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            store.put(new Task("T", "D", TaskStatus.NEW, 1, null, null));
+            store.put(new Epic(2, "E", "D", TaskStatus.NEW));
+            store.put(new SubTask(3, "S", "D", TaskStatus.NEW, 2, null, null));
+            store.put(new Epic(4, "E", "D", TaskStatus.NEW));
+            store.put(new SubTask(5, "S", "D", TaskStatus.NEW, 4, null, null));
+
+            store.removeSubtasksOf(2);
+            assertNull(store.get(3));
+            assertNotNull(store.get(5));
+
+            store.clear(TypeTask.EPIC);
+            List<Task> left = new ArrayList<>();
+            store.forEach(left::add);
+            assertEquals(List.of(store.get(1)), left, "Clearing epics should also drop their subtasks");
+        }
+    }
+
+    @Test
+    void testIdsAcrossSegments() throws IOException {
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            store.put(new Task("Far", "D", TaskStatus.NEW, 70_000, null, null));
+        }
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            assertEquals("Far", store.get(70_000).getTitle());
+        }
+    }
+
+    @Test
+    void testTooLongTextIsRejected() throws IOException {
+        try (MappedTaskStore store = MappedTaskStore.open(path, 64)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.put(new Task("x".repeat(40), "D", TaskStatus.NEW, 1, null, null)));
+            assertNull(store.get(1));
+        }
+    }
+
+    @Test
+    void testCorruptedRecordIsDetected() throws IOException {
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            store.put(new Task("Title", "D", TaskStatus.NEW, 1, null, null));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            long titleOffset = MappedTaskStore.HEADER_SIZE + MappedTaskStore.DEFAULT_RECORD_SIZE
+                    + MappedTaskStore.RECORD_TEXT_OFFSET;
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), titleOffset);
+        }
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            assertThrows(ManagerSaveException.class, () -> store.get(1));
+        }
+    }
+
+    @Test
+    void testFormatIsDetected() throws IOException {
+        MappedTaskStore.open(path).close();
+        assertEquals(SnapshotFormat.MAPPED, TaskSnapshotReader.detectFormat(path));
+    }
+
+    @Test
+    void testRecordSizeIsLimitedByStoredLengths() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedTaskStore.open(path, MappedTaskStore.MAX_RECORD_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> MappedTaskStore.open(path, MappedTaskStore.RECORD_TEXT_OFFSET));
+    }
+
+    @Test
+    void testCheckFitsCountsUtf8Bytes() throws IOException {
+        try (MappedTaskStore store = MappedTaskStore.open(path)) {
+            assertEquals(MappedTaskStore.DEFAULT_RECORD_SIZE - MappedTaskStore.RECORD_TEXT_OFFSET,
+                    store.getMaxTextBytes());
+            store.checkFits("x", "Ж".repeat(239));
+            assertThrows(IllegalArgumentException.class, () -> store.checkFits("x", "Ж".repeat(240)));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package manager;
+
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+
+    private static Task task(int id, String title, String description) {
+        Task task = new Task(title, description, TaskStatus.NEW);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    void testTokenizeHandlesCyrillicAndLatin() {
+        assertEquals(List.of("починить", "api", "ежа", "v2"), SearchIndex.tokenize("Починить API: Ёжа, v2!"));
+        assertEquals(SearchIndex.MAX_TOKEN_LENGTH, SearchIndex.tokenize("а".repeat(100)).get(0).length());
+        assertTrue(SearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void testSearchMatchesAllWordsAsPrefixes() {
+        SearchIndex index = new SearchIndex();
+        Task report = task(1, "Отчёт за квартал", "Собрать данные для report");
+        Task release = task(2, "Release notes", "Описать изменения квартала");
+        index.put(report);
+        index.put(release);
+
+        assertEquals(List.of(report), index.search("отчет", 10), "ё в тексте должна находиться по е");
+        assertEquals(List.of(report), index.search("REP", 10), "Слово запроса — префикс, регистр не важен");
+        assertEquals(List.of(report), index.search("кварт данн", 10), "Нужны все слова запроса");
+        assertTrue(index.search("квартал отпуск", 10).isEmpty());
+        assertTrue(index.search("  !! ", 10).isEmpty(), "Запрос без слов ничего не находит");
+    }
+
+    @Test
+    void testTitleRanksAboveDescription() {
+        SearchIndex index = new SearchIndex();
+        Task inDescription = task(1, "Созвон", "обсудить миграцию базы");
+        Task inTitle = task(2, "Миграция базы", "перенести таблицы");
+        Task other = task(3, "Обед", "в столовой");
+        index.put(inDescription);
+        index.put(inTitle);
+        index.put(other);
+
+        assertEquals(List.of(inTitle, inDescription), index.search("миграц", 10));
+        assertEquals(List.of(inTitle), index.search("миграц", 1), "limit ограничивает число результатов");
+    }
+
+    @Test
+    void testPutReplacesAndRemoveForgets() {
+        SearchIndex index = new SearchIndex();
+        index.put(task(1, "Старое название", ""));
+        Task renamed = task(1, "Новое название", "");
+        index.put(renamed);
+
+        assertTrue(index.search("старое", 10).isEmpty(), "Прежняя версия задачи не должна находиться");
+        assertEquals(List.of(renamed), index.search("новое", 10));
+
+        index.remove(1);
+        assertEquals(0, index.size());
+        assertEquals(0, index.termCount(), "Пустые списки слов удаляются из словаря");
+        assertEquals(0, index.postingCount());
+    }
+
+    @Test
+    void testTermsPerDocumentAreBounded() {
+        SearchIndex index = new SearchIndex(4, SearchIndex.DEFAULT_MAX_EXPANSIONS);
+        index.put(task(1, "один два", "три четыре пять шесть"));
+
+        assertEquals(4, index.postingCount(), "Слова сверх лимита документа не индексируются");
+        assertEquals(1, index.search("один", 10).size(), "Слова названия индексируются первыми");
+        assertTrue(index.search("шесть", 10).isEmpty());
+    }
+
+    @Test
+    void testPrefixExpansionIsBounded() {
+        SearchIndex index = new SearchIndex(SearchIndex.DEFAULT_MAX_TERMS_PER_DOCUMENT, 2);
+        index.put(task(1, "тест1", ""));
+        index.put(task(2, "тест2", ""));
+        index.put(task(3, "тест3", ""));
+
+        assertEquals(2, index.search("тест", 10).size(), "Префикс раскрывается не более чем в maxExpansions слов");
+    }
+}
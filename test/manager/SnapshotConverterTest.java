@@ -0,0 +1,51 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static manager.TaskAssertions.assertSameFields;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotConverterTest {
+
+    @Test
+    void testCsvToBinaryAndBack() throws IOException {
+        Path directory = Files.createTempDirectory("convert");
+        Path csv = directory.resolve("tasks.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(csv.toFile());
+        Task task = new Task("Задача", "Описание", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 11, 8, 0));
+        manager.addTask(task);
+        Epic epic = new Epic("Epic", "Desc");
+        manager.addEpic(epic);
+        manager.addSubtask(new SubTask("Sub", "Desc", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(15), LocalDateTime.of(2025, 3, 12, 9, 0)));
+
+        Path binary = directory.resolve("tasks.bin");
+        assertEquals(3, SnapshotConverter.convert(csv, binary, SnapshotFormat.BINARY));
+        assertEquals(SnapshotFormat.BINARY, TaskSnapshotReader.detectFormat(binary));
+        assertTrue(Files.size(binary) < Files.size(csv), "Binary snapshot should be smaller");
+
+        Path back = directory.resolve("back.csv");
+        SnapshotConverter.convert(binary, back, SnapshotFormat.CSV);
+        assertEquals(SnapshotFormat.CSV, TaskSnapshotReader.detectFormat(back));
+
+        for (Path converted : new Path[]{binary, back}) {
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(converted.toFile());
+            assertSameFields(manager.getTasks(), loaded.getTasks());
+            assertSameFields(manager.getSubtasks(), loaded.getSubtasks());
+            Epic loadedEpic = loaded.getEpics().get(epic.getId());
+            assertEquals(TaskStatus.DONE, loadedEpic.getStatus());
+            assertEquals(epic.getStartTime(), loadedEpic.getStartTime(), "Epic time should be recalculated");
+        }
+    }
+}
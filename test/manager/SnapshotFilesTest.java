@@ -0,0 +1,106 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotFilesTest {
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshot = Files.createTempDirectory("snapshots").resolve("tasks.csv");
+    }
+
+    private void writeGeneration(String body) throws IOException {
+        SnapshotFiles.write(snapshot, out -> out.write(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testWriteAppendsChecksumFooter() throws IOException {
+        writeGeneration("header\n1,TASK,Задача,NEW,Desc,,\n");
+
+        String content = Files.readString(snapshot, StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("header\n1,TASK,Задача"), "Body should be written as is");
+        assertTrue(content.contains("\n" + SnapshotFiles.FOOTER_PREFIX), "Footer should follow the body");
+        assertEquals(SnapshotFiles.Verification.VALID, SnapshotFiles.verify(snapshot));
+        assertFalse(Files.exists(snapshot.resolveSibling("tasks.csv.tmp")), "Temp file should be renamed away");
+    }
+
+    @Test
+    void testPreviousGenerationIsKept() throws IOException {
+        writeGeneration("first\n");
+        writeGeneration("second\n");
+
+        assertTrue(Files.readString(snapshot).startsWith("second"));
+        assertTrue(Files.readString(SnapshotFiles.previousGeneration(snapshot)).startsWith("first"));
+    }
+
+    @Test
+    void testCorruptedSnapshotFallsBackToPreviousGeneration() throws IOException {
+        writeGeneration("first\n");
+        writeGeneration("second\n");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[0] = 'S';
+        Files.write(snapshot, bytes);
+
+        assertEquals(SnapshotFiles.Verification.CORRUPTED, SnapshotFiles.verify(snapshot));
+        assertEquals(SnapshotFiles.previousGeneration(snapshot), SnapshotFiles.selectReadable(snapshot));
+    }
+
+    @Test
+    void testTornSnapshotFallsBackToPreviousGeneration() throws IOException {
+        writeGeneration("first\n");
+        writeGeneration("second row that was cut short\n");
+        Files.writeString(snapshot, "second row th", StandardCharsets.UTF_8);
+
+        assertEquals(SnapshotFiles.previousGeneration(snapshot), SnapshotFiles.selectReadable(snapshot));
+    }
+
+    @Test
+    void testLegacySnapshotWithoutFooterIsAccepted() throws IOException {
+        Files.writeString(snapshot, "id,type,title,status,description,duration,startTime,epic\n");
+
+        assertEquals(SnapshotFiles.Verification.NO_FOOTER, SnapshotFiles.verify(snapshot));
+        assertEquals(snapshot, SnapshotFiles.selectReadable(snapshot));
+    }
+
+    @Test
+    void testCorruptedSnapshotWithoutFallbackFails() throws IOException {
+        writeGeneration("only\n");
+        Files.writeString(snapshot, "oNly\n" + SnapshotFiles.footer(0), StandardCharsets.UTF_8);
+
+        assertThrows(ManagerSaveException.class, () -> SnapshotFiles.selectReadable(snapshot));
+    }
+
+    @Test
+    void testMissingSnapshotHasNothingToRead() throws IOException {
+        assertNull(SnapshotFiles.selectReadable(snapshot));
+    }
+
+    @Test
+    void testReadOnlySnapshotIsNotReplaced() throws IOException {
+        writeGeneration("first\n");
+        Files.setPosixFilePermissions(snapshot, PosixFilePermissions.fromString("r--r-----"));
+
+        assertThrows(ManagerSaveException.class, () -> writeGeneration("second\n"));
+        assertTrue(Files.readString(snapshot, StandardCharsets.UTF_8).startsWith("first\n"));
+        assertEquals(PosixFilePermissions.fromString("r--r-----"), Files.getPosixFilePermissions(snapshot));
+    }
+
+    @Test
+    void testNewGenerationKeepsPermissions() throws IOException {
+        writeGeneration("first\n");
+        Files.setPosixFilePermissions(snapshot, PosixFilePermissions.fromString("rw-------"));
+        writeGeneration("second\n");
+
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(snapshot));
+    }
+}
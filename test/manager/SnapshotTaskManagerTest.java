@@ -0,0 +1,106 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTaskManagerTest extends TaskManagerTest<SnapshotTaskManager> {
+
+    @Override
+    protected SnapshotTaskManager createTaskManager() {
+        return new SnapshotTaskManager(new ConcurrentTaskManager());
+    }
+
+    @Test
+    void testSnapshotIsIsolatedFromLaterChanges() {
+        taskManager.addTask(task);
+        taskManager.addEpic(epic);
+        subTask.setEpicId(epic.getId());
+        taskManager.addSubtask(subTask);
+        BoardSnapshot before = taskManager.snapshot();
+
+        taskManager.deleteTaskById(task.getId());
+        taskManager.updateSubTask(subTask, new SubTask("SubTask 1", "Done", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 11, 0)));
+
+        assertEquals(1, before.getTasks().size(), "Old version should keep the deleted task");
+        assertEquals(TaskStatus.NEW, before.getEpics().get(epic.getId()).getStatus());
+        assertEquals(List.of(task, epic, subTask), before.getPrioritizedTasks());
+        assertTrue(taskManager.getTasks().isEmpty());
+        assertEquals(TaskStatus.DONE, taskManager.getEpics().get(epic.getId()).getStatus());
+        assertEquals(LocalDateTime.of(2025, 3, 12, 11, 0),
+                taskManager.getSubtaskByEpic(epic).get(0).getStartTime());
+        assertTrue(taskManager.snapshot().getSequence() > before.getSequence());
+    }
+
+    @Test
+    void testWrapsManagerWithExistingState() {
+        InMemoryTaskManager delegate = new InMemoryTaskManager();
+        delegate.addTask(task);
+        delegate.addEpic(epic);
+        subTask.setEpicId(epic.getId());
+        delegate.addSubtask(subTask);
+
+        SnapshotTaskManager manager = new SnapshotTaskManager(delegate);
+
+        assertEquals(delegate.getTasks(), manager.getTasks());
+        assertEquals(delegate.getPrioritizedTasks(), manager.getPrioritizedTasks());
+        assertEquals(List.of(subTask), manager.getSubtaskByEpic(epic));
+        manager.deleteEpicById(epic.getId());
+        assertTrue(manager.getSubtasks().isEmpty());
+        assertEquals(List.of(task), manager.getPrioritizedTasks());
+    }
+
+    @Test
+    void testReadersSeeOrderedSnapshotsDuringWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(executor.submit(() -> {
+                while (running.get()) {
+                    BoardSnapshot snapshot = taskManager.snapshot();
+                    List<Task> prioritized = snapshot.getPrioritizedTasks();
+                    for (int j = 1; j < prioritized.size(); j++) {
+                        assertTrue(prioritized.get(j - 1).getStartTime().isBefore(prioritized.get(j).getStartTime()));
+                    }
+                    assertEquals(snapshot.getTasks().size(), prioritized.size(), "Every task is scheduled");
+                }
+                return null;
+            }));
+        }
+        Future<?> writer = executor.submit(() -> {
+            LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+            for (int i = 0; i < 2_000; i++) {
+                Task next = new Task("Task " + i, "Desc", TaskStatus.NEW, Duration.ofMinutes(30), start.plusHours(i));
+                taskManager.addTask(next);
+                if (i % 3 == 0) {
+                    taskManager.deleteTaskById(next.getId());
+                }
+            }
+            return null;
+        });
+
+        writer.get();
+        running.set(false);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+        assertEquals(1_333, taskManager.getTasks().size());
+        assertEquals(taskManager.getDelegate().getPrioritizedTasks(), taskManager.getPrioritizedTasks());
+    }
+}
@@ -0,0 +1,45 @@
+package manager;
+
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatusIndexTest {
+
+    private static Task task(int id, TaskStatus status) {
+        Task task = new Task("Task " + id, "Desc", status);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    void testPutMovesTaskBetweenStatuses() {
+        StatusIndex<Task> index = new StatusIndex<>();
+        Task task = task(1, TaskStatus.NEW);
+        index.put(task);
+        index.put(task(2, TaskStatus.NEW));
+
+        task.setStatus(TaskStatus.DONE); // статус изменён на месте, индекс должен найти задачу по id
+        index.put(task);
+
+        assertEquals(1, index.count(TaskStatus.NEW));
+        assertEquals(List.of(task), index.get(TaskStatus.DONE));
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        StatusIndex<Task> index = new StatusIndex<>(true);
+        index.put(task(1, TaskStatus.IN_PROGRESS));
+        index.put(task(2, TaskStatus.IN_PROGRESS));
+        index.remove(1);
+        assertEquals(1, index.count(TaskStatus.IN_PROGRESS));
+
+        index.clear();
+        assertTrue(index.get(TaskStatus.IN_PROGRESS).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.get(null));
+    }
+}
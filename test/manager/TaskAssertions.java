@@ -0,0 +1,44 @@
+package manager;
+
+import data.SubTask;
+import data.Task;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Task.equals сравнивает только ID, поэтому проверки сохранения и загрузки сравнивают поля по одному
+final class TaskAssertions {
+    private TaskAssertions() {
+    }
+
+    static void assertSameFields(Task expected, Task actual) {
+        assertSameFields(expected, actual, "");
+    }
+
+    static void assertSameFields(Task expected, Task actual, String message) {
+        String prefix = (message.isEmpty() ? "" : message + ": ") + "задача " + expected.getId() + ", ";
+        assertEquals(expected.getId(), actual.getId(), prefix + "id");
+        assertEquals(expected.getType(), actual.getType(), prefix + "type");
+        assertEquals(expected.getTitle(), actual.getTitle(), prefix + "title");
+        assertEquals(expected.getDescription(), actual.getDescription(), prefix + "description");
+        assertEquals(expected.getStatus(), actual.getStatus(), prefix + "status");
+        assertEquals(expected.getDuration(), actual.getDuration(), prefix + "duration");
+        assertEquals(expected.getStartTime(), actual.getStartTime(), prefix + "startTime");
+        if (expected instanceof SubTask expectedSub) {
+            assertEquals(expectedSub.getEpicId(), ((SubTask) actual).getEpicId(), prefix + "epicId");
+        }
+    }
+
+    static void assertSameFields(Map<Integer, ? extends Task> expected, Map<Integer, ? extends Task> actual) {
+        assertSameFields(expected, actual, "");
+    }
+
+    static void assertSameFields(Map<Integer, ? extends Task> expected, Map<Integer, ? extends Task> actual,
+                                 String message) {
+        assertEquals(expected.keySet(), actual.keySet(), message);
+        for (Task task : expected.values()) {
+            assertSameFields(task, actual.get(task.getId()), message);
+        }
+    }
+}
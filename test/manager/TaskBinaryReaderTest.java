@@ -0,0 +1,108 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskBinaryReaderTest {
+
+    private static Path writeSnapshot(Task... tasks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TaskBinaryWriter writer = new TaskBinaryWriter(bytes);
+        for (Task task : tasks) {
+            writer.write(task);
+        }
+        writer.finish();
+        Path file = Files.createTempFile("snapshot", ".bin");
+        Files.write(file, bytes.toByteArray());
+        return file;
+    }
+
+    private static List<Task> readAll(Path file) throws IOException {
+        List<Task> loaded = new ArrayList<>();
+        try (TaskSnapshotReader reader = TaskSnapshotReader.open(file)) {
+            Task task;
+            while ((task = reader.next()) != null) {
+                loaded.add(task);
+            }
+        }
+        return loaded;
+    }
+
+    @Test
+    void testRoundTripKeepsAllFields() throws IOException {
+        Task task = new Task("Задача", "Описание, с запятой", TaskStatus.IN_PROGRESS, 7,
+                Duration.ofMinutes(45), LocalDateTime.of(2025, 3, 13, 5, 7, 9));
+        Task early = new Task("Old", null, TaskStatus.NEW, 300_000, null, LocalDateTime.of(1950, 1, 1, 0, 0));
+        Epic epic = new Epic(3, "Epic", "Desc", TaskStatus.DONE);
+        SubTask subTask = new SubTask(9, "Sub", "Desc", TaskStatus.DONE, 3, Duration.ZERO, null);
+
+        List<Task> loaded = readAll(writeSnapshot(task, early, epic, subTask));
+
+        assertEquals(4, loaded.size());
+        Task loadedTask = loaded.get(0);
+        assertEquals(7, loadedTask.getId());
+        assertEquals("Задача", loadedTask.getTitle());
+        assertEquals("Описание, с запятой", loadedTask.getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, loadedTask.getStatus());
+        assertEquals(Duration.ofMinutes(45), loadedTask.getDuration());
+        assertEquals(LocalDateTime.of(2025, 3, 13, 5, 7, 9), loadedTask.getStartTime());
+
+        assertEquals(300_000, loaded.get(1).getId());
+        assertNull(loaded.get(1).getDescription());
+        assertNull(loaded.get(1).getDuration());
+        assertEquals(LocalDateTime.of(1950, 1, 1, 0, 0), loaded.get(1).getStartTime());
+
+        assertInstanceOf(Epic.class, loaded.get(2));
+        assertEquals(TaskStatus.DONE, loaded.get(2).getStatus());
+
+        SubTask loadedSub = (SubTask) loaded.get(3);
+        assertEquals(3, loadedSub.getEpicId());
+        assertEquals(Duration.ZERO, loadedSub.getDuration());
+        assertNull(loadedSub.getStartTime());
+    }
+
+    @Test
+    void testFormatIsDetectedBySignature() throws IOException {
+        Path binary = writeSnapshot(new Task("T", "D", TaskStatus.NEW, 1, null, null));
+        Path csv = Files.createTempFile("snapshot", ".csv");
+        Files.writeString(csv, "id,type,title,status,description,duration,startTime,epic\n1,TASK,T,NEW,D,,\n");
+
+        assertEquals(SnapshotFormat.BINARY, TaskSnapshotReader.detectFormat(binary));
+        assertEquals(SnapshotFormat.CSV, TaskSnapshotReader.detectFormat(csv));
+        assertEquals(readAll(binary), readAll(csv), "Both formats should yield the same tasks");
+    }
+
+    @Test
+    void testUnsupportedVersionIsRejected() throws IOException {
+        Path file = Files.createTempFile("snapshot", ".bin");
+        Files.write(file, new byte[]{'K', 'N', 'B', 'S', 99, 0});
+
+        assertThrows(IOException.class, () -> new TaskBinaryReader(file));
+    }
+
+    @Test
+    void testTaskWithoutStatusIsRejectedBeforeWriting() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TaskBinaryWriter writer = new TaskBinaryWriter(bytes);
+        int headerSize = bytes.size();
+        Task task = new Task("T", "D", null, 5, null, null);
+
+        ManagerSaveException exception = assertThrows(ManagerSaveException.class, () -> writer.write(task));
+        assertTrue(exception.getMessage().contains("5"), "Message should name the task");
+        assertEquals(headerSize, bytes.size(), "Nothing of the rejected task should be written");
+    }
+}
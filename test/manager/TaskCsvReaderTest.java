@@ -0,0 +1,73 @@
+package manager;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCsvReaderTest {
+
+    @Test
+    void testParseTaskWithTimeFields() {
+        Task task = TaskCsvReader.parse("7,TASK,Задача,IN_PROGRESS,Описание,45,13-03-2025 05:07:09");
+
+        assertEquals(7, task.getId());
+        assertEquals("Задача", task.getTitle());
+        assertEquals("Описание", task.getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
+        assertEquals(Duration.ofMinutes(45), task.getDuration());
+        assertEquals(LocalDateTime.of(2025, 3, 13, 5, 7, 9), task.getStartTime());
+    }
+
+    @Test
+    void testParseSubtaskAndEpicWithoutTime() {
+        SubTask subTask = (SubTask) TaskCsvReader.parse("9,SUBTASK,Sub,DONE,Desc,,,3  ");
+        Task epic = TaskCsvReader.parse("3,EPIC,Epic,NEW,Desc,,");
+
+        assertEquals(3, subTask.getEpicId());
+        assertNull(subTask.getDuration());
+        assertNull(subTask.getStartTime());
+        assertInstanceOf(Epic.class, epic);
+    }
+
+    @Test
+    void testParseRejectsMalformedLines() {
+        assertThrows(IllegalArgumentException.class, () -> TaskCsvReader.parse("1,TASK,Title"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCsvReader.parse("1,TASK,Title,UNKNOWN,Desc,,"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCsvReader.parse("x,TASK,Title,NEW,Desc,,"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCsvReader.parse("2,SUBTASK,Sub,NEW,Desc,,"),
+                "Subtask without epic id should be rejected");
+    }
+
+    @Test
+    void testReaderSkipsHeaderAndBlankLines() throws IOException {
+        Path file = Files.createTempFile("reader", ".csv");
+        Files.writeString(file, "id,type,title,status,description,duration,startTime,epic\n"
+                + "1,TASK,Первая,NEW,Desc,,\n\n"
+                + "2,EPIC,Эпик,NEW,Desc,,\n", StandardCharsets.UTF_8);
+
+        List<Task> loaded = new ArrayList<>();
+        try (TaskCsvReader reader = new TaskCsvReader(file)) {
+            Task task;
+            while ((task = reader.next()) != null) {
+                loaded.add(task);
+            }
+        }
+
+        assertEquals(2, loaded.size());
+        assertEquals("Первая", loaded.get(0).getTitle());
+        assertEquals("Эпик", loaded.get(1).getTitle());
+    }
+}
@@ -0,0 +1,109 @@
+package manager;
+
+import data.Epic;
+import data.Task;
+import data.TaskStatus;
+import data.TypeTask;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventBusTest {
+
+    private static Task task(int id) {
+        Task task = new Task("Task " + id, "Desc", TaskStatus.NEW);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    void testSequenceNumbersIncreaseAndListenersReceiveEvents() {
+        TaskEventBus bus = new TaskEventBus();
+        List<TaskEvent> received = new ArrayList<>();
+        bus.addListener(received::add);
+
+        bus.publish(TaskEvent.Kind.CREATED, task(1));
+        bus.publish(TaskEvent.Kind.DELETED, TypeTask.TASK, 1, null);
+
+        assertEquals(2, bus.getLastSequence());
+        assertEquals(List.of(1L, 2L), received.stream().map(TaskEvent::getSequence).toList());
+        assertEquals(TaskEvent.Kind.DELETED, received.get(1).getKind());
+        assertNull(received.get(1).getTask(), "Deleted event should not carry a task");
+    }
+
+    @Test
+    void testEventsAfterReturnsOnlyNewerEvents() {
+        TaskEventBus bus = new TaskEventBus();
+        bus.retainRecent();
+        for (int id = 1; id <= 5; id++) {
+            bus.publish(TaskEvent.Kind.CREATED, task(id));
+        }
+        assertEquals(List.of(4L, 5L), bus.eventsAfter(3).stream().map(TaskEvent::getSequence).toList());
+        assertTrue(bus.eventsAfter(5).isEmpty(), "Up-to-date client should get no events");
+        assertNull(bus.eventsAfter(6), "Sequence from the future should require a reset");
+    }
+
+    @Test
+    void testEvictedEventsRequireReset() {
+        TaskEventBus bus = new TaskEventBus(3);
+        bus.retainRecent();
+        for (int id = 1; id <= 5; id++) {
+            bus.publish(TaskEvent.Kind.CREATED, task(id));
+        }
+        assertNull(bus.eventsAfter(1), "Event 2 is no longer buffered");
+        assertEquals(List.of(3L, 4L, 5L), bus.eventsAfter(2).stream().map(TaskEvent::getSequence).toList());
+    }
+
+    @Test
+    void testSubscribeReturnsBacklogAndRegistersListener() {
+        TaskEventBus bus = new TaskEventBus();
+        bus.retainRecent();
+        bus.publish(TaskEvent.Kind.CREATED, task(1));
+        List<TaskEvent> received = new ArrayList<>();
+
+        List<TaskEvent> backlog = bus.subscribe(received::add, 0);
+        bus.publish(TaskEvent.Kind.CREATED, task(2));
+
+        assertEquals(1, backlog.size());
+        assertEquals(List.of(2L), received.stream().map(TaskEvent::getSequence).toList());
+        assertNull(new TaskEventBus().subscribe(received::add, 10), "Unknown sequence should not subscribe");
+    }
+
+    @Test
+    void testNothingIsKeptWithoutReaders() {
+        TaskEventBus bus = new TaskEventBus();
+        bus.publish(TaskEvent.Kind.CREATED, task(1));
+        bus.publish(TaskEvent.Kind.CREATED, task(2));
+
+        assertEquals(2, bus.getLastSequence(), "Sequence should advance without readers");
+        assertNull(bus.eventsAfter(0), "Events published before retainRecent are not buffered");
+        assertTrue(bus.eventsAfter(2).isEmpty(), "Up-to-date client can still subscribe");
+
+        bus.retainRecent();
+        bus.publish(TaskEvent.Kind.CREATED, task(3));
+        assertNull(bus.eventsAfter(1));
+        assertEquals(List.of(3L), bus.eventsAfter(2).stream().map(TaskEvent::getSequence).toList());
+    }
+
+    @Test
+    void testEpicEventsAtHighFanOut() {
+        TaskEventBus bus = new TaskEventBus();
+        List<TaskEvent> received = new ArrayList<>();
+        bus.addListener(received::add);
+        Epic epic = new Epic(1, "Epic", "Desc", TaskStatus.NEW);
+        for (int id = 2; id <= 50_001; id++) {
+            epic.addSubtaskId(id);
+            bus.publish(TaskEvent.Kind.EPIC_RECALCULATED, epic);
+        }
+        epic.removeSubTaskId(2);
+
+        assertEquals(50_000, received.size());
+        assertEquals(List.of(2), ((Epic) received.get(0).getTask()).getSubTaskIds());
+        assertEquals(50_000, ((Epic) received.get(received.size() - 1).getTask()).getSubTaskIds().size(),
+                "Event should keep the ids at publication");
+        assertEquals(49_999, epic.getSubTaskIds().size());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -217,4 +218,366 @@ public abstract class TaskManagerTest<T extends TaskManager> {
             taskManager.addTask(task2);
         }, "Tasks with non-overlapping times should be added without exception");
     }
+
+    @Test
+    void testTaskIntersectsWithSubtask() {
+        taskManager.addEpic(epic);
+        subTask.setEpicId(epic.getId());
+        taskManager.addSubtask(subTask);
+        Task overlapping = new Task("Task 2", "Desc 2", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 15));
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.addTask(overlapping),
+                "Task overlapping a subtask should be rejected");
+    }
+
+    @Test
+    void testUpdateTaskKeepsOwnInterval() {
+        taskManager.addTask(task);
+        Task movedTask = new Task("Task 1", "Description 1", TaskStatus.IN_PROGRESS,
+                Duration.ofMinutes(90), LocalDateTime.of(2025, 3, 12, 9, 30));
+        assertDoesNotThrow(() -> taskManager.updateTask(task, movedTask),
+                "Task should not intersect with its previous version");
+
+        Task freedSlot = new Task("Task 2", "Desc 2", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 9, 0));
+        assertDoesNotThrow(() -> taskManager.addTask(freedSlot), "Previous interval should be released");
+    }
+
+    @Test
+    void testSizesMatchCopiedLists() {
+        taskManager.addTask(task);
+        taskManager.addTask(new Task("Unscheduled", "Desc", TaskStatus.NEW));
+        taskManager.addEpic(epic);
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 12, 0));
+        taskManager.addSubtask(sub);
+        taskManager.getTaskById(task.getId());
+        taskManager.getEpicById(epic.getId());
+        assertEquals(taskManager.getHistory().size(), taskManager.historySize());
+        assertEquals(taskManager.getPrioritizedTasks().size(), taskManager.prioritizedSize());
+
+        taskManager.deleteSubTaskById(sub.getId());
+        taskManager.clearTask();
+        assertEquals(taskManager.getHistory().size(), taskManager.historySize());
+        assertEquals(taskManager.getPrioritizedTasks().size(), taskManager.prioritizedSize());
+        assertEquals(0, taskManager.prioritizedSize(), "Epic without subtasks has no start");
+    }
+
+    @Test
+    void testPrioritizedTasksInWindow() {
+        List<Task> added = new ArrayList<>();
+        for (int hour = 1; hour <= 5; hour++) {
+            Task hourly = new Task("Task " + hour, "Desc", TaskStatus.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 4, 1, hour, 0));
+            taskManager.addTask(hourly);
+            added.add(hourly);
+        }
+        taskManager.addTask(new Task("Unscheduled", "Desc", TaskStatus.NEW));
+
+        LocalDateTime from = LocalDateTime.of(2025, 4, 1, 2, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 4, 1, 4, 0);
+        assertEquals(added.subList(1, 3), taskManager.getPrioritizedTasks(from, to, 10),
+                "Window should include its start and exclude its end");
+        assertEquals(added.subList(1, 2), taskManager.getPrioritizedTasks(from, null, 1));
+        assertEquals(added, taskManager.getPrioritizedTasks(null, null, Integer.MAX_VALUE),
+                "Open window should contain only scheduled tasks");
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getPrioritizedTasks(to, from, 10));
+    }
+
+    @Test
+    void testApplyBatchCreatesEpicWithSubtasksAndRecalculatesIt() {
+        Epic batchEpic = new Epic("Batch epic", "Desc");
+        SubTask first = new SubTask("First", "Desc", TaskStatus.DONE, 0,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 5, 1, 10, 0));
+        SubTask second = new SubTask("Second", "Desc", TaskStatus.DONE, 0,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 5, 1, 11, 0));
+        List<Integer> ids = taskManager.applyBatch(List.of(
+                BatchOperation.create(batchEpic),
+                BatchOperation.createSubtask(first, 0),
+                BatchOperation.createSubtask(second, 0),
+                BatchOperation.create(task)));
+
+        assertEquals(List.of(batchEpic.getId(), first.getId(), second.getId(), task.getId()), ids);
+        Epic stored = taskManager.getEpics().get(batchEpic.getId());
+        assertEquals(List.of(first.getId(), second.getId()), stored.getSubTaskIds());
+        assertEquals(TaskStatus.DONE, stored.getStatus(), "Epic status should be recalculated after the batch");
+        assertEquals(LocalDateTime.of(2025, 5, 1, 10, 0), stored.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 5, 1, 11, 30), stored.getEndTime());
+    }
+
+    @Test
+    void testApplyBatchIsAllOrNothing() {
+        taskManager.addTask(task);
+        Task kept = new Task("Kept", "Desc", TaskStatus.NEW);
+        Task overlapping = new Task("Overlapping", "Desc", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 9, 30));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.applyBatch(List.of(
+                BatchOperation.create(kept),
+                BatchOperation.delete(TypeTask.TASK, task.getId() + 100),
+                BatchOperation.create(overlapping))), "Batch with a missing ID should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> taskManager.applyBatch(List.of(
+                BatchOperation.create(kept),
+                BatchOperation.create(overlapping))), "Batch overlapping a stored task should be rejected");
+        assertEquals(1, taskManager.getTasks().size(), "Rejected batch should not change the manager");
+    }
+
+    @Test
+    void testRejectedBatchLeavesOperationTasksUntouched() {
+        taskManager.addTask(task);
+        Task created = new Task(77, "Created", "Desc", TaskStatus.NEW);
+        Task update = new Task(55, "Update", "Desc", TaskStatus.DONE);
+        assertThrows(IllegalArgumentException.class, () -> taskManager.applyBatch(List.of(
+                BatchOperation.create(created),
+                BatchOperation.update(task.getId(), update),
+                BatchOperation.delete(TypeTask.TASK, task.getId() + 100))));
+        assertEquals(77, created.getId(), "Validation should not reassign ids of the caller's tasks");
+        assertEquals(55, update.getId());
+
+        List<Integer> ids = taskManager.applyBatch(List.of(BatchOperation.update(task.getId(), update)));
+        assertEquals(List.of(task.getId()), ids);
+        assertEquals("Update", taskManager.getTasks().get(task.getId()).getTitle());
+    }
+
+    @Test
+    void testApplyBatchChecksIntervalsAgainstFinalState() {
+        Task a = new Task("A", "Desc", TaskStatus.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 1, 9, 0));
+        Task b = new Task("B", "Desc", TaskStatus.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 1, 10, 0));
+        taskManager.addTask(a);
+        taskManager.addTask(b);
+
+        // A и B меняются местами: промежуточные состояния пересекаются, итоговое — нет
+        Task movedA = new Task("A", "Desc", TaskStatus.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 1, 10, 0));
+        Task movedB = new Task("B", "Desc", TaskStatus.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 1, 9, 0));
+        assertDoesNotThrow(() -> taskManager.applyBatch(List.of(
+                BatchOperation.update(a.getId(), movedA),
+                BatchOperation.update(b.getId(), movedB))));
+        assertEquals(List.of(movedB, movedA), taskManager.getPrioritizedTasks());
+
+        Task x = new Task("X", "Desc", TaskStatus.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 2, 9, 0));
+        Task y = new Task("Y", "Desc", TaskStatus.NEW, Duration.ofMinutes(30), LocalDateTime.of(2025, 6, 2, 9, 45));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.applyBatch(List.of(
+                BatchOperation.create(x), BatchOperation.create(y))), "Tasks of one batch should not overlap");
+
+        Task freed = new Task("Freed", "Desc", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 6, 1, 9, 0));
+        assertDoesNotThrow(() -> taskManager.applyBatch(List.of(
+                BatchOperation.delete(TypeTask.TASK, movedB.getId()), BatchOperation.create(freed))),
+                "Interval of a task deleted in the batch should be released");
+    }
+
+    @Test
+    void testChangesArePublishedAsEvents() {
+        List<TaskEvent> events = new ArrayList<>();
+        taskManager.getEventBus().addListener(events::add);
+
+        taskManager.addTask(task);
+        taskManager.addEpic(epic);
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        taskManager.addSubtask(sub);
+        taskManager.updateTask(task, new Task("Task 1", "Updated", TaskStatus.DONE));
+        taskManager.deleteEpicById(epic.getId());
+
+        assertEquals(List.of(TaskEvent.Kind.CREATED, TaskEvent.Kind.CREATED, TaskEvent.Kind.CREATED,
+                        TaskEvent.Kind.EPIC_RECALCULATED, TaskEvent.Kind.UPDATED,
+                        TaskEvent.Kind.DELETED, TaskEvent.Kind.DELETED),
+                events.stream().map(TaskEvent::getKind).toList());
+        assertEquals(TaskStatus.DONE, events.get(3).getTask().getStatus(), "Recalculated epic should be attached");
+        assertEquals(List.of(sub.getId(), epic.getId()), events.subList(5, 7).stream().map(TaskEvent::getId).toList(),
+                "Subtasks should be reported deleted together with their epic");
+        for (int i = 1; i < events.size(); i++) {
+            assertEquals(events.get(i - 1).getSequence() + 1, events.get(i).getSequence());
+        }
+    }
+
+    @Test
+    void testEventsCarryCopiesOfTasks() {
+        List<TaskEvent> events = new ArrayList<>();
+        taskManager.getEventBus().addListener(events::add);
+
+        taskManager.addEpic(epic);
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        taskManager.addSubtask(sub);
+        taskManager.updateEpic(epic, "Renamed", "Desc");
+
+        Task created = events.get(0).getTask();
+        assertNotSame(epic, created, "Event should not expose the manager's epic");
+        assertEquals("Epic 1", created.getTitle(), "Earlier event should keep the state at publication");
+        assertEquals(TaskStatus.NEW, created.getStatus());
+        assertNotSame(sub, events.get(1).getTask());
+        assertEquals(sub.getEpicId(), ((SubTask) events.get(1).getTask()).getEpicId());
+        assertEquals("Renamed", events.get(events.size() - 1).getTask().getTitle());
+    }
+
+    @Test
+    void testStatusIndexFollowsChanges() {
+        taskManager.addTask(task);
+        taskManager.addEpic(epic);
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.IN_PROGRESS, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        taskManager.addSubtask(sub);
+
+        assertEquals(List.of(task), taskManager.getTasksByStatus(TaskStatus.NEW));
+        assertEquals(List.of(sub), taskManager.getSubtasksByStatus(TaskStatus.IN_PROGRESS));
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.IN_PROGRESS),
+                "Epic should be indexed under its recalculated status");
+
+        Task done = new Task("Task 1", "Description 1", TaskStatus.DONE);
+        taskManager.updateTask(task, done);
+        SubTask doneSub = new SubTask("Sub", "Desc", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        taskManager.updateSubTask(sub, doneSub);
+
+        assertTrue(taskManager.getTasksByStatus(TaskStatus.NEW).isEmpty(), "Updated task should leave its old status");
+        assertEquals(List.of(done), taskManager.getTasksByStatus(TaskStatus.DONE));
+        assertEquals(List.of(doneSub), taskManager.getSubtasksByStatus(TaskStatus.DONE));
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.DONE));
+        assertTrue(taskManager.getEpicsByStatus(TaskStatus.IN_PROGRESS).isEmpty());
+
+        taskManager.deleteEpicById(epic.getId());
+        taskManager.deleteTaskById(done.getId());
+        for (TaskStatus status : TaskStatus.values()) {
+            assertTrue(taskManager.getTasksByStatus(status).isEmpty());
+            assertTrue(taskManager.getEpicsByStatus(status).isEmpty());
+            assertTrue(taskManager.getSubtasksByStatus(status).isEmpty(), "Subtasks should leave with their epic");
+        }
+    }
+
+    @Test
+    void testSubtasksOfEpicAreOrderedByStart() {
+        taskManager.addEpic(epic);
+        SubTask late = new SubTask("Late", "Desc", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 12, 0));
+        SubTask unscheduled = new SubTask("Unscheduled", "Desc", TaskStatus.NEW, epic.getId(), null, null);
+        SubTask early = new SubTask("Early", "Desc", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 8, 0));
+        SubTask unscheduledLater = new SubTask("Unscheduled later", "Desc", TaskStatus.NEW, epic.getId(), null, null);
+        taskManager.addSubtask(late);
+        taskManager.addSubtask(unscheduled);
+        taskManager.addSubtask(early);
+        taskManager.addSubtask(unscheduledLater);
+        assertEquals(List.of(early, late, unscheduled, unscheduledLater), taskManager.getSubtaskByEpic(epic),
+                "Order is by start time, not by insertion; subtasks without start go last by ID");
+
+        SubTask moved = new SubTask("Late", "Desc", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 6, 0));
+        taskManager.updateSubTask(late, moved);
+        assertEquals(List.of(moved, early, unscheduled, unscheduledLater), taskManager.getSubtaskByEpic(epic),
+                "Rescheduled subtask should move in the order");
+    }
+
+    @Test
+    void testSearchIndexFollowsChanges() {
+        taskManager.addTask(task);
+        taskManager.addEpic(epic);
+        SubTask sub = new SubTask("Миграция базы", "Перенести таблицы", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 0));
+        taskManager.addSubtask(sub);
+
+        assertEquals(List.of(task), taskManager.search("descr task", 10));
+        assertEquals(List.of(sub), taskManager.search("миграция", 10));
+
+        Task renamed = new Task("Отчёт", "Квартальный", TaskStatus.NEW);
+        taskManager.updateTask(task, renamed);
+        taskManager.updateEpic(epic, "Переезд", "Новый сервер");
+        assertTrue(taskManager.search("description", 10).isEmpty(), "Old text should not be found");
+        assertEquals(List.of(renamed), taskManager.search("отчет", 10));
+        assertEquals(List.of(epic), taskManager.search("переезд", 10));
+
+        taskManager.deleteEpicById(epic.getId());
+        assertTrue(taskManager.search("миграция", 10).isEmpty(), "Subtasks should leave with their epic");
+        taskManager.clearTask();
+        assertTrue(taskManager.search("отчет", 10).isEmpty());
+    }
+
+    @Test
+    void testFindFreeSlotAroundScheduledItems() {
+        taskManager.addTask(task); // 9:00–10:00
+        taskManager.addEpic(epic);
+        taskManager.addSubtask(new SubTask("Sub", "Desc", TaskStatus.NEW, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 12, 10, 15)));
+
+        assertEquals(Optional.of(LocalDateTime.of(2025, 3, 12, 10, 45)), taskManager.findFreeSlot(
+                Duration.ofMinutes(20), LocalDateTime.of(2025, 3, 12, 9, 30), null));
+        assertEquals(Optional.of(LocalDateTime.of(2025, 3, 12, 10, 0)), taskManager.findFreeSlot(
+                Duration.ofMinutes(15), LocalDateTime.of(2025, 3, 12, 9, 30), null));
+    }
+
+    @Test
+    void testScheduleFillsGapsWithoutOverlaps() {
+        taskManager.addTask(task); // 9:00–10:00
+        Task shortTask = new Task("Short", "Desc", TaskStatus.NEW, Duration.ofMinutes(30), null);
+        Task longTask = new Task("Long", "Desc", TaskStatus.NEW, Duration.ofMinutes(90), null);
+        Task huge = new Task("Huge", "Desc", TaskStatus.NEW, Duration.ofMinutes(600), null);
+        taskManager.addTask(shortTask);
+        taskManager.addTask(longTask);
+        taskManager.addTask(huge);
+        LocalDateTime from = LocalDateTime.of(2025, 3, 12, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 12, 12, 0);
+
+        ScheduleResult result = taskManager.schedule(List.of(shortTask.getId(), longTask.getId(), huge.getId()),
+                from, to, SchedulePolicy.IN_ORDER);
+
+        assertEquals(List.of(huge.getId()), result.getUnscheduled(), "Task longer than any gap stays unscheduled");
+        assertEquals(LocalDateTime.of(2025, 3, 12, 8, 0),
+                taskManager.getTasks().get(shortTask.getId()).getStartTime(), "First task takes the earliest gap");
+        assertEquals(LocalDateTime.of(2025, 3, 12, 10, 0),
+                taskManager.getTasks().get(longTask.getId()).getStartTime(), "Long task skips the short remainder");
+        assertNull(taskManager.getTasks().get(huge.getId()).getStartTime());
+        assertEquals(3, taskManager.getPrioritizedTasks().size());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.schedule(List.of(task.getId()), from, to,
+                SchedulePolicy.IN_ORDER), "Already scheduled task cannot be placed again");
+    }
+
+    @Test
+    void testScheduleLongestFirstPacksTighter() {
+        Task blocker = new Task("Blocker", "Desc", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 3, 12, 9, 0));
+        taskManager.addTask(blocker);
+        Task shortTask = new Task("Short", "Desc", TaskStatus.NEW, Duration.ofMinutes(30), null);
+        Task longTask = new Task("Long", "Desc", TaskStatus.NEW, Duration.ofMinutes(60), null);
+        taskManager.addTask(shortTask);
+        taskManager.addTask(longTask);
+
+        ScheduleResult result = taskManager.schedule(List.of(shortTask.getId(), longTask.getId()),
+                LocalDateTime.of(2025, 3, 12, 8, 0), LocalDateTime.of(2025, 3, 12, 10, 30), SchedulePolicy.LONGEST_FIRST);
+
+        assertTrue(result.getUnscheduled().isEmpty(), "Both tasks fit when the long one goes first");
+        assertEquals(LocalDateTime.of(2025, 3, 12, 8, 0), taskManager.getTasks().get(longTask.getId()).getStartTime());
+        assertEquals(LocalDateTime.of(2025, 3, 12, 10, 0), taskManager.getTasks().get(shortTask.getId()).getStartTime());
+    }
+
+    @Test
+    void testPagesAreStableUnderChanges() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task item = new Task("Task " + i, "Desc", TaskStatus.NEW);
+            taskManager.addTask(item);
+            ids.add(item.getId());
+        }
+
+        List<Task> first = taskManager.getTasksPage(0, 2);
+        assertEquals(ids.subList(0, 2), first.stream().map(Task::getId).toList());
+
+        // Между страницами удаляется уже выданная задача и добавляется новая
+        taskManager.deleteTaskById(ids.get(0));
+        Task added = new Task("Added", "Desc", TaskStatus.NEW);
+        taskManager.addTask(added);
+
+        int cursor = first.get(first.size() - 1).getId();
+        assertEquals(ids.subList(2, 4), taskManager.getTasksPage(cursor, 2).stream().map(Task::getId).toList(),
+                "Deleting an earlier task should not shift the next page");
+        assertEquals(List.of(ids.get(4), added.getId()),
+                taskManager.getTasksPage(ids.get(3), 10).stream().map(Task::getId).toList());
+
+        taskManager.addEpic(epic);
+        SubTask sub = new SubTask("Sub", "Desc", TaskStatus.NEW, epic.getId(), null, null);
+        taskManager.addSubtask(sub);
+        assertEquals(List.of(epic), taskManager.getEpicsPage(0, 10));
+        assertEquals(List.of(sub), taskManager.getSubtasksPage(0, 10));
+        taskManager.deleteEpic();
+        assertTrue(taskManager.getSubtasksPage(0, 10).isEmpty(), "Subtasks should leave with their epic");
+    }
 }
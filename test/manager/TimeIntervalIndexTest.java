@@ -0,0 +1,104 @@
+package manager;
+
+import data.Task;
+import data.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeIntervalIndexTest {
+    private TimeIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TimeIntervalIndex();
+    }
+
+    private Task interval(int id, int hour, int minutes) {
+        return new Task("Task " + id, "Desc", TaskStatus.NEW, id,
+                Duration.ofMinutes(minutes), LocalDateTime.of(2025, 3, 12, hour, 0));
+    }
+
+    @Test
+    void testFindIntersectionWithPreviousInterval() {
+        index.add(interval(1, 9, 90));
+        index.add(interval(2, 11, 60));
+
+        assertTrue(index.findIntersection(interval(3, 10, 30)).isPresent(),
+                "Interval starting inside an earlier one should intersect");
+        assertFalse(index.findIntersection(interval(4, 12, 30)).isPresent(),
+                "Adjacent interval should not intersect");
+    }
+
+    @Test
+    void testFindAllIntersections() {
+        index.add(interval(1, 9, 60));
+        index.add(interval(2, 10, 60));
+        index.add(interval(3, 12, 60));
+
+        List<Task> found = index.findIntersections(interval(4, 9, 180));
+        assertEquals(2, found.size(), "Both covered intervals should be found");
+    }
+
+    @Test
+    void testSameIdIsIgnoredAndRemoved() {
+        Task task = interval(1, 9, 60);
+        index.add(task);
+        assertFalse(index.findIntersection(interval(1, 9, 30)).isPresent(),
+                "Interval should not intersect with itself");
+
+        index.remove(task);
+        assertEquals(0, index.size(), "Index should be empty after removal");
+        assertFalse(index.findIntersection(interval(2, 9, 30)).isPresent());
+    }
+
+    @Test
+    void testFindFreeSlotSkipsBusyIntervals() {
+        index.add(interval(1, 9, 60));
+        index.add(interval(2, 10, 30));
+        index.add(interval(3, 11, 60));
+        LocalDateTime from = LocalDateTime.of(2025, 3, 12, 9, 30);
+
+        assertEquals(Optional.of(LocalDateTime.of(2025, 3, 12, 10, 30)),
+                index.findFreeSlot(from, null, Duration.ofMinutes(30)), "Window start inside a busy interval");
+        assertEquals(Optional.of(LocalDateTime.of(2025, 3, 12, 12, 0)),
+                index.findFreeSlot(from, null, Duration.ofMinutes(45)), "Too short gaps should be skipped");
+        assertTrue(index.findFreeSlot(from, LocalDateTime.of(2025, 3, 12, 12, 30), Duration.ofMinutes(45)).isEmpty(),
+                "Slot must end inside the window");
+    }
+
+    @Test
+    void testZeroLengthIntervalSplitsFreeTime() {
+        index.add(new Task("Point", "Desc", TaskStatus.NEW, 1, Duration.ZERO, LocalDateTime.of(2025, 3, 12, 10, 0)));
+        LocalDateTime from = LocalDateTime.of(2025, 3, 12, 9, 30);
+
+        assertEquals(Optional.of(LocalDateTime.of(2025, 3, 12, 10, 0)),
+                index.findFreeSlot(from, null, Duration.ofMinutes(60)));
+        List<LocalDateTime[]> gaps = index.findFreeGaps(from, LocalDateTime.of(2025, 3, 12, 11, 0));
+        assertEquals(2, gaps.size());
+        assertEquals(LocalDateTime.of(2025, 3, 12, 10, 0), gaps.get(0)[1]);
+        assertEquals(LocalDateTime.of(2025, 3, 12, 10, 0), gaps.get(1)[0]);
+    }
+
+    @Test
+    void testFindFreeGapsInWindow() {
+        index.add(interval(1, 8, 120));
+        index.add(interval(2, 11, 30));
+        List<LocalDateTime[]> gaps = index.findFreeGaps(LocalDateTime.of(2025, 3, 12, 9, 0),
+                LocalDateTime.of(2025, 3, 12, 12, 0));
+
+        assertEquals(2, gaps.size());
+        assertArrayEquals(new LocalDateTime[]{LocalDateTime.of(2025, 3, 12, 10, 0), LocalDateTime.of(2025, 3, 12, 11, 0)},
+                gaps.get(0));
+        assertArrayEquals(new LocalDateTime[]{LocalDateTime.of(2025, 3, 12, 11, 30), LocalDateTime.of(2025, 3, 12, 12, 0)},
+                gaps.get(1));
+        assertThrows(IllegalArgumentException.class, () -> index.findFreeGaps(LocalDateTime.of(2025, 3, 12, 9, 0),
+                LocalDateTime.of(2025, 3, 12, 8, 0)));
+    }
+}
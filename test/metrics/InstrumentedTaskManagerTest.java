@@ -0,0 +1,57 @@
+package metrics;
+
+import data.Epic;
+import data.SubTask;
+import data.Task;
+import data.TaskStatus;
+import manager.InMemoryHistoryManager;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstrumentedTaskManagerTest {
+
+    @Test
+    void testDelegatesAndRecordsLatencies() {
+        MetricsRegistry registry = new MetricsRegistry();
+        InstrumentedHistoryManager history = new InstrumentedHistoryManager(new InMemoryHistoryManager(), registry);
+        TaskManager manager = new InstrumentedTaskManager(new InMemoryTaskManager(history), registry);
+
+        Task task = new Task("Task", "Description", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 1, 1, 10, 0));
+        manager.addTask(task);
+        Epic epic = new Epic("Epic", "Description");
+        manager.addEpic(epic);
+        manager.addSubtask(new SubTask("Subtask", "Description", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(15), LocalDateTime.of(2024, 1, 1, 11, 0)));
+        manager.getTaskById(task.getId());
+        manager.getTaskById(task.getId());
+
+        assertEquals(1, manager.getTasks().size());
+        assertEquals(TaskStatus.DONE, manager.getEpicById(epic.getId()).orElseThrow().getStatus());
+        assertEquals(2, manager.getHistory().size());
+
+        String operations = InstrumentedTaskManager.OPERATION_DURATION;
+        assertEquals(2, registry.histogram(operations, "", "operation", "getTaskById").getCount());
+        assertEquals(1, registry.histogram(operations, "", "operation", "addSubtask").getCount());
+        assertEquals(1, registry.histogram(operations, "", "operation", "getHistory").getCount());
+        assertEquals(3, registry.histogram(InstrumentedHistoryManager.OPERATION_DURATION, "",
+                "operation", "add").getCount());
+        assertTrue(registry.scrape().contains("kanban_manager_operation_duration_seconds_count{operation=\"addTask\"} 1"));
+    }
+
+    @Test
+    void testFailedOperationIsTimed() {
+        MetricsRegistry registry = new MetricsRegistry();
+        TaskManager manager = new InstrumentedTaskManager(new InMemoryTaskManager(), registry);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.search("", -1));
+        assertEquals(1, registry.histogram(InstrumentedTaskManager.OPERATION_DURATION, "",
+                "operation", "search").getCount());
+    }
+}
@@ -0,0 +1,59 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testBucketBoundsCoverValues() {
+        long[] values = {0, 1, 3, 4, 5, 7, 8, 15, 16, 17, 31, 32, 1000, 1023, 1024, 123_456_789L, Long.MAX_VALUE / 3};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(value < upper, "Value below upper bound: " + value);
+            assertTrue(upper - value <= Math.max(1, value / LatencyHistogram.SUB_BUCKETS),
+                    "Relative error within 1/SUB_BUCKETS: " + value);
+            if (bucket > 0) {
+                assertTrue(value >= LatencyHistogram.upperBoundOf(bucket - 1), "Value above lower bound: " + value);
+            }
+        }
+        long width = 1024 / LatencyHistogram.SUB_BUCKETS;
+        assertEquals(LatencyHistogram.bucketOf(1024), LatencyHistogram.bucketOf(1024 + width - 1));
+        assertNotEquals(LatencyHistogram.bucketOf(1024 + width - 1), LatencyHistogram.bucketOf(1024 + width));
+    }
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500_000L, histogram.getSum());
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 + 500_000 / LatencyHistogram.SUB_BUCKETS,
+                "Median within bucket precision: " + median);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 + 990_000 / LatencyHistogram.SUB_BUCKETS,
+                "p99 within bucket precision: " + p99);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+
+    @Test
+    void testCountBelowPowerOfTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1023);
+        histogram.record(1024);
+        histogram.record(2047);
+        histogram.record(-5); // отрицательная разница nanoTime считается нулём
+
+        assertEquals(1, histogram.countBelowPowerOfTwo(0));
+        assertEquals(1, histogram.countBelowPowerOfTwo(9));
+        assertEquals(2, histogram.countBelowPowerOfTwo(10));
+        assertEquals(4, histogram.countBelowPowerOfTwo(11));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,48 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void testScrapeRendersTextExposition() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests", "route", "/tasks").add(3);
+        registry.gauge("store_size", "Store size", () -> 42, "store", "tasks");
+        LatencyHistogram histogram = registry.histogram("duration_seconds", "Duration", "operation", "add");
+        histogram.record(1_500);
+        histogram.record(3_000_000_000L);
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# HELP requests_total Requests\n# TYPE requests_total counter\n"));
+        assertTrue(text.contains("requests_total{route=\"/tasks\"} 3\n"));
+        assertTrue(text.contains("# TYPE store_size gauge\nstore_size{store=\"tasks\"} 42\n"));
+        assertTrue(text.contains("# TYPE duration_seconds histogram\n"));
+        assertTrue(text.contains("duration_seconds_bucket{operation=\"add\",le=\"1.024E-6\"} 0\n"));
+        assertTrue(text.contains("duration_seconds_bucket{operation=\"add\",le=\"2.048E-6\"} 1\n"));
+        assertTrue(text.contains("duration_seconds_bucket{operation=\"add\",le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("duration_seconds_count{operation=\"add\"} 2\n"));
+        assertTrue(text.indexOf("duration_seconds") < text.indexOf("requests_total"), "Families sorted by name");
+    }
+
+    @Test
+    void testSeriesAreSharedAndLabelsEscaped() {
+        MetricsRegistry registry = new MetricsRegistry();
+        assertSame(registry.counter("c", "help", "path", "a\"b\\c"), registry.counter("c", "help", "path", "a\"b\\c"));
+        registry.counter("c", "help", "path", "a\"b\\c").increment();
+
+        assertTrue(registry.scrape().contains("c{path=\"a\\\"b\\\\c\"} 1\n"));
+    }
+
+    @Test
+    void testTypeConflictAndOddLabelsRejected() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("metric", "help");
+
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("metric", "help"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("other", "help", "label"));
+    }
+}
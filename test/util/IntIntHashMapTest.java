@@ -0,0 +1,47 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertEquals(IntIntHashMap.NO_VALUE, map.put(5, 50));
+        assertEquals(50, map.put(5, 51), "put should return the previous value");
+        assertEquals(51, map.get(5));
+        assertEquals(51, map.remove(5));
+        assertEquals(IntIntHashMap.NO_VALUE, map.get(5));
+        assertTrue(map.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, -2));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomChurn() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000; // отрицательные ключи тоже допустимы
+            if (random.nextBoolean()) {
+                int value = random.nextInt(1_000);
+                assertEquals(expected.getOrDefault(key, IntIntHashMap.NO_VALUE), map.put(key, value));
+                expected.put(key, value);
+            } else {
+                assertEquals(expected.getOrDefault(key, IntIntHashMap.NO_VALUE), map.remove(key));
+                expected.remove(key);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.getOrDefault(key, IntIntHashMap.NO_VALUE), map.get(key), "key " + key);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntObjectHashMapTest {
+
+    @Test
+    void testMatchesHashMapUnderRandomChurn() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 100;
+            switch (random.nextInt(3)) {
+                case 0, 1 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                default -> assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map, "Map view should be equal to HashMap with the same entries");
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    void testIteratorRemoveKeepsRemainingEntries() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        for (int key = 0; key < 1_000; key++) {
+            map.put(key, String.valueOf(key));
+        }
+
+        map.values().removeIf(value -> Integer.parseInt(value) % 2 == 0);
+        Iterator<Map.Entry<Integer, String>> entries = map.entrySet().iterator();
+        while (entries.hasNext()) {
+            if (entries.next().getKey() % 3 == 0) {
+                entries.remove();
+            }
+        }
+
+        for (int key = 0; key < 1_000; key++) {
+            assertEquals(key % 2 != 0 && key % 3 != 0, map.containsKey(key), "key " + key);
+        }
+        assertEquals(333, map.size());
+    }
+
+    @Test
+    void testSequentialKeysIterateInOrder() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        for (int key = 1; key <= 10; key++) {
+            map.put(key, "v" + key);
+        }
+
+        int previous = 0;
+        for (int key : map.keySet()) {
+            assertTrue(key > previous, "Small sequential ids should iterate in ascending order");
+            previous = key;
+        }
+        assertThrows(IllegalArgumentException.class, () -> map.put(11, null));
+    }
+}
@@ -0,0 +1,60 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentIntMapTest {
+
+    @Test
+    void testMatchesTreeMapAndKeepsOldVersions() {
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        List<PersistentIntMap<String>> versions = new ArrayList<>();
+        List<Map<Integer, String>> expectedVersions = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(3) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(5_000);
+            if (random.nextInt(3) < 2) {
+                map = map.with(key, "v" + i);
+                expected.put(key, "v" + i);
+            } else {
+                map = map.without(key);
+                expected.remove(key);
+            }
+            if (i % 5_000 == 0) {
+                versions.add(map);
+                expectedVersions.add(new TreeMap<>(expected));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()), "Keys ascend");
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expectedVersions.get(i), versions.get(i), "Old version should stay unchanged");
+        }
+    }
+
+    @Test
+    void testEdgeKeysAndReadOnlyView() {
+        PersistentIntMap<String> empty = PersistentIntMap.empty();
+        PersistentIntMap<String> map = empty.with(0, "zero").with(Integer.MAX_VALUE, "max").with(31, "a").with(32, "b");
+
+        assertEquals("zero", map.get(0));
+        assertEquals("max", map.get(Integer.MAX_VALUE));
+        assertNull(map.get(-1));
+        assertNull(map.get(33));
+        assertTrue(empty.isEmpty());
+        assertSame(map, map.with(31, map.get(31)), "Same value gives the same version");
+        assertSame(map, map.without(1000));
+        assertSame(PersistentIntMap.empty(), map.without(0).without(31).without(32).without(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> map.with(-1, "x"));
+        assertThrows(IllegalArgumentException.class, () -> map.with(1, null));
+        assertThrows(UnsupportedOperationException.class, () -> map.put(1, "x"));
+        assertThrows(UnsupportedOperationException.class, () -> map.remove((Object) 0));
+    }
+}
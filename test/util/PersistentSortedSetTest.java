@@ -0,0 +1,62 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentSortedSetTest {
+
+    @Test
+    void testMatchesTreeSetAndKeepsOldVersions() {
+        PersistentSortedSet<Integer> set = PersistentSortedSet.empty(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        PersistentSortedSet<Integer> saved = set;
+        List<Integer> savedContent = List.of();
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                set = set.with(value);
+                expected.add(value);
+            } else {
+                set = set.without(value);
+                expected.remove(value);
+            }
+            assertEquals(expected.size(), set.size());
+            if (i == 25_000) {
+                saved = set;
+                savedContent = new ArrayList<>(expected);
+            }
+        }
+
+        assertEquals(new ArrayList<>(expected), set.toList());
+        assertEquals(savedContent, saved.toList(), "Old version should stay unchanged");
+        List<Integer> view = saved.toList();
+        assertThrows(UnsupportedOperationException.class, () -> view.add(1));
+    }
+
+    @Test
+    void testForEachFromStopsWhenActionReturnsFalse() {
+        PersistentSortedSet<Integer> set = PersistentSortedSet.empty(Comparator.naturalOrder());
+        for (int i = 0; i < 100; i += 10) {
+            set = set.with(i);
+        }
+        List<Integer> visited = new ArrayList<>();
+        set.forEachFrom(25, value -> value < 60 && visited.add(value));
+
+        assertEquals(List.of(30, 40, 50), visited);
+        assertTrue(set.contains(90));
+        assertFalse(set.contains(95));
+        assertSame(set, set.without(95));
+    }
+
+    @Test
+    void testWithReplacesEqualElement() {
+        PersistentSortedSet<String> set = PersistentSortedSet.empty(String.CASE_INSENSITIVE_ORDER);
+        set = set.with("abc").with("ABC");
+
+        assertEquals(List.of("ABC"), set.toList());
+    }
+}